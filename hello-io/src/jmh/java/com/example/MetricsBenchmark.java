@@ -0,0 +1,52 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one metrics event as instrumented code sees it.
+ * - noop:     Metrics.NOOP, the default; should be close to an empty method
+ * - registry: MetricsRegistry (LongAdder counter, LatencyHistogram timer including two System.nanoTime() reads)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"noop", "registry"})
+    public String metrics;
+
+    private Metrics.Counter counter;
+    private Metrics.Timer timer;
+
+    @Setup
+    public void setUp() {
+        Metrics m = metrics.equals("noop") ? Metrics.NOOP : new MetricsRegistry();
+        counter = m.counter("events");
+        timer = m.timer("work");
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void timerStartStop() {
+        timer.stop(timer.start());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XML-RPC over HTTP (HttpXmlRpcClient) against the binary transport (BinaryRpcClient), both non-blocking,
+ * each against its in-process stand-in on the loopback interface.
+ * - roundTrip: one call at a time, so the encoding and framing cost per call dominates
+ * - pipelined: WINDOW calls outstanding at once; the binary client puts them all on one connection,
+ *   the HTTP/1.1 client needs a connection per outstanding call
+ * serverLatencyMs > 0 shows how well each hides a slow server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RpcTransportBenchmark {
+
+    private static final int WINDOW = 16;
+
+    @Param({"xmlrpc", "binary"})
+    public String transport;
+
+    @Param({"0"})
+    public int serverLatencyMs;
+
+    private AutoCloseable server;
+    private AsyncRpcClient client;
+    private Map<String, Object> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        StandInXmlRpcServer.Settings settings = StandInXmlRpcServer.Settings.defaults()
+                .withLatency(Duration.ofMillis(serverLatencyMs));
+        if (transport.equals("binary")) {
+            StandInBinaryServer binary = new StandInBinaryServer(settings);
+            server = binary;
+            client = new BinaryRpcClient(binary.address());
+        } else {
+            StandInXmlRpcServer xml = new StandInXmlRpcServer(settings);
+            server = xml;
+            client = new HttpXmlRpcClient(xml.url());
+        }
+        payload = new HashMap<>();
+        payload.put("userId", "alice");
+        payload.put("amount", 42);
+        payload.put("currency", "USD");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (client instanceof AutoCloseable closeable) closeable.close();
+        server.close();
+    }
+
+    @Benchmark
+    public RpcClient.Result roundTrip() throws Exception {
+        return client.sendValues(payload);
+    }
+
+    /** Average time per call with WINDOW calls in flight. */
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public void pipelined() {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[WINDOW];
+        for (int i = 0; i < WINDOW; i++) calls[i] = client.sendValuesAsync(payload);
+        CompletableFuture.allOf(calls).join();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SendPresenter.submit with a no-op RpcClient and a direct executor:
+ * validation + payload construction + listener callbacks, without any I/O.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendPresenterBenchmark {
+
+    private static final RpcClient.Result OK = RpcClient.Result.ok("OK");
+
+    private SendPresenter presenter;
+
+    @Setup
+    public void setUp(Blackhole bh) {
+        RpcClient noop = payload -> {
+            bh.consume(payload);
+            return OK;
+        };
+        SendPresenter.Listener sink = new SendPresenter.Listener() {
+            @Override public void onIdle() {}
+            @Override public void onSending() {}
+            @Override public void onSuccess(String message) { bh.consume(message); }
+            @Override public void onError(String message) { bh.consume(message); }
+            @Override public void onValidationError(String field, String message) { bh.consume(message); }
+        };
+        presenter = new SendPresenter(noop, Runnable::run, Clock.systemUTC(), sink);
+    }
+
+    @Benchmark
+    public void submit() {
+        presenter.submit("alice", "42");
+    }
+
+    @Benchmark
+    public void submit_invalidAmount() {
+        presenter.submit("alice", "-1");
+    }
+}
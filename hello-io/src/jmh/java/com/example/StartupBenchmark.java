@@ -0,0 +1,78 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start: launches Main in a fresh JVM and measures until it reports its first visible frame
+ * (-Dstartup.exitAfterFirstFrame). Needs a display.
+ * - cds on:  the JDK's default class data sharing archive (the JVM default)
+ * - cds off: -Xshare:off, every class parsed from scratch
+ * An application archive made as described in the README is tried with
+ * -Djmh.args="Startup -p jvmArgs=-XX:SharedArchiveFile=target/hello-io.jsa".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"on", "off"})
+    public String cds;
+
+    /** Extra JVM options for the launched process, separated by spaces. */
+    @Param({""})
+    public String jvmArgs;
+
+    private Process process;
+
+    @Benchmark
+    public int timeToFirstFrame() throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (cds.equals("off")) command.add("-Xshare:off");
+        if (!jvmArgs.isBlank()) command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                "-Dstartup.exitAfterFirstFrame=true", Main.class.getName()));
+
+        process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        StringBuilder seen = new StringBuilder();
+        for (String line; (line = out.readLine()) != null; ) {
+            if (line.startsWith(Main.FIRST_FRAME_REPORT)) return line.length();
+            seen.append(line).append('\n');
+        }
+        throw new IOException("Main exited with " + process.waitFor() + " before showing a frame:\n" + seen);
+    }
+
+    // Outside the measured time: the JVM's own shutdown is not part of the start-up
+    @TearDown(Level.Invocation)
+    public void stopProcess() throws InterruptedException {
+        if (process == null) return;
+        process.destroy();
+        process.waitFor();
+        process = null;
+    }
+}
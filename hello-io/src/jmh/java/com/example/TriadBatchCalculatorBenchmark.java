@@ -0,0 +1,80 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One million recorded edits re-derived three ways; scores are per edit.
+ * - scalar:   TriadCalculator.adjust in a loop (one Values per edit)
+ * - batch:    TriadBatchCalculator.adjust (branch-free, SIMD-friendly loop)
+ * - parallel: TriadBatchCalculator.adjustParallel (fork-join over chunks)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriadBatchCalculatorBenchmark {
+
+    private static final int EDITS = 1 << 20;
+
+    private final TriadCalculator scalar = new TriadCalculator();
+    private final TriadBatchCalculator batch = new TriadBatchCalculator();
+    private final int[] a = new int[EDITS], b = new int[EDITS], c = new int[EDITS];
+    private final int[] newValue = new int[EDITS], total = new int[EDITS];
+    private final byte[] field = new byte[EDITS];
+    private final int[] outA = new int[EDITS], outB = new int[EDITS], outC = new int[EDITS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < EDITS; i++) {
+            total[i] = 100;
+            a[i] = random.nextInt(60);
+            b[i] = random.nextInt(60);
+            c[i] = random.nextInt(60);
+            newValue[i] = random.nextInt(120);
+            field[i] = (byte) random.nextInt(3);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EDITS)
+    public int[] scalar() {
+        TriadCalculator.Field[] fields = TriadCalculator.Field.values();
+        for (int i = 0; i < EDITS; i++) {
+            TriadCalculator.Values v = scalar.adjust(new TriadCalculator.Values(a[i], b[i], c[i]), fields[field[i]], newValue[i], total[i]);
+            outA[i] = v.a;
+            outB[i] = v.b;
+            outC[i] = v.c;
+        }
+        return outA;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EDITS)
+    public int[] batch() {
+        batch.adjust(a, b, c, newValue, field, total, outA, outB, outC);
+        return outA;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EDITS)
+    public int[] parallel() {
+        batch.adjustParallel(a, b, c, newValue, field, total, outA, outB, outC);
+        return outA;
+    }
+}
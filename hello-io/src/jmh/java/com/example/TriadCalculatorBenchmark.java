@@ -0,0 +1,75 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TriadCalculator.adjust for each edited Field and each clamping branch.
+ * - keep:      the adjusted field stays >= 0, the kept field is untouched
+ * - clamp:     the adjusted field would go negative, so it is clamped and the kept field absorbs the rest
+ * - overTotal: the edited value exceeds the total and is clamped first
+ * Each is measured allocating a new Values, with a warm ValuesCache, and on a packed long (-prof gc shows the
+ * difference in allocation rate).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriadCalculatorBenchmark {
+
+    private static final int TOTAL = 100;
+
+    @Param({"A", "B", "C"})
+    public TriadCalculator.Field field;
+
+    @Param({"keep", "clamp", "overTotal"})
+    public String branch;
+
+    private final TriadCalculator calculator = new TriadCalculator();
+    private final TriadCalculator cachedCalculator = new TriadCalculator(new TriadCalculator.ValuesCache(1024));
+    private TriadCalculator.Values current;
+    private long currentPacked;
+    private int newValue;
+
+    @Setup
+    public void setUp() {
+        switch (branch) {
+            case "keep" -> { current = new TriadCalculator.Values(30, 40, 30); newValue = 20; }
+            case "clamp" -> { current = new TriadCalculator.Values(10, 10, 80); newValue = 90; }
+            case "overTotal" -> { current = new TriadCalculator.Values(30, 40, 30); newValue = 250; }
+            default -> throw new IllegalArgumentException(branch);
+        }
+        // Rotate so the same branch is exercised whichever field is edited
+        if (field == TriadCalculator.Field.B) current = new TriadCalculator.Values(current.c, current.a, current.b);
+        if (field == TriadCalculator.Field.C) current = new TriadCalculator.Values(current.b, current.c, current.a);
+        currentPacked = TriadCalculator.pack(current.a, current.b, current.c);
+    }
+
+    @Benchmark
+    public TriadCalculator.Values adjust() {
+        return calculator.adjust(current, field, newValue, TOTAL);
+    }
+
+    @Benchmark
+    public TriadCalculator.Values adjustCached() {
+        return cachedCalculator.adjust(current, field, newValue, TOTAL);
+    }
+
+    @Benchmark
+    public long adjustPacked() {
+        return TriadCalculator.adjustPacked(currentPacked, field.ordinal(), newValue, TOTAL);
+    }
+}
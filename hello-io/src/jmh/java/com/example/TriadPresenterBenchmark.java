@@ -0,0 +1,54 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TriadPresenter.onFieldEdited end to end: parse the text, adjust, emit to the listener.
+ * The listener only feeds a Blackhole, so this measures the presenter, not Swing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriadPresenterBenchmark {
+
+    private static final String[] EDITS = {"50", "20", "75", "5"};
+
+    private TriadPresenter presenter;
+    private int next;
+
+    @Setup
+    public void setUp(Blackhole bh) {
+        TriadPresenter.Listener sink = new TriadPresenter.Listener() {
+            @Override public void onValuesChanged(TriadCalculator.Values values) { bh.consume(values); }
+            @Override public void onValidationError(TriadCalculator.Field field, String message) { bh.consume(message); }
+            @Override public void onTotalChanged(int total) { bh.consume(total); }
+        };
+        presenter = new TriadPresenter(new TriadCalculator(), sink, 100, new TriadCalculator.Values(34, 33, 33));
+    }
+
+    @Benchmark
+    public void onFieldEdited() {
+        // Cycle through values so each call really changes state
+        presenter.onFieldEdited(TriadCalculator.Field.A, EDITS[next++ & 3]);
+    }
+
+    @Benchmark
+    public void onFieldEdited_invalid() {
+        presenter.onFieldEdited(TriadCalculator.Field.B, "12x");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full sendValues round trips against an in-process server on the loopback interface.
+ * Run with -t N to see how each client behaves under concurrent senders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class XmlRpcClientBenchmark {
+
+    @Param({"apache", "apachePooled", "http", "streaming"})
+    public String client;
+
+    private StandInXmlRpcServer server;
+    private RpcClient rpcClient;
+    private Map<String, Object> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new StandInXmlRpcServer();
+        rpcClient = switch (client) {
+            case "apache" -> new ApacheXmlRpcClient(server.url());
+            case "apachePooled" -> new ApacheXmlRpcClient(server.url(),
+                    new ApacheXmlRpcClient.PoolSettings(64, 64, Duration.ofSeconds(30)));
+            case "http" -> new HttpXmlRpcClient(server.url());
+            case "streaming" -> new StreamingXmlRpcClient(server.url());
+            default -> throw new IllegalArgumentException(client);
+        };
+        payload = new HashMap<>();
+        payload.put("userId", "alice");
+        payload.put("amount", 42);
+        payload.put("currency", "USD");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (rpcClient instanceof AutoCloseable closeable) closeable.close();
+        server.close();
+    }
+
+    @Benchmark
+    public RpcClient.Result sendValues() throws Exception {
+        return rpcClient.sendValues(payload);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example;
+
+import org.apache.xmlrpc.client.XmlRpcClient;
+import org.apache.xmlrpc.client.XmlRpcClientConfigImpl;
+import org.apache.xmlrpc.client.XmlRpcClientRequestImpl;
+import org.apache.xmlrpc.serializer.DefaultXMLWriterFactory;
+import org.apache.xmlrpc.serializer.XmlRpcWriter;
+import org.apache.xmlrpc.serializer.XmlWriterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.ContentHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request encoding and response parsing without the network:
+ * Apache's SAX serializer vs XmlRpcCodec vs the preallocated ReceiveCallEncoder,
+ * and the StAX decoder vs the byte-level XmlRpcResponseParser.
+ * Add -prof gc to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlRpcEncodingBenchmark {
+
+    private static final byte[] RESPONSE = """
+            <?xml version='1.0'?>
+            <methodResponse>
+            <params>
+            <param>
+            <value><string>Server received: userId=alice, amount=42 USD</string></value>
+            </param>
+            </params>
+            </methodResponse>
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final ReceiveCallEncoder encoder = new ReceiveCallEncoder();
+    private final XmlWriterFactory apacheWriterFactory = new DefaultXMLWriterFactory();
+    private final ByteArrayOutputStream apacheOut = new ByteArrayOutputStream(512);
+    private XmlRpcClient apacheClient;
+    private XmlRpcClientConfigImpl apacheConfig;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        payload = new HashMap<>();
+        payload.put("userId", "alice");
+        payload.put("amount", 42);
+        payload.put("currency", "USD");
+
+        apacheConfig = new XmlRpcClientConfigImpl();
+        apacheConfig.setEnabledForExtensions(false);
+        apacheClient = new XmlRpcClient();
+        apacheClient.setConfig(apacheConfig);
+    }
+
+    @Benchmark
+    public int encode_apache() throws Exception {
+        // What XmlRpcStreamTransport does per call before writing to the socket
+        apacheOut.reset();
+        ContentHandler handler = apacheWriterFactory.getXmlWriter(apacheConfig, apacheOut);
+        new XmlRpcWriter(apacheConfig, handler, apacheClient.getTypeFactory())
+                .write(new XmlRpcClientRequestImpl(apacheConfig, "receive", new Object[]{payload}));
+        return apacheOut.size();
+    }
+
+    @Benchmark
+    public int encode_codec() {
+        return XmlRpcCodec.encodeCall("receive", payload).length;
+    }
+
+    @Benchmark
+    public int encode_streaming() {
+        return encoder.encode(payload);
+    }
+
+    @Benchmark
+    public Object parse_codec() throws Exception {
+        return XmlRpcCodec.decodeResponse(RESPONSE);
+    }
+
+    @Benchmark
+    public String parse_streaming() throws Exception {
+        return XmlRpcResponseParser.parse(RESPONSE, RESPONSE.length);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example;
+
+/**
+ * Keeps N non-negative buckets summing to a fixed total after one bucket is edited.
+ * Works in place on int[] or long[]; TriadCalculator is the N = 3 case.
+ * - ADJUST_NEXT (the triad policy): the edited bucket is clamped to [0, total], the next bucket
+ *   (wrapping around) absorbs the difference, the rest are kept. If the next bucket would go negative
+ *   it becomes 0 and the shortfall is taken from the following buckets in order.
+ * - PROPORTIONAL: the other buckets share total - edited in proportion to their current values
+ *   (evenly if they are all 0); rounding leftovers go one unit each to the buckets after the edited one.
+ *
+ * Teaching points:
+ * - Arrays of primitives instead of value objects: no boxing and no allocation per call, so it scales
+ *   to thousands of buckets and can run in tight loops.
+ * - Stateless and thread-safe; callers own the arrays.
+ */
+public final class AllocationCalculator {
+
+    public enum Mode { ADJUST_NEXT, PROPORTIONAL }
+
+    public void adjust(int[] values, int edited, int newValue, int total) {
+        adjust(values, edited, newValue, total, Mode.ADJUST_NEXT);
+    }
+
+    public void adjust(int[] values, int edited, int newValue, int total, Mode mode) {
+        int n = values.length;
+        check(n, edited, total);
+        for (int v : values) if (v < 0) throw new IllegalArgumentException("Values must be >= 0");
+
+        int e = Math.max(0, Math.min(newValue, total));
+        values[edited] = e;
+        if (mode == Mode.PROPORTIONAL) {
+            distributeProportionally(values, edited, total - e);
+            return;
+        }
+
+        int next = edited + 1 == n ? 0 : edited + 1;
+        long kept = 0;
+        for (int i = 0; i < n; i++) if (i != edited && i != next) kept += values[i];
+        long remaining = (long) total - e - kept;
+        if (remaining >= 0) {
+            values[next] = (int) remaining;
+            return;
+        }
+        values[next] = 0;
+        long shortfall = -remaining;
+        for (int i = next + 1 == n ? 0 : next + 1; shortfall > 0; i = i + 1 == n ? 0 : i + 1) {
+            long taken = Math.min(values[i], shortfall);
+            values[i] -= (int) taken;
+            shortfall -= taken;
+        }
+    }
+
+    public void adjust(long[] values, int edited, long newValue, long total) {
+        adjust(values, edited, newValue, total, Mode.ADJUST_NEXT);
+    }
+
+    /** As the int[] variant; in PROPORTIONAL mode, throws ArithmeticException if value * remaining overflows. */
+    public void adjust(long[] values, int edited, long newValue, long total, Mode mode) {
+        int n = values.length;
+        check(n, edited, total);
+        for (long v : values) if (v < 0) throw new IllegalArgumentException("Values must be >= 0");
+
+        long e = Math.max(0, Math.min(newValue, total));
+        values[edited] = e;
+        if (mode == Mode.PROPORTIONAL) {
+            distributeProportionally(values, edited, total - e);
+            return;
+        }
+
+        int next = edited + 1 == n ? 0 : edited + 1;
+        long kept = 0;
+        for (int i = 0; i < n; i++) if (i != edited && i != next) kept = Math.addExact(kept, values[i]);
+        long remaining = total - e - kept;
+        if (remaining >= 0) {
+            values[next] = remaining;
+            return;
+        }
+        values[next] = 0;
+        long shortfall = -remaining;
+        for (int i = next + 1 == n ? 0 : next + 1; shortfall > 0; i = i + 1 == n ? 0 : i + 1) {
+            long taken = Math.min(values[i], shortfall);
+            values[i] -= taken;
+            shortfall -= taken;
+        }
+    }
+
+    private static void distributeProportionally(int[] values, int edited, int remaining) {
+        int n = values.length;
+        long others = 0;
+        for (int i = 0; i < n; i++) if (i != edited) others += values[i];
+
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == edited) continue;
+            int share = others == 0 ? remaining / (n - 1) : (int) (values[i] * (long) remaining / others);
+            values[i] = share;
+            assigned += share;
+        }
+        int leftover = (int) (remaining - assigned); // < n - 1
+        for (int i = edited + 1 == n ? 0 : edited + 1; leftover > 0; i = i + 1 == n ? 0 : i + 1) {
+            if (i == edited) continue;
+            values[i]++;
+            leftover--;
+        }
+    }
+
+    private static void distributeProportionally(long[] values, int edited, long remaining) {
+        int n = values.length;
+        long others = 0;
+        for (int i = 0; i < n; i++) if (i != edited) others = Math.addExact(others, values[i]);
+
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == edited) continue;
+            long share = others == 0 ? remaining / (n - 1) : Math.multiplyExact(values[i], remaining) / others;
+            values[i] = share;
+            assigned += share;
+        }
+        long leftover = remaining - assigned;
+        for (int i = edited + 1 == n ? 0 : edited + 1; leftover > 0; i = i + 1 == n ? 0 : i + 1) {
+            if (i == edited) continue;
+            values[i]++;
+            leftover--;
+        }
+    }
+
+    private static void check(int n, int edited, long total) {
+        if (total < 0) throw new IllegalArgumentException("total must be >= 0");
+        if (n < 2) throw new IllegalArgumentException("Need at least 2 values");
+        if (edited < 0 || edited >= n) throw new IndexOutOfBoundsException("edited: " + edited);
+    }
+}
@@ -1,33 +1,268 @@
 package com.example;
 
+import org.apache.commons.httpclient.ConnectionPoolTimeoutException;
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpConnection;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.apache.xmlrpc.XmlRpcException;
 import org.apache.xmlrpc.client.XmlRpcClient;
 import org.apache.xmlrpc.client.XmlRpcClientConfigImpl;
+import org.apache.xmlrpc.client.XmlRpcCommonsTransportFactory;
 
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-public class ApacheXmlRpcClient implements RpcClient {
+/**
+ * RpcClient backed by the Apache XML-RPC library.
+ * - The XmlRpcClient and its config are built once and shared by all sendValues calls
+ *   (XmlRpcClient is thread-safe once configured).
+ * - Default mode uses the library's HttpURLConnection transport.
+ * - Pooled mode uses commons-httpclient with a MultiThreadedHttpConnectionManager so
+ *   keep-alive connections are reused across calls; idle ones are evicted in the background.
+ *
+ * sendBatch and sendEach use system.multicall (one round trip for many payloads) and fall back to one call
+ * per payload, permanently, the first time the server reports that multicall is not available. sendBatch
+ * maps a faulted entry to Result.error; sendEach fails it with the XmlRpcException sendValues would throw.
+ *
+ * Metrics (optional): rpc.apache.call times each call end to end (encode, connection, round trip, parse),
+ * rpc.apache.connectionAcquire times taking a connection from the pool, rpc.apache.errors counts failed calls,
+ * and the rpc.apache.pool.connections gauge shows how many pooled connections are open.
+ *
+ * Call close() when done to release pooled connections (Main does this in a shutdown hook).
+ */
+public class ApacheXmlRpcClient implements RpcClient, AutoCloseable {
+
+    /**
+     * Connection pool settings for the pooled transport mode.
+     * idleTimeout is both how long a connection may sit unused and how often the evictor checks.
+     */
+    public record PoolSettings(int maxConnectionsPerHost, int maxTotalConnections, Duration idleTimeout) {
+        public PoolSettings {
+            if (maxConnectionsPerHost < 1) throw new IllegalArgumentException("maxConnectionsPerHost must be >= 1");
+            if (maxTotalConnections < maxConnectionsPerHost) {
+                throw new IllegalArgumentException("maxTotalConnections must be >= maxConnectionsPerHost");
+            }
+            if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+                throw new IllegalArgumentException("idleTimeout must be > 0");
+            }
+        }
+
+        public static PoolSettings defaults() { return new PoolSettings(8, 32, Duration.ofSeconds(30)); }
+    }
+
+    private static final int CONNECTION_TIMEOUT_MS = 5_000;
+    private static final int REPLY_TIMEOUT_MS = 5_000;
+    private static final int METHOD_NOT_FOUND = -32601; // XML-RPC "introspection" spec fault code
 
     private final String endpointUrl;
+    private final XmlRpcClient client;
+    private final MultiThreadedHttpConnectionManager connectionManager; // null in default mode
+    private final IdleConnectionTimeoutThread idleEvictor;              // null in default mode
+    private volatile boolean closed = false;
+    private volatile boolean multicallSupported = true;
+    private final Metrics.Timer callTime;
+    private final Metrics.Counter callErrors;
 
+    /** Default transport (one HttpURLConnection per call, subject to the JDK's keep-alive cache). */
     public ApacheXmlRpcClient(String endpointUrl) {
-        this.endpointUrl = endpointUrl.endsWith("/RPC2") ? endpointUrl : endpointUrl + "/RPC2";
+        this(endpointUrl, Metrics.NOOP);
+    }
+
+    /** Default transport with rpc.apache.call and rpc.apache.errors (there is no pool to report on). */
+    public ApacheXmlRpcClient(String endpointUrl, Metrics metrics) {
+        this.endpointUrl = normalize(endpointUrl);
+        this.client = newClient(this.endpointUrl);
+        this.connectionManager = null;
+        this.idleEvictor = null;
+        this.callTime = metrics.timer("rpc.apache.call");
+        this.callErrors = metrics.counter("rpc.apache.errors");
+    }
+
+    /** Pooled keep-alive transport shared across concurrent sendValues calls. */
+    public ApacheXmlRpcClient(String endpointUrl, PoolSettings pool) {
+        this(endpointUrl, pool, Metrics.NOOP);
+    }
+
+    public ApacheXmlRpcClient(String endpointUrl, PoolSettings pool, Metrics metrics) {
+        this.endpointUrl = normalize(endpointUrl);
+        this.client = newClient(this.endpointUrl);
+        this.callTime = metrics.timer("rpc.apache.call");
+        this.callErrors = metrics.counter("rpc.apache.errors");
+
+        Metrics.Timer acquireTime = metrics.timer("rpc.apache.connectionAcquire");
+        this.connectionManager = new MultiThreadedHttpConnectionManager() {
+            @Override
+            public HttpConnection getConnectionWithTimeout(HostConfiguration host, long timeout)
+                    throws ConnectionPoolTimeoutException {
+                long started = acquireTime.start();
+                HttpConnection connection = super.getConnectionWithTimeout(host, timeout);
+                acquireTime.stop(started);
+                return connection;
+            }
+        };
+        metrics.gauge("rpc.apache.pool.connections", connectionManager::getConnectionsInPool);
+        HttpConnectionManagerParams params = connectionManager.getParams();
+        params.setDefaultMaxConnectionsPerHost(pool.maxConnectionsPerHost());
+        params.setMaxTotalConnections(pool.maxTotalConnections());
+        params.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+        params.setSoTimeout(REPLY_TIMEOUT_MS);
+        params.setStaleCheckingEnabled(true);
+
+        XmlRpcCommonsTransportFactory transport = new XmlRpcCommonsTransportFactory(client);
+        transport.setHttpClient(new HttpClient(connectionManager));
+        client.setTransportFactory(transport);
+
+        long idleMillis = pool.idleTimeout().toMillis();
+        this.idleEvictor = new IdleConnectionTimeoutThread();
+        idleEvictor.setName("xmlrpc-idle-evictor");
+        idleEvictor.addConnectionManager(connectionManager);
+        idleEvictor.setConnectionTimeout(idleMillis);
+        idleEvictor.setTimeoutInterval(idleMillis);
+        idleEvictor.start();
     }
 
     @Override
     public Result sendValues(Map<String, Object> payload) throws Exception {
+        if (closed) throw new IllegalStateException("Client is closed");
+        // Call the Python function 'receive' with one parameter: the struct (map)
+        long started = callTime.start();
+        Object response;
+        try {
+            response = client.execute("receive", new Object[]{payload});
+        } catch (XmlRpcException | RuntimeException ex) {
+            callErrors.increment();
+            throw ex;
+        } finally {
+            callTime.stop(started);
+        }
+        String message = response != null ? response.toString() : "OK";
+        return Result.ok(message);
+    }
+
+    @Override
+    public List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+        Object[] entries = multicall(payloads);
+        if (entries == null) return RpcClient.super.sendBatch(payloads);
+
+        List<Result> results = new ArrayList<>(entries.length);
+        for (Object entry : entries) {
+            if (entry instanceof Object[] value && value.length == 1) {
+                results.add(Result.ok(value[0] != null ? value[0].toString() : "OK"));
+            } else if (entry instanceof Map<?, ?> fault) {
+                Object faultString = fault.get("faultString");
+                results.add(Result.error(faultString != null ? faultString.toString() : "Remote error"));
+            } else {
+                results.add(Result.error("Unexpected multicall entry: " + entry));
+            }
+        }
+        return results;
+    }
+
+    /** One multicall like sendBatch, but a faulted entry fails with the XmlRpcException sendValues would throw. */
+    @Override
+    public List<CompletableFuture<Result>> sendEach(List<Map<String, Object>> payloads) {
+        List<CompletableFuture<Result>> outcomes = new ArrayList<>(payloads.size());
+        Object[] entries;
+        try {
+            entries = multicall(payloads);
+        } catch (Exception ex) {
+            // The multicall itself failed (transport, or a fault for the whole call): every payload shares it
+            for (int i = 0; i < payloads.size(); i++) outcomes.add(CompletableFuture.failedFuture(ex));
+            return outcomes;
+        }
+        if (entries == null) return RpcClient.super.sendEach(payloads);
+
+        for (Object entry : entries) {
+            if (entry instanceof Object[] value && value.length == 1) {
+                outcomes.add(CompletableFuture.completedFuture(Result.ok(value[0] != null ? value[0].toString() : "OK")));
+            } else if (entry instanceof Map<?, ?> fault) {
+                int code = fault.get("faultCode") instanceof Integer i ? i : 0;
+                Object faultString = fault.get("faultString");
+                outcomes.add(CompletableFuture.failedFuture(
+                        new XmlRpcException(code, faultString != null ? faultString.toString() : "Remote error")));
+            } else {
+                outcomes.add(CompletableFuture.failedFuture(
+                        new IllegalStateException("Unexpected multicall entry: " + entry)));
+            }
+        }
+        return outcomes;
+    }
+
+    // The multicall response entries, or null when the batch should go as individual calls instead
+    private Object[] multicall(List<Map<String, Object>> payloads) throws Exception {
+        if (closed) throw new IllegalStateException("Client is closed");
+        if (!multicallSupported || payloads.size() < 2) return null;
+
+        List<Map<String, Object>> calls = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", "receive");
+            call.put("params", new Object[]{payload});
+            calls.add(call);
+        }
+
+        try {
+            // Each entry is either a one-element array holding the return value, or a fault struct
+            return (Object[]) client.execute("system.multicall", new Object[]{calls.toArray()});
+        } catch (XmlRpcException ex) {
+            if (!isMulticallUnsupported(ex)) throw ex;
+            multicallSupported = false;
+            return null;
+        }
+    }
+
+    /** False once the server has told us it has no system.multicall. */
+    public boolean isMulticallSupported() {
+        return multicallSupported;
+    }
+
+    public String endpointUrl() {
+        return endpointUrl;
+    }
+
+    /** Stops the idle evictor and closes pooled connections. Safe to call more than once. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (idleEvictor != null) idleEvictor.shutdown();
+        if (connectionManager != null) connectionManager.shutdown();
+    }
+
+    // Python's SimpleXMLRPCServer answers unknown methods with code 1 and 'method "..." is not supported';
+    // servers following the fault code spec use -32601.
+    private static boolean isMulticallUnsupported(XmlRpcException ex) {
+        if (ex.code == METHOD_NOT_FOUND) return true;
+        String message = ex.getMessage();
+        return message != null && message.contains("system.multicall");
+    }
+
+    private static String normalize(String endpointUrl) {
+        return endpointUrl.endsWith("/RPC2") ? endpointUrl : endpointUrl + "/RPC2";
+    }
+
+    private static XmlRpcClient newClient(String endpointUrl) {
         XmlRpcClientConfigImpl config = new XmlRpcClientConfigImpl();
-        config.setServerURL(new URL(endpointUrl));
+        try {
+            config.setServerURL(new URL(endpointUrl));
+        } catch (MalformedURLException ex) {
+            throw new IllegalArgumentException("Invalid endpoint URL: " + endpointUrl, ex);
+        }
         config.setEnabledForExtensions(false);
-        config.setConnectionTimeout(5_000);
-        config.setReplyTimeout(5_000);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+        config.setReplyTimeout(REPLY_TIMEOUT_MS);
 
         XmlRpcClient client = new XmlRpcClient();
         client.setConfig(config);
-
-        // Call the Python function 'receive' with one parameter: the struct (map)
-        Object response = client.execute("receive", new Object[]{payload});
-        String message = response != null ? response.toString() : "OK";
-        return Result.ok(message);
+        return client;
     }
-}
\ No newline at end of file
+}
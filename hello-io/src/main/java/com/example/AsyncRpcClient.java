@@ -0,0 +1,28 @@
+package com.example;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * RpcClient whose sends complete a future instead of blocking the caller.
+ * SendPresenter detects this interface and keeps no executor thread parked during the round trip.
+ *
+ * Implementations complete the future exceptionally for transport failures and remote faults,
+ * mirroring the exceptions thrown by the blocking sendValues.
+ */
+public interface AsyncRpcClient extends RpcClient {
+
+    CompletableFuture<Result> sendValuesAsync(Map<String, Object> payload);
+
+    /** Blocking bridge for callers that still want the synchronous API. */
+    @Override
+    default Result sendValues(Map<String, Object> payload) throws Exception {
+        try {
+            return sendValuesAsync(payload).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) throw cause;
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RpcClient decorator that groups concurrent sends into one delegate.sendBatch call.
+ * Responsibilities:
+ * - Accumulate payloads from concurrent sendValues callers.
+ * - Flush when maxBatchSize payloads are waiting, or maxDelay after the first one arrived.
+ * - Hand each caller its own outcome through delegate.sendEach: its Result, or the exception a single
+ *   sendValues would have thrown for it (a fault inside a multicall is that entry's XmlRpcException).
+ *
+ * Teaching points:
+ * - sendValues still blocks its caller until the batch is answered, so SendPresenter is unchanged;
+ *   batching only pays off when several sends are in flight at once (i.e. a multi-threaded executor).
+ * - The delegate decides how a batch travels (ApacheXmlRpcClient uses system.multicall and degrades
+ *   to individual calls when the server lacks it).
+ * - Opt-in: Main wraps the blocking clients in it with -Drpc.batch=true.
+ */
+public final class BatchingRpcClient implements RpcClient, AutoCloseable {
+
+    private record Pending(Map<String, Object> payload, CompletableFuture<Result> result) {}
+
+    private final RpcClient delegate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    private List<Pending> buffer = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed = false;
+
+    public BatchingRpcClient(RpcClient delegate, int maxBatchSize, Duration maxDelay) {
+        this.delegate = Objects.requireNonNull(delegate);
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be >= 1");
+        if (maxDelay.isNegative()) throw new IllegalArgumentException("maxDelay must be >= 0");
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rpc-batch-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public Result sendValues(Map<String, Object> payload) throws Exception {
+        Pending pending = new Pending(payload, new CompletableFuture<>());
+        List<Pending> full = null;
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Client is closed");
+            buffer.add(pending);
+            if (buffer.size() >= maxBatchSize) {
+                full = takeBuffer();
+            } else if (buffer.size() == 1) {
+                scheduledFlush = timer.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        // The caller that completes a batch sends it; everyone else waits for their slot's result
+        if (full != null) dispatch(full);
+
+        try {
+            return pending.result().get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception e) throw e;
+            throw ex;
+        }
+    }
+
+    /** Sends whatever is buffered right now. */
+    public void flush() {
+        List<Pending> batch;
+        synchronized (lock) {
+            batch = takeBuffer();
+        }
+        dispatch(batch);
+    }
+
+    /** Flushes pending payloads, stops the flush timer and closes the delegate. */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+        }
+        flush();
+        timer.shutdown();
+        Closeables.close(delegate);
+    }
+
+    // Must hold lock
+    private List<Pending> takeBuffer() {
+        List<Pending> batch = buffer;
+        buffer = new ArrayList<>(maxBatchSize);
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        if (batch.isEmpty()) return;
+        List<Map<String, Object>> payloads = new ArrayList<>(batch.size());
+        for (Pending p : batch) payloads.add(p.payload());
+        List<CompletableFuture<Result>> outcomes;
+        try {
+            outcomes = batch.size() == 1
+                    ? List.of(sendOne(payloads.get(0)))
+                    : delegate.sendEach(payloads);
+            if (outcomes.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " results but got " + outcomes.size());
+            }
+        } catch (Exception ex) {
+            for (Pending p : batch) p.result().completeExceptionally(ex);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Result> result = batch.get(i).result();
+            outcomes.get(i).whenComplete((value, error) -> {
+                if (error == null) result.complete(value);
+                else result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            });
+        }
+    }
+
+    private CompletableFuture<Result> sendOne(Map<String, Object> payload) {
+        try {
+            return CompletableFuture.completedFuture(delegate.sendValues(payload));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipelined RpcClient speaking BinaryRpcCodec frames over one persistent socket.
+ * Responsibilities:
+ * - Connect on the first send and keep the connection; reconnect on the next send after it breaks.
+ * - Write each request as soon as it is sent, without waiting for earlier replies (pipelining).
+ * - A reader thread matches replies to outstanding calls by correlation id, in whatever order they come.
+ * - Fail a call after replyTimeout, and every outstanding call when the connection breaks. Timeouts run on
+ *   one scheduler thread per client and are cancelled (and dropped from its queue) when the reply arrives.
+ *
+ * Teaching points:
+ * - An AsyncRpcClient: SendPresenter keeps no executor thread parked per send, and sendBatch puts the whole
+ *   batch on the wire before waiting for any reply.
+ * - Same contract as the XML-RPC clients: faults are thrown as XmlRpcCodec.Fault, transport errors as IOException.
+ * - Senders share the socket under a write lock; each frame is one write, so frames never interleave.
+ */
+public final class BinaryRpcClient implements AsyncRpcClient, AutoCloseable {
+
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REPLY_TIMEOUT = Duration.ofSeconds(5);
+
+    /** One socket and the calls waiting for a reply on it. */
+    private final class Connection {
+        final SocketChannel channel;
+        final Map<Long, CompletableFuture<Result>> pending = new ConcurrentHashMap<>();
+        final Object writeLock = new Object();
+        volatile boolean broken;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void readReplies() {
+            ByteBuffer header = ByteBuffer.allocate(BinaryRpcCodec.HEADER_BYTES);
+            IOException failure;
+            try {
+                BinaryRpcCodec.Frame frame;
+                while ((frame = BinaryRpcCodec.read(channel, header)) != null) {
+                    CompletableFuture<Result> call = pending.remove(frame.id());
+                    if (call == null) continue; // timed out already
+                    try {
+                        call.complete(BinaryRpcCodec.result(frame));
+                    } catch (Exception ex) {
+                        call.completeExceptionally(ex);
+                    }
+                }
+                failure = new IOException("Connection closed by server");
+            } catch (IOException ex) {
+                failure = ex;
+            }
+            fail(failure);
+        }
+
+        void fail(IOException cause) {
+            broken = true;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Already failing every call
+            }
+            for (Long id : List.copyOf(pending.keySet())) {
+                CompletableFuture<Result> call = pending.remove(id);
+                if (call != null) call.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private final InetSocketAddress address;
+    private final Duration replyTimeout;
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final AtomicLong nextId = new AtomicLong();
+    private Connection connection; // guarded by this
+    private boolean closed;        // guarded by this
+
+    /** address is "host:port". */
+    public BinaryRpcClient(String address) {
+        this(parse(address), REPLY_TIMEOUT);
+    }
+
+    public BinaryRpcClient(InetSocketAddress address, Duration replyTimeout) {
+        if (replyTimeout.isNegative() || replyTimeout.isZero()) throw new IllegalArgumentException("replyTimeout must be > 0");
+        this.address = address;
+        this.replyTimeout = replyTimeout;
+        // No thread until the first send; cancelled timeouts leave the queue at once instead of when due
+        this.timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "binary-rpc-timeouts");
+            t.setDaemon(true);
+            return t;
+        });
+        timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public CompletableFuture<Result> sendValuesAsync(Map<String, Object> payload) {
+        long id = nextId.incrementAndGet();
+        ByteBuffer frame;
+        Connection conn;
+        try {
+            frame = BinaryRpcCodec.request(id, payload);
+            conn = connection();
+        } catch (IOException | IllegalArgumentException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        CompletableFuture<Result> call = new CompletableFuture<>();
+        conn.pending.put(id, call);
+        try {
+            synchronized (conn.writeLock) {
+                while (frame.hasRemaining()) conn.channel.write(frame);
+            }
+        } catch (IOException ex) {
+            conn.fail(ex);
+            return call;
+        }
+        ScheduledFuture<?> timeout;
+        try {
+            timeout = timeouts.schedule(() -> {
+                if (conn.pending.remove(id) != null) {
+                    call.completeExceptionally(new SocketTimeoutException("No reply within " + replyTimeout.toMillis() + " ms"));
+                }
+            }, replyTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // close() ran after this send got its connection
+            if (conn.pending.remove(id) != null) call.completeExceptionally(new IOException("BinaryRpcClient closed"));
+            return call;
+        }
+        call.whenComplete((result, error) -> timeout.cancel(false));
+        return call;
+    }
+
+    /** Writes every payload before waiting for the first reply; the first failure is thrown. */
+    @Override
+    public List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+        List<CompletableFuture<Result>> calls = sendEach(payloads);
+        List<Result> results = new ArrayList<>(calls.size());
+        try {
+            for (CompletableFuture<Result> call : calls) results.add(call.get());
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) throw cause;
+            throw ex;
+        }
+        return results;
+    }
+
+    /** Pipelines every payload like sendBatch; each call completes (or faults) on its own. */
+    @Override
+    public List<CompletableFuture<Result>> sendEach(List<Map<String, Object>> payloads) {
+        List<CompletableFuture<Result>> calls = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) calls.add(sendValuesAsync(payload));
+        return calls;
+    }
+
+    /** Calls waiting for a reply on the current connection. */
+    public int outstanding() {
+        Connection conn;
+        synchronized (this) {
+            conn = connection;
+        }
+        return conn == null ? 0 : conn.pending.size();
+    }
+
+    /** Closes the connection; outstanding calls fail and later sends are refused. */
+    @Override
+    public void close() {
+        Connection conn;
+        synchronized (this) {
+            closed = true;
+            conn = connection;
+            connection = null;
+        }
+        if (conn != null) conn.fail(new IOException("BinaryRpcClient closed"));
+        timeouts.shutdownNow();
+    }
+
+    /** Reply timeouts still scheduled; answered calls leave none behind. */
+    int scheduledTimeouts() {
+        return timeouts.getQueue().size();
+    }
+
+    private synchronized Connection connection() throws IOException {
+        if (closed) throw new IOException("BinaryRpcClient closed");
+        if (connection != null && !connection.broken) return connection;
+
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.socket().connect(address, (int) CONNECTION_TIMEOUT.toMillis());
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        Connection conn = new Connection(channel);
+        Thread.ofVirtual().name("binary-rpc-reader").start(conn::readReplies);
+        connection = conn;
+        return conn;
+    }
+
+    private static InetSocketAddress parse(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("Expected host:port, got " + address);
+        try {
+            return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Expected host:port, got " + address, ex);
+        }
+    }
+}
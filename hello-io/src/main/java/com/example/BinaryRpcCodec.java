@@ -0,0 +1,100 @@
+package com.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Length-prefixed binary frames for BinaryRpcClient and its servers.
+ * - Frame: [int length][long correlationId][byte type][body]; length counts everything after itself.
+ * - Request (type RECEIVE): body is the payload in SendOutbox's map encoding.
+ * - Reply: type OK with the result as UTF-8, or type FAULT with [int code][message UTF-8].
+ *
+ * Teaching points:
+ * - A typical receive call is a few dozen bytes instead of several hundred of XML plus HTTP headers.
+ * - The correlation id lets replies arrive in any order, so a connection can carry many calls at once.
+ */
+final class BinaryRpcCodec {
+
+    static final int HEADER_BYTES = 4 + 8 + 1;
+    static final int MAX_FRAME_BYTES = 1 << 20;
+
+    static final byte RECEIVE = 1;
+    static final byte OK = 2;
+    static final byte FAULT = 3;
+
+    /** One decoded frame; body excludes the header. */
+    record Frame(long id, byte type, byte[] body) {}
+
+    private BinaryRpcCodec() {}
+
+    /** Encoded request frame, ready to write (position 0). */
+    static ByteBuffer request(long id, Map<String, Object> payload) {
+        byte[] body = SendOutbox.encode(payload);
+        return frame(id, RECEIVE, body.length).put(body).flip();
+    }
+
+    static ByteBuffer ok(long id, String value) {
+        byte[] text = value.getBytes(StandardCharsets.UTF_8);
+        return frame(id, OK, text.length).put(text).flip();
+    }
+
+    static ByteBuffer fault(long id, int code, String message) {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        return frame(id, FAULT, 4 + text.length).putInt(code).put(text).flip();
+    }
+
+    static Map<String, Object> payload(Frame frame) {
+        if (frame.type() != RECEIVE) throw new IllegalArgumentException("Not a request frame: type " + frame.type());
+        return SendOutbox.decode(frame.body());
+    }
+
+    /** Result of a reply frame; a FAULT frame is thrown as XmlRpcCodec.Fault, like the XML-RPC clients do. */
+    static RpcClient.Result result(Frame frame) throws XmlRpcCodec.Fault {
+        return switch (frame.type()) {
+            case OK -> RpcClient.Result.ok(new String(frame.body(), StandardCharsets.UTF_8));
+            case FAULT -> {
+                ByteBuffer body = ByteBuffer.wrap(frame.body());
+                int code = body.getInt();
+                throw new XmlRpcCodec.Fault(code, new String(frame.body(), 4, frame.body().length - 4, StandardCharsets.UTF_8));
+            }
+            default -> throw new IllegalArgumentException("Not a reply frame: type " + frame.type());
+        };
+    }
+
+    /**
+     * Reads the next frame from a blocking channel, reusing header (HEADER_BYTES long).
+     * Returns null at a clean end of stream; a stream that ends inside a frame throws EOFException.
+     */
+    static Frame read(ReadableByteChannel in, ByteBuffer header) throws IOException {
+        header.clear();
+        if (!readFully(in, header, true)) return null;
+        header.flip();
+        int length = header.getInt();
+        long id = header.getLong();
+        byte type = header.get();
+        if (length < 9 || length > MAX_FRAME_BYTES) throw new IOException("Bad frame length " + length);
+        ByteBuffer body = ByteBuffer.allocate(length - 9);
+        readFully(in, body, false);
+        return new Frame(id, type, body.array());
+    }
+
+    private static ByteBuffer frame(long id, byte type, int bodyBytes) {
+        if (9 + bodyBytes > MAX_FRAME_BYTES) throw new IllegalArgumentException("Frame too large: " + bodyBytes + " bytes");
+        return ByteBuffer.allocate(HEADER_BYTES + bodyBytes).putInt(9 + bodyBytes).putLong(id).put(type);
+    }
+
+    // Returns false if the stream ended before the first byte and eofAllowed
+    private static boolean readFully(ReadableByteChannel in, ByteBuffer buf, boolean eofAllowed) throws IOException {
+        while (buf.hasRemaining()) {
+            if (in.read(buf) < 0) {
+                if (eofAllowed && buf.position() == 0) return false;
+                throw new EOFException("Connection closed inside a frame");
+            }
+        }
+        return true;
+    }
+}
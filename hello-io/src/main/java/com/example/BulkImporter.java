@@ -0,0 +1,294 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends every row of a CSV file (userId,amount) through SendPresenter, with bounded memory.
+ * Responsibilities:
+ * - Stream the file line by line through a BufferedReader; only the current line and the rows in flight
+ *   are held, whatever the file size. A first line starting with "userId" is a header and skipped.
+ * - Submit each row to one SendPresenter, so rows get the same validation, payload, transport, SendQueue
+ *   limits and idempotency keys as the form; at most maxInFlight rows are unanswered at once (the reader
+ *   waits for a free slot). Its metrics are recorded as import.* rather than send.*.
+ * - Count rows read, succeeded, failed and invalid; keep the first MAX_ERRORS invalid rows (line and message)
+ *   and up to MAX_ERRORS distinct failure messages with their counts.
+ * - progress() is a snapshot that any thread can poll (SendPanel does every 250 ms, the headless main every
+ *   second), so nothing is pushed to the EDT per row.
+ *
+ * Run headless against the Python server:
+ *   mvn exec:java -Dexec.mainClass=com.example.BulkImporter -Dexec.args="--file rows.csv --maxInFlight 64"
+ * The client and executor come from the same -Drpc.client / -Dsend.executor properties as Main.
+ *
+ * Teaching points:
+ * - Backpressure instead of buffering: a Semaphore slot is taken before a row is submitted and given back
+ *   by the presenter's answer, so a slow server slows the reader down rather than filling memory.
+ * - Rows skip the outbox: a file can be imported again, and millions of rows would only churn the log.
+ * - Rows go through submitWithoutCoalescing: two equal rows are two payments, so both reach the server,
+ *   however close together they are sent.
+ * - Separate metric names keep a million rows out of the form's send.latency, and stop the import's
+ *   presenter from replacing the form's send.inFlight gauge.
+ * - Fields may be quoted ("a,b" or "say ""hi"""); a quoted field cannot span lines.
+ */
+public final class BulkImporter {
+
+    /** One invalid row; line is 1-based and counts the header. */
+    public record RowError(long line, String message) {}
+
+    /** A snapshot; bytesRead is approximate (line lengths in characters plus one per line break). */
+    public record Progress(long rowsRead, long succeeded, long failed, long invalid, int inFlight,
+                           long bytesRead, long totalBytes, Duration elapsed, boolean done) {
+
+        public long finished() {
+            return succeeded + failed + invalid;
+        }
+
+        public double rowsPerSecond() {
+            return finished() / Math.max(1e-9, elapsed.toNanos() / 1e9);
+        }
+
+        /** e.g. "12000 rows: 11990 ok, 8 failed, 2 invalid, 4 in flight (38%, 5120 rows/s)" */
+        public String summary() {
+            String percent = totalBytes > 0 ? String.format("%d%%, ", Math.min(100, bytesRead * 100 / totalBytes)) : "";
+            return String.format("%d rows: %d ok, %d failed, %d invalid, %d in flight (%s%.0f rows/s)%s",
+                    rowsRead, succeeded, failed, invalid, inFlight, percent, rowsPerSecond(), done ? " - done" : "");
+        }
+    }
+
+    /** Rows in flight when the caller has no better bound (the headless main's --maxInFlight default). */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    static final int MAX_ERRORS = 20;
+
+    private final Semaphore slots;
+    private final int maxInFlight;
+    private final SendPresenter presenter;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final List<RowError> rowErrors = new ArrayList<>(); // guarded by itself
+    private final ConcurrentMap<String, Long> failures = new ConcurrentHashMap<>();
+    private volatile long totalBytes;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile boolean cancelled;
+    private long currentLine; // reader thread only: validation errors are reported during submit
+
+    public BulkImporter(RpcClient rpcClient, Executor executor, int maxInFlight) {
+        this(rpcClient, executor, maxInFlight, Metrics.NOOP);
+    }
+
+    public BulkImporter(RpcClient rpcClient, Executor executor, int maxInFlight, Metrics metrics) {
+        this(rpcClient, executor, maxInFlight, metrics, SendQueue.Settings.unbounded(), null);
+    }
+
+    /**
+     * queueSettings and idempotencyKeys as for SendPresenter (SendPanel passes its own). maxInFlight is lowered
+     * to what the queue can hold (running plus waiting), so the queue never has to reject or drop a row.
+     */
+    public BulkImporter(RpcClient rpcClient, Executor executor, int maxInFlight, Metrics metrics,
+                        SendQueue.Settings queueSettings, Supplier<String> idempotencyKeys) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
+        this.maxInFlight = (int) Math.min(maxInFlight, (long) queueSettings.maxInFlight() + queueSettings.maxQueued());
+        this.slots = new Semaphore(this.maxInFlight);
+        this.presenter = new SendPresenter(rpcClient, executor, new RowListener(), SendPresenter.Settings.defaults()
+                .withMetrics(renamed(metrics))
+                .withQueue(new SendQueue(queueSettings))
+                .withIdempotencyKeys(idempotencyKeys));
+    }
+
+    /**
+     * Imports the file and returns once every submitted row has been answered (or cancel() was called and the
+     * rows in flight have been answered). Blocks the caller: run it off the EDT. An importer runs one file.
+     */
+    public Progress run(Path csv) throws IOException, InterruptedException {
+        Objects.requireNonNull(csv);
+        if (startedNanos != 0) throw new IllegalStateException("An importer runs once");
+        totalBytes = Files.size(csv);
+        startedNanos = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            while (!cancelled && (line = reader.readLine()) != null) {
+                currentLine++;
+                bytesRead.addAndGet(line.length() + 1);
+                if (line.isBlank()) continue;
+                List<String> fields = parseCsvLine(line);
+                if (currentLine == 1 && fields.get(0).trim().equalsIgnoreCase("userId")) continue;
+
+                rowsRead.incrementAndGet();
+                if (fields.size() != 2) {
+                    invalid(currentLine, "Expected 2 fields (userId,amount), got " + fields.size());
+                    continue;
+                }
+                slots.acquire();
+                presenter.submitWithoutCoalescing(fields.get(0), fields.get(1));
+            }
+        } finally {
+            // Wait for the rows in flight, then give the slots back for progress()
+            slots.acquireUninterruptibly(maxInFlight);
+            slots.release(maxInFlight);
+            finishedNanos = System.nanoTime();
+        }
+        return progress();
+    }
+
+    /** Stops reading after the current row; run() returns once the rows in flight are answered. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public Progress progress() {
+        long started = startedNanos;
+        long finished = finishedNanos;
+        long now = finished != 0 ? finished : System.nanoTime();
+        return new Progress(rowsRead.get(), succeeded.get(), failed.get(), invalid.get(),
+                maxInFlight - slots.availablePermits(), bytesRead.get(), totalBytes,
+                Duration.ofNanos(started == 0 ? 0 : now - started), finished != 0);
+    }
+
+    /** The first MAX_ERRORS rows that were not sent. */
+    public List<RowError> rowErrors() {
+        synchronized (rowErrors) {
+            return List.copyOf(rowErrors);
+        }
+    }
+
+    /** Failure message to count, for up to MAX_ERRORS distinct messages. */
+    public Map<String, Long> failures() {
+        return Map.copyOf(failures);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:7777";
+        Path file = null;
+        int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url" -> url = args[i + 1];
+                case "--file" -> file = Path.of(args[i + 1]);
+                case "--maxInFlight" -> maxInFlight = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i] + " (use --file, --url, --maxInFlight)");
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("--file is required");
+
+        RpcClient client = Main.createRpcClient(url);
+        Executor executor = Main.createSendExecutor();
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bulk-import-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            BulkImporter importer = new BulkImporter(client, executor, maxInFlight);
+            ticker.scheduleAtFixedRate(() -> System.out.println(importer.progress().summary()), 1, 1, TimeUnit.SECONDS);
+            importer.run(file);
+            importer.print(System.out);
+        } finally {
+            ticker.shutdownNow();
+            if (executor instanceof ExecutorService service) service.shutdown();
+            else if (executor instanceof AutoCloseable closeable) closeable.close();
+            if (client instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    void print(PrintStream out) {
+        out.println(progress().summary());
+        for (RowError error : rowErrors()) out.printf("  line %d: %s%n", error.line(), error.message());
+        failures().forEach((message, count) -> out.printf("  %6d x %s%n", count, message));
+    }
+
+    /** Splits one CSV line; quoted fields may contain commas and doubled quotes. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // send.latency -> import.latency etc.; NOOP stays NOOP
+    private static Metrics renamed(Metrics metrics) {
+        if (metrics == Metrics.NOOP) return metrics;
+        return new Metrics() {
+            private String name(String name) {
+                return name.startsWith("send.") ? "import." + name.substring("send.".length()) : name;
+            }
+
+            @Override public Counter counter(String name) { return metrics.counter(name(name)); }
+            @Override public Timer timer(String name) { return metrics.timer(name(name)); }
+            @Override public void gauge(String name, LongSupplier value) { metrics.gauge(name(name), value); }
+        };
+    }
+
+    private void invalid(long line, String message) {
+        invalid.incrementAndGet();
+        synchronized (rowErrors) {
+            if (rowErrors.size() < MAX_ERRORS) rowErrors.add(new RowError(line, message));
+        }
+    }
+
+    private final class RowListener implements SendPresenter.Listener {
+        @Override public void onIdle() {}
+        @Override public void onSending() {}
+
+        @Override public void onSuccess(String message) {
+            succeeded.incrementAndGet();
+            slots.release();
+        }
+
+        @Override public void onError(String message) {
+            failed.incrementAndGet();
+            if (failures.size() < MAX_ERRORS || failures.containsKey(message)) failures.merge(message, 1L, Long::sum);
+            slots.release();
+        }
+
+        // Reported synchronously from submit, so currentLine is the row being submitted
+        @Override public void onValidationError(String field, String message) {
+            invalid(currentLine, message);
+            slots.release();
+        }
+    }
+}
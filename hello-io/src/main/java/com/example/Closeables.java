@@ -0,0 +1,38 @@
+package com.example;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Closes resources that are held by a type that does not say whether they need closing (RpcClient, Executor).
+ * - close: shuts an ExecutorService down (without waiting) and closes any other AutoCloseable; anything else
+ *   is left alone. A checked exception comes back as IllegalStateException, with the interrupt flag restored
+ *   if it was an InterruptedException, so the decorators' close() methods need no throws clause.
+ * - closeQuietly: the same, ignoring failures (shutdown hooks).
+ */
+final class Closeables {
+
+    private Closeables() {}
+
+    static void close(Object resource) {
+        if (resource instanceof ExecutorService service) {
+            service.shutdown();
+        } else if (resource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+                throw new IllegalStateException("Could not close " + resource.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+
+    static void closeQuietly(Object resource) {
+        try {
+            close(resource);
+        } catch (RuntimeException ignored) {
+            // Best effort during shutdown
+        }
+    }
+}
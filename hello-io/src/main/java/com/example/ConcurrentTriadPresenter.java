@@ -0,0 +1,117 @@
+package com.example;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Triad presenter that may be driven from several threads at once (UI, scripts, network handlers).
+ * Responsibilities:
+ * - Keep (total, A, B, C) in one immutable Snapshot behind an AtomicReference; every edit is a
+ *   compare-and-set retry loop around the pure TriadCalculator, so no update is lost or torn.
+ * - Number snapshots with a version that grows by one per applied change: that is the order in which
+ *   changes took effect, and listeners use it to drop notifications that arrive late.
+ * - The programmatic-update guard is per thread: while the view writes text on the EDT, feedback edits
+ *   from the EDT are ignored but edits from other threads still apply.
+ *
+ * Teaching points:
+ * - A plain long cannot hold four values at full range (TriadCalculator.pack already uses 63 bits for three),
+ *   so the single atomic word is a reference to an immutable snapshot.
+ * - Listener calls happen on the editing thread, after the CAS, outside any lock.
+ * - No debounce or undo here; use TriadPresenter for a single-threaded view.
+ */
+public final class ConcurrentTriadPresenter {
+
+    /** State after the version-th applied change (version 0 is the initial state). */
+    public record Snapshot(long version, int total, TriadCalculator.Values values) {
+        public boolean isNewerThan(Snapshot other) {
+            return other == null || version > other.version;
+        }
+    }
+
+    public interface Listener {
+        /** May be called concurrently and out of order; ignore snapshots that are not newer than the last one shown. */
+        void onStateChanged(Snapshot snapshot);
+        void onValidationError(TriadCalculator.Field field, String message);
+    }
+
+    private final TriadCalculator calculator;
+    private final Listener listener;
+    private final AtomicReference<Snapshot> state;
+    private final ThreadLocal<int[]> programmaticDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public ConcurrentTriadPresenter(TriadCalculator calculator, Listener listener, int initialTotal,
+                                    TriadCalculator.Values initialValues) {
+        this.calculator = Objects.requireNonNull(calculator);
+        this.listener = Objects.requireNonNull(listener);
+        if (initialTotal < 0) throw new IllegalArgumentException("total must be >= 0");
+        this.state = new AtomicReference<>(new Snapshot(0, initialTotal, Objects.requireNonNull(initialValues)));
+        listener.onStateChanged(state.get());
+    }
+
+    public Snapshot snapshot() {
+        return state.get();
+    }
+
+    /**
+     * Parses the text and applies it like edit(); ignored while this thread is inside a programmatic update.
+     * Returns the resulting snapshot, or null if the edit was ignored or invalid.
+     */
+    public Snapshot onFieldEdited(TriadCalculator.Field field, String text) {
+        if (programmaticDepth.get()[0] > 0) return null;
+        Integer parsed = parseNonNegativeInt(text);
+        if (parsed == null) {
+            listener.onValidationError(field, "Please enter a whole number >= 0");
+            return null;
+        }
+        return edit(field, parsed);
+    }
+
+    /** Atomically sets the field (clamped) and rebalances against the total current at that moment. */
+    public Snapshot edit(TriadCalculator.Field field, int newValue) {
+        Objects.requireNonNull(field);
+        Snapshot current, next;
+        do {
+            current = state.get();
+            TriadCalculator.Values values = calculator.adjust(current.values(), field, newValue, current.total());
+            next = new Snapshot(current.version() + 1, current.total(), values);
+        } while (!state.compareAndSet(current, next));
+        listener.onStateChanged(next);
+        return next;
+    }
+
+    /** Atomically changes the total and re-fits the values (re-applies A, as TriadPresenter does). */
+    public Snapshot setTotal(int newTotal) {
+        if (newTotal < 0) {
+            listener.onValidationError(null, "Total must be >= 0");
+            return null;
+        }
+        Snapshot current, next;
+        do {
+            current = state.get();
+            TriadCalculator.Values values = calculator.adjust(current.values(), TriadCalculator.Field.A, current.values().a, newTotal);
+            next = new Snapshot(current.version() + 1, newTotal, values);
+        } while (!state.compareAndSet(current, next));
+        listener.onStateChanged(next);
+        return next;
+    }
+
+    /** Until the matching end call, onFieldEdited from this thread is ignored (calls may nest). */
+    public void beginProgrammaticUpdate() {
+        programmaticDepth.get()[0]++;
+    }
+
+    public void endProgrammaticUpdate() {
+        int[] depth = programmaticDepth.get();
+        if (depth[0] > 0) depth[0]--;
+    }
+
+    private static Integer parseNonNegativeInt(String s) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            int v = Integer.parseInt(s.trim());
+            return v < 0 ? null : v;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Delays an action until input settles (debounce) or runs it at most once per window (throttle).
+ * Responsibilities:
+ * - trigger() records that input changed; the action runs later through the Scheduler.
+ * - flush() runs a pending action immediately, cancel() drops it.
+ *
+ * Teaching points:
+ * - The Scheduler is injected, so tests advance time by hand instead of sleeping.
+ * - swingTimers() fires on the EDT, which keeps single-threaded presenters single-threaded.
+ */
+public final class Debouncer {
+
+    public enum Mode {
+        /** Run once, window after the last trigger. */
+        DEBOUNCE,
+        /** Run window after the first trigger of a burst, then again for later triggers. */
+        THROTTLE
+    }
+
+    public interface Cancellable {
+        void cancel();
+    }
+
+    /** Runs a task once after a delay. */
+    public interface Scheduler {
+        Cancellable schedule(Duration delay, Runnable task);
+    }
+
+    /** One-shot javax.swing.Timer per schedule; tasks run on the EDT. */
+    public static Scheduler swingTimers() {
+        return (delay, task) -> {
+            Timer timer = new Timer((int) delay.toMillis(), e -> task.run());
+            timer.setRepeats(false);
+            timer.start();
+            return timer::stop;
+        };
+    }
+
+    private final Scheduler scheduler;
+    private final Duration window;
+    private final Mode mode;
+    private final Runnable action;
+    private Cancellable scheduled; // null when nothing is pending
+
+    public Debouncer(Scheduler scheduler, Duration window, Mode mode, Runnable action) {
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.window = Objects.requireNonNull(window);
+        this.mode = Objects.requireNonNull(mode);
+        this.action = Objects.requireNonNull(action);
+        if (window.isNegative()) throw new IllegalArgumentException("window must be >= 0");
+    }
+
+    public void trigger() {
+        if (scheduled != null) {
+            if (mode == Mode.THROTTLE) return;
+            scheduled.cancel();
+        }
+        scheduled = scheduler.schedule(window, this::fire);
+    }
+
+    /** Runs the pending action now, if any. */
+    public void flush() {
+        if (scheduled == null) return;
+        scheduled.cancel();
+        fire();
+    }
+
+    public void cancel() {
+        if (scheduled == null) return;
+        scheduled.cancel();
+        scheduled = null;
+    }
+
+    public boolean isPending() {
+        return scheduled != null;
+    }
+
+    private void fire() {
+        scheduled = null;
+        action.run();
+    }
+}
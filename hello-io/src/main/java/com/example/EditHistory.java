@@ -0,0 +1,141 @@
+package com.example;
+
+/**
+ * Undo/redo store for (a, b, c, total) states as deltas in a fixed-size long[] ring.
+ * Responsibilities:
+ * - record(before, after) appends the change; it drops any redo steps and, when full, the oldest steps.
+ * - undo/redo apply one step to a caller-owned int[4] state in place.
+ *
+ * Entry encoding:
+ * - Narrow (1 long, bit 63 clear): four signed 15-bit deltas in bits 0..59.
+ * - Wide (3 longs) for larger deltas: [bit 63|62 set, da][db, dc][bit 63 set, dtotal]; the flags on both
+ *   ends let the ring be walked forwards (evicting) and backwards (undoing).
+ *
+ * Teaching points:
+ * - Typical edits cost 8 bytes and nothing is allocated per step; 4096 slots hold thousands of edits in 32 KB.
+ * - Storing deltas instead of snapshots means no base state is needed: undo subtracts from the current state.
+ */
+final class EditHistory {
+
+    private static final long WIDE = 1L << 63;
+    private static final long HEAD = 1L << 62;
+    private static final int NARROW_BITS = 15;
+    private static final int NARROW_MIN = -(1 << (NARROW_BITS - 1));
+    private static final int NARROW_MAX = (1 << (NARROW_BITS - 1)) - 1;
+    private static final long NARROW_MASK = (1L << NARROW_BITS) - 1;
+
+    private final long[] ring;
+    private final int mask;
+    // Monotonic slot counters; ring index is counter & mask. start <= cursor <= end.
+    private long start;
+    private long cursor;
+    private long end;
+
+    /** capacity is in 8-byte slots, rounded up to a power of two (at least 4). */
+    EditHistory(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("capacity out of range");
+        int size = Math.max(4, capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.ring = new long[size];
+        this.mask = size - 1;
+    }
+
+    /** Records the step from before to after (each {a, b, c, total}); no-op if they are equal. */
+    void record(int[] before, int[] after) {
+        int da = after[0] - before[0];
+        int db = after[1] - before[1];
+        int dc = after[2] - before[2];
+        int dt = after[3] - before[3];
+        if ((da | db | dc | dt) == 0) return;
+
+        end = cursor; // a new edit discards the redo steps
+        if (fitsNarrow(da) && fitsNarrow(db) && fitsNarrow(dc) && fitsNarrow(dt)) {
+            makeRoom(1);
+            put(end++, (da & NARROW_MASK) | (db & NARROW_MASK) << 15 | (dc & NARROW_MASK) << 30 | (dt & NARROW_MASK) << 45);
+        } else {
+            makeRoom(3);
+            put(end++, WIDE | HEAD | (da & 0xFFFFFFFFL));
+            put(end++, (long) db << 32 | (dc & 0xFFFFFFFFL));
+            put(end++, WIDE | (dt & 0xFFFFFFFFL));
+        }
+        cursor = end;
+    }
+
+    boolean canUndo() {
+        return cursor > start;
+    }
+
+    boolean canRedo() {
+        return cursor < end;
+    }
+
+    /** Subtracts the last step from state; returns false if there is nothing to undo. */
+    boolean undo(int[] state) {
+        if (!canUndo()) return false;
+        long last = get(cursor - 1);
+        if ((last & WIDE) == 0) {
+            cursor -= 1;
+            applyNarrow(last, state, -1);
+        } else {
+            cursor -= 3;
+            applyWide(cursor, state, -1);
+        }
+        return true;
+    }
+
+    /** Re-applies the next undone step to state; returns false if there is nothing to redo. */
+    boolean redo(int[] state) {
+        if (!canRedo()) return false;
+        long first = get(cursor);
+        if ((first & WIDE) == 0) {
+            applyNarrow(first, state, 1);
+            cursor += 1;
+        } else {
+            applyWide(cursor, state, 1);
+            cursor += 3;
+        }
+        return true;
+    }
+
+    /** Number of 8-byte slots in use (undo plus redo steps). */
+    int usedSlots() {
+        return (int) (end - start);
+    }
+
+    private void makeRoom(int slots) {
+        while (end + slots - start > ring.length) {
+            start += (get(start) & WIDE) == 0 ? 1 : 3;
+        }
+    }
+
+    private void applyNarrow(long entry, int[] state, int sign) {
+        state[0] += sign * narrow(entry, 0);
+        state[1] += sign * narrow(entry, 15);
+        state[2] += sign * narrow(entry, 30);
+        state[3] += sign * narrow(entry, 45);
+    }
+
+    private void applyWide(long at, int[] state, int sign) {
+        long head = get(at), middle = get(at + 1), tail = get(at + 2);
+        state[0] += sign * (int) head;
+        state[1] += sign * (int) (middle >> 32);
+        state[2] += sign * (int) middle;
+        state[3] += sign * (int) tail;
+    }
+
+    private static int narrow(long entry, int shift) {
+        // Shift the field to the top, then arithmetic-shift back to sign-extend it
+        return (int) (entry << (64 - shift - NARROW_BITS) >> (64 - NARROW_BITS));
+    }
+
+    private static boolean fitsNarrow(int delta) {
+        return delta >= NARROW_MIN && delta <= NARROW_MAX;
+    }
+
+    private long get(long counter) {
+        return ring[(int) (counter & mask)];
+    }
+
+    private void put(long counter, long value) {
+        ring[(int) (counter & mask)] = value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example;
+
+import javax.swing.*;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Folds bursts of view updates into a single pass on the EDT.
+ * Responsibilities:
+ * - Merge every update into one pending state (latest values win).
+ * - Post at most one pass to the EDT while a state is pending; the pass applies the newest state.
+ *
+ * Teaching points:
+ * - invokeLater per callback queues one Runnable per keystroke, most of which paint stale data.
+ * - A compare-and-set on the pending slot makes update() safe from any thread without locks.
+ */
+final class EdtCoalescer<S> {
+
+    private final S empty;
+    private final Consumer<S> apply;
+    private final Executor edt;
+    private final AtomicReference<S> pending = new AtomicReference<>();
+    private final AtomicInteger passesPosted = new AtomicInteger();
+
+    EdtCoalescer(S empty, Consumer<S> apply) {
+        this(empty, apply, SwingUtilities::invokeLater);
+    }
+
+    EdtCoalescer(S empty, Consumer<S> apply, Executor edt) {
+        this.empty = Objects.requireNonNull(empty);
+        this.apply = Objects.requireNonNull(apply);
+        this.edt = Objects.requireNonNull(edt);
+    }
+
+    /** Merges into the pending state and schedules a pass if none is scheduled yet. */
+    void update(UnaryOperator<S> merge) {
+        while (true) {
+            S previous = pending.get();
+            S next = merge.apply(previous != null ? previous : empty);
+            if (pending.compareAndSet(previous, next)) {
+                if (previous == null) {
+                    passesPosted.incrementAndGet();
+                    edt.execute(this::runPass);
+                }
+                return;
+            }
+        }
+    }
+
+    /** Number of Runnables handed to the EDT so far. */
+    int passesPosted() {
+        return passesPosted.get();
+    }
+
+    private void runPass() {
+        S state = pending.getAndSet(null);
+        if (state != null) apply.accept(state);
+    }
+}
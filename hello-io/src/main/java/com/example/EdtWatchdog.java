@@ -0,0 +1,196 @@
+package com.example;
+
+import java.awt.AWTEvent;
+import java.awt.ActiveEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InputEvent;
+import java.awt.event.InvocationEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * EventQueue that times every event it dispatches and reports the ones that block the EDT.
+ * Responsibilities:
+ * - dispatchTimes(): handling time per event (nanoseconds); queueWaitMillis(): how long input and
+ *   invokeLater events sat in the queue before being dispatched.
+ * - A daemon thread samples the EDT while an event runs; once it has run longer than the threshold the
+ *   EDT stack is captured, so the report shows where it was stuck rather than where it ended.
+ * - Each stall is passed to onStall and kept (the last MAX_KEPT) for stalls()/assertNoStalls().
+ *
+ * Teaching points:
+ * - install() pushes the watchdog onto the system EventQueue; Swing code needs no changes.
+ * - Tests install it around a UI scenario and call assertNoStalls() to turn a frozen UI into a failure.
+ * - Events that run a nested loop (modal dialogs) are not counted: their time is the user's, not the EDT's.
+ */
+public final class EdtWatchdog extends EventQueue {
+
+    /** One event that ran longer than the threshold; stack is the EDT while it was stuck (may be empty). */
+    public record Stall(Duration duration, String event, List<StackTraceElement> stack) {
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("EDT blocked for ").append(duration.toMillis()).append(" ms by ").append(event);
+            for (StackTraceElement frame : stack) sb.append("\n\tat ").append(frame);
+            return sb.toString();
+        }
+    }
+
+    private static final int MAX_KEPT = 100;
+    private static final int MAX_EVENT_TEXT = 200;
+
+    private final long thresholdNanos;
+    private final Consumer<Stall> onStall;
+    private final Metrics.Timer dispatchTimer;
+    private final Metrics.Counter stallCounter;
+    private final LatencyHistogram dispatchTimes = new LatencyHistogram();
+    private final LatencyHistogram queueWaits = new LatencyHistogram();
+    private final ScheduledExecutorService sampler;
+
+    // Written on the EDT, read by the sampler
+    private volatile Thread edt;
+    private volatile long runningSince; // 0 while idle
+    private volatile StackTraceElement[] sampledStack;
+    private int depth;             // EDT only
+    private boolean nested;        // EDT only: the outermost event ran a nested loop
+
+    private final List<Stall> stalls = new ArrayList<>(); // guarded by itself
+    private boolean installed = false;
+
+    public EdtWatchdog(Duration threshold, Metrics metrics, Consumer<Stall> onStall) {
+        if (threshold.isNegative() || threshold.isZero()) throw new IllegalArgumentException("threshold must be > 0");
+        this.thresholdNanos = threshold.toNanos();
+        this.onStall = Objects.requireNonNull(onStall);
+        this.dispatchTimer = metrics.timer("edt.dispatch");
+        this.stallCounter = metrics.counter("edt.stalls");
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "edt-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(5), thresholdNanos / 4);
+        sampler.scheduleWithFixedDelay(this::sample, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /** Pushes a watchdog onto the system event queue; stalls are printed to stderr. */
+    public static EdtWatchdog install(Duration threshold, Metrics metrics) {
+        return install(threshold, metrics, stall -> System.err.println(stall));
+    }
+
+    public static EdtWatchdog install(Duration threshold, Metrics metrics, Consumer<Stall> onStall) {
+        EdtWatchdog watchdog = new EdtWatchdog(threshold, metrics, onStall);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        watchdog.installed = true;
+        return watchdog;
+    }
+
+    /** Stops sampling and, if installed, restores the previous event queue. */
+    public void uninstall() {
+        sampler.shutdownNow();
+        if (installed) {
+            installed = false;
+            pop();
+        }
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (depth > 0) {
+            nested = true;
+            super.dispatchEvent(event);
+            return;
+        }
+        recordQueueWait(event);
+        edt = Thread.currentThread();
+        long start = System.nanoTime();
+        nested = false;
+        sampledStack = null;
+        runningSince = start;
+        depth++;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            depth--;
+            runningSince = 0;
+            long elapsed = System.nanoTime() - start;
+            if (!nested) {
+                dispatchTimes.record(elapsed);
+                dispatchTimer.recordNanos(elapsed);
+                if (elapsed > thresholdNanos) reportStall(elapsed, event);
+            }
+        }
+    }
+
+    /** Handling time per dispatched event, in nanoseconds. */
+    public LatencyHistogram dispatchTimes() {
+        return dispatchTimes;
+    }
+
+    /** Time from creation to dispatch for input and invokeLater events, in milliseconds. */
+    public LatencyHistogram queueWaitMillis() {
+        return queueWaits;
+    }
+
+    public List<Stall> stalls() {
+        synchronized (stalls) {
+            return List.copyOf(stalls);
+        }
+    }
+
+    public void clearStalls() {
+        synchronized (stalls) {
+            stalls.clear();
+        }
+    }
+
+    /** Test hook: throws AssertionError describing every stall seen since the last clearStalls(). */
+    public void assertNoStalls() {
+        List<Stall> seen = stalls();
+        if (seen.isEmpty()) return;
+        StringBuilder sb = new StringBuilder(seen.size() + " EDT stall(s):");
+        for (Stall stall : seen) sb.append("\n").append(stall);
+        throw new AssertionError(sb.toString());
+    }
+
+    private void sample() {
+        long since = runningSince;
+        Thread thread = edt;
+        if (since == 0 || thread == null || sampledStack != null) return;
+        if (System.nanoTime() - since < thresholdNanos) return;
+        StackTraceElement[] stack = thread.getStackTrace();
+        if (runningSince == since) sampledStack = stack; // still the same event
+    }
+
+    private void reportStall(long elapsedNanos, AWTEvent event) {
+        StackTraceElement[] stack = sampledStack;
+        Stall stall = new Stall(Duration.ofNanos(elapsedNanos), describe(event),
+                stack != null ? List.of(stack) : List.of());
+        stallCounter.increment();
+        synchronized (stalls) {
+            if (stalls.size() == MAX_KEPT) stalls.remove(0);
+            stalls.add(stall);
+        }
+        onStall.accept(stall);
+    }
+
+    private void recordQueueWait(AWTEvent event) {
+        long when = switch (event) {
+            case InvocationEvent e -> e.getWhen();
+            case InputEvent e -> e.getWhen();
+            default -> 0;
+        };
+        if (when > 0) queueWaits.record(Math.max(0, System.currentTimeMillis() - when));
+    }
+
+    private static String describe(AWTEvent event) {
+        String text = event instanceof ActiveEvent
+                ? event.getClass().getSimpleName() + "[" + event.paramString() + "]"
+                : event.getClass().getSimpleName() + "[" + event.paramString() + "] on " + event.getSource().getClass().getSimpleName();
+        return text.length() <= MAX_EVENT_TEXT ? text : text.substring(0, MAX_EVENT_TEXT) + "...";
+    }
+}
@@ -0,0 +1,67 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking XML-RPC client built on java.net.http.HttpClient.
+ * Responsibilities:
+ * - Encode the 'receive' call with XmlRpcCodec and POST it asynchronously.
+ * - Decode the response into a Result, or complete exceptionally on HTTP errors and faults.
+ *
+ * Teaching points:
+ * - HttpClient multiplexes many in-flight requests over its own selector thread, so hundreds of
+ *   concurrent sends do not need hundreds of threads.
+ * - The HttpClient keeps connections alive and is shared by all calls; it is thread-safe.
+ */
+public class HttpXmlRpcClient implements AsyncRpcClient {
+
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REPLY_TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI endpoint;
+    private final HttpClient http;
+
+    public HttpXmlRpcClient(String endpointUrl) {
+        this(endpointUrl, HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // XML-RPC servers rarely speak h2c
+                .connectTimeout(CONNECTION_TIMEOUT)
+                .build());
+    }
+
+    public HttpXmlRpcClient(String endpointUrl, HttpClient http) {
+        this.endpoint = URI.create(endpointUrl.endsWith("/RPC2") ? endpointUrl : endpointUrl + "/RPC2");
+        this.http = http;
+    }
+
+    @Override
+    public CompletableFuture<Result> sendValuesAsync(Map<String, Object> payload) {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(REPLY_TIMEOUT)
+                .header("Content-Type", "text/xml")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(XmlRpcCodec.encodeCall("receive", payload)))
+                .build();
+
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(HttpXmlRpcClient::toResult);
+    }
+
+    private static Result toResult(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new CompletionException(new IOException("HTTP " + response.statusCode() + " from XML-RPC server"));
+        }
+        try {
+            Object value = XmlRpcCodec.decodeResponse(response.body());
+            return Result.ok(value != null ? value.toString() : "OK");
+        } catch (XmlRpcCodec.Fault fault) {
+            throw new CompletionException(fault);
+        }
+    }
+}
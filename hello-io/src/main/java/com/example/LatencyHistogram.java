@@ -0,0 +1,81 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ * - Values below 128 get their own bucket; above that every power of two is split into 64 buckets,
+ *   so any reported value is within 1/64 (about 1.6%) of what was recorded.
+ * - Fixed memory (about 30 KB) for the whole long range; record() is lock-free and safe from any thread.
+ *
+ * Teaching points:
+ * - Averages hide tails: report percentiles (p99, p99.9) and the max.
+ * - The histogram only stores what callers measure; measuring from the intended send time
+ *   (see LoadGenerator) is what keeps coordinated omission out of the numbers.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // 128
+    private static final int HALF = SUB_BUCKETS / 2;               // 64
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /** Records one non-negative value (any unit, e.g. microseconds). */
+    public void record(long value) {
+        if (value < 0) throw new IllegalArgumentException("value must be >= 0");
+        counts.incrementAndGet(indexOf(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Smallest recorded value v (rounded up to its bucket's upper bound, capped at max) such that
+     * percentile% of all values are <= v. Returns 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("percentile must be in [0, 100]");
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestValueIn(i), max.get());
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long mantissa = (index - SUB_BUCKETS) % HALF + HALF;
+        long next = (mantissa + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Executor that creates its delegate (and its threads) on the first execute.
+ * Responsibilities:
+ * - Call the factory at most once, from whichever thread submits first.
+ * - close() shuts the delegate down only if it was ever created; later tasks are rejected.
+ *
+ * Teaching points:
+ * - Same pattern as LazyRpcClient: nothing the user has not asked for yet is started before the first frame.
+ */
+public final class LazyExecutor implements Executor, AutoCloseable {
+
+    private final Supplier<? extends Executor> factory;
+    private volatile Executor delegate;
+    private boolean closed; // guarded by this
+
+    public LazyExecutor(Supplier<? extends Executor> factory) {
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate().execute(task);
+    }
+
+    public boolean isCreated() {
+        return delegate != null;
+    }
+
+    /** Shuts an ExecutorService down (without waiting) and closes any other AutoCloseable delegate. */
+    @Override
+    public void close() {
+        Executor created;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            created = delegate;
+        }
+        Closeables.close(created);
+    }
+
+    private Executor delegate() {
+        Executor executor = delegate;
+        if (executor != null) return executor;
+        synchronized (this) {
+            if (closed) throw new RejectedExecutionException("Executor is closed");
+            if (delegate == null) delegate = Objects.requireNonNull(factory.get(), "factory returned null");
+            return delegate;
+        }
+    }
+}
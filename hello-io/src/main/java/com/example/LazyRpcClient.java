@@ -0,0 +1,110 @@
+package com.example;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * RpcClient that creates its delegate on the first send instead of at startup.
+ * Responsibilities:
+ * - Call the factory at most once, from whichever thread sends first.
+ * - close() closes the delegate only if it was ever created; later sends fail.
+ *
+ * Teaching points:
+ * - Main wraps ApacheXmlRpcClient in one (and BinaryRpcClient in an Async one), so neither their classes nor
+ *   their connections or threads are loaded before the first frame is on screen. The factory lambda is what keeps them unloaded: the JVM resolves the
+ *   classes it names only when it runs.
+ * - Double-checked locking on a volatile field: after creation, a send costs one volatile read.
+ */
+public final class LazyRpcClient implements RpcClient, AutoCloseable {
+
+    private final Supplier<? extends RpcClient> factory;
+    private volatile RpcClient delegate;
+    private boolean closed; // guarded by this
+
+    public LazyRpcClient(Supplier<? extends RpcClient> factory) {
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    @Override
+    public Result sendValues(Map<String, Object> payload) throws Exception {
+        return delegate().sendValues(payload);
+    }
+
+    @Override
+    public List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+        return delegate().sendBatch(payloads);
+    }
+
+    @Override
+    public List<CompletableFuture<Result>> sendEach(List<Map<String, Object>> payloads) {
+        return delegate().sendEach(payloads);
+    }
+
+    public boolean isCreated() {
+        return delegate != null;
+    }
+
+    @Override
+    public void close() {
+        RpcClient created;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            created = delegate;
+        }
+        Closeables.close(created);
+    }
+
+    /**
+     * The same for an AsyncRpcClient; it stays one, so SendPresenter and ResilientRpcClient.async() keep
+     * it non-blocking. A send that cannot create the delegate fails its future.
+     */
+    public static final class Async implements AsyncRpcClient, AutoCloseable {
+        private final LazyRpcClient lazy;
+
+        public Async(Supplier<? extends AsyncRpcClient> factory) {
+            this.lazy = new LazyRpcClient(factory);
+        }
+
+        @Override
+        public CompletableFuture<Result> sendValuesAsync(Map<String, Object> payload) {
+            try {
+                return ((AsyncRpcClient) lazy.delegate()).sendValuesAsync(payload);
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+
+        @Override
+        public List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+            return lazy.sendBatch(payloads);
+        }
+
+        @Override
+        public List<CompletableFuture<Result>> sendEach(List<Map<String, Object>> payloads) {
+            return lazy.sendEach(payloads);
+        }
+
+        public boolean isCreated() {
+            return lazy.isCreated();
+        }
+
+        @Override
+        public void close() {
+            lazy.close();
+        }
+    }
+
+    private RpcClient delegate() {
+        RpcClient client = delegate;
+        if (client != null) return client;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("RpcClient is closed");
+            if (delegate == null) delegate = Objects.requireNonNull(factory.get(), "factory returned null");
+            return delegate;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Tab factory for a JTabbedPane: each tab's content is built the first time the tab is selected.
+ * Responsibilities:
+ * - addTab puts an empty placeholder in the pane and remembers the factory for it.
+ * - On selection (or build(title)) the factory runs once and its component replaces the placeholder.
+ * - If the new content does not fit, the window grows to its preferred size (it never shrinks).
+ *
+ * Teaching points:
+ * - Only the tab on screen is paid for before the first frame; a panel's presenter, client and
+ *   classes are created when the user first goes there.
+ * - EDT only, like the JTabbedPane it manages.
+ */
+public final class LazyTabs {
+
+    private final JTabbedPane tabs;
+    private final Map<Component, Supplier<? extends JComponent>> factories = new HashMap<>();
+
+    public LazyTabs(JTabbedPane tabs) {
+        this.tabs = Objects.requireNonNull(tabs);
+        tabs.addChangeListener(e -> buildAt(tabs.getSelectedIndex()));
+    }
+
+    public JTabbedPane tabs() {
+        return tabs;
+    }
+
+    /** Adds a tab whose content is created by factory on first selection (at once if it is selected now). */
+    public void addTab(String title, Supplier<? extends JComponent> factory) {
+        JPanel placeholder = new JPanel();
+        factories.put(placeholder, Objects.requireNonNull(factory));
+        tabs.addTab(title, placeholder);
+        buildAt(tabs.getSelectedIndex());
+    }
+
+    /** Builds the tab's content now, without selecting it (e.g. when it has background work to resume). */
+    public void build(String title) {
+        int index = tabs.indexOfTab(title);
+        if (index < 0) throw new IllegalArgumentException("No tab titled " + title);
+        buildAt(index);
+    }
+
+    public boolean isBuilt(String title) {
+        int index = tabs.indexOfTab(title);
+        if (index < 0) throw new IllegalArgumentException("No tab titled " + title);
+        return !factories.containsKey(tabs.getComponentAt(index));
+    }
+
+    private void buildAt(int index) {
+        if (index < 0) return;
+        Component placeholder = tabs.getComponentAt(index);
+        Supplier<? extends JComponent> factory = factories.get(placeholder);
+        if (factory == null) return;
+        // If the factory throws, the placeholder stays and the next selection tries again
+        JComponent content = factory.get();
+        factories.remove(placeholder);
+        tabs.setComponentAt(index, content);
+        growWindowToFit();
+    }
+
+    private void growWindowToFit() {
+        Window window = SwingUtilities.getWindowAncestor(tabs);
+        if (window == null || !window.isDisplayable()) return;
+        Dimension preferred = window.getPreferredSize();
+        Dimension size = window.getSize();
+        if (preferred.width > size.width || preferred.height > size.height) {
+            window.setSize(Math.max(preferred.width, size.width), Math.max(preferred.height, size.height));
+        }
+        window.validate();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Headless load tool: drives SendPresenter.submit at a fixed arrival rate and reports latency percentiles.
+ * Responsibilities:
+ * - Open-loop arrivals: send i is due at start + i / rate, whether or not earlier sends have finished.
+ * - All sends go through one SendPresenter with the form's SendQueue settings (Main.createQueueSettings),
+ *   so admission limits and coalescing of identical in-flight sends are part of what is measured.
+ * - Latency runs from the due time to the presenter's answer, so a stalled client or server
+ *   shows up in the numbers instead of silently lowering the rate (coordinated omission). Rejected and
+ *   dropped sends are counted as errors but have no latency.
+ * - Print sent/ok/error counts, the achieved rate and p50/p90/p99/p99.9/max.
+ *
+ * Run against the stand-in or the Python server:
+ *   mvn exec:java -Dexec.mainClass=com.example.LoadGenerator -Dexec.args="--url http://127.0.0.1:7777 --rate 500 --seconds 30"
+ * The client and executor come from the same -Drpc.client / -Dsend.executor properties as Main.
+ *
+ * Teaching points:
+ * - The Listener does not say which send answered, but the presenter's send.latency Timer does: start() runs
+ *   inside submit and its token comes back to stop() with that submit's answer. Handing it the due time
+ *   as the token ties every answer, coalesced ones included, to when it should have been sent.
+ */
+public final class LoadGenerator {
+
+    /** Outcome of a run; latencies are in microseconds. */
+    public record Report(long sent, long succeeded, long failed, long unfinished, Duration elapsed,
+                         LatencyHistogram latencyMicros, Map<String, Long> errors) {
+
+        public double achievedRate() {
+            return (succeeded + failed) / Math.max(1e-9, elapsed.toNanos() / 1e9);
+        }
+
+        public void print(PrintStream out) {
+            out.printf("sent %d, ok %d, errors %d, unfinished %d in %.1f s (%.1f/s)%n",
+                    sent, succeeded, failed, unfinished, elapsed.toMillis() / 1000.0, achievedRate());
+            out.printf("latency ms: p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f  mean %.2f%n",
+                    ms(50), ms(90), ms(99), ms(99.9), latencyMicros.max() / 1000.0, latencyMicros.mean() / 1000.0);
+            errors.forEach((message, count) -> out.printf("  %6d x %s%n", count, message));
+        }
+
+        private double ms(double percentile) {
+            return latencyMicros.valueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_ERROR_KINDS = 20;
+    private static final String USAGE = " (use --url, --rate, --seconds, each followed by a value)";
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:7777";
+        double rate = 100;
+        double seconds = 10;
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Option " + args[args.length - 1] + " has no value" + USAGE);
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url" -> url = args[i + 1];
+                case "--rate" -> rate = Double.parseDouble(args[i + 1]);
+                case "--seconds" -> seconds = Double.parseDouble(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i] + USAGE);
+            }
+        }
+
+        RpcClient client = Main.createRpcClient(url);
+        Executor executor = Main.createSendExecutor();
+        try {
+            System.out.printf("Sending %.0f/s for %.0f s to %s (client %s, executor %s)%n", rate, seconds, url,
+                    System.getProperty("rpc.client", "apache"), System.getProperty("send.executor", "single"));
+            run(client, executor, Main.createQueueSettings(), rate, Duration.ofMillis((long) (seconds * 1000)))
+                    .print(System.out);
+        } finally {
+            if (executor instanceof ExecutorService service) service.shutdownNow();
+            else if (executor instanceof AutoCloseable closeable) closeable.close();
+            if (client instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    /** As run with the default SendQueue settings (the form's, when no -Dsend.* property is set). */
+    public static Report run(RpcClient client, Executor executor, double ratePerSecond, Duration duration) {
+        return run(client, executor, SendQueue.Settings.defaults(), ratePerSecond, duration);
+    }
+
+    /** Submits rate * duration sends at evenly spaced due times, then waits for them to finish. */
+    public static Report run(RpcClient client, Executor executor, SendQueue.Settings queueSettings,
+                             double ratePerSecond, Duration duration) {
+        Objects.requireNonNull(client);
+        Objects.requireNonNull(executor);
+        if (ratePerSecond <= 0) throw new IllegalArgumentException("rate must be > 0");
+        long total = (long) (ratePerSecond * duration.toNanos() / 1e9);
+        double intervalNanos = 1e9 / ratePerSecond;
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicLong finished = new AtomicLong();
+        ConcurrentMap<String, Long> errors = new ConcurrentHashMap<>();
+        long[] due = new long[1]; // submitting thread only: read by start() from inside submit
+
+        Metrics.Timer fromDueTime = new Metrics.Timer() {
+            @Override public long start() { return due[0]; }
+            @Override public void stop(long startToken) { recordNanos(System.nanoTime() - startToken); }
+            @Override public void recordNanos(long nanos) { histogram.record(nanos / 1_000); }
+        };
+        Metrics metrics = new Metrics() {
+            @Override public Counter counter(String name) { return NOOP.counter(name); }
+            @Override public Timer timer(String name) { return name.equals("send.latency") ? fromDueTime : NOOP.timer(name); }
+            @Override public void gauge(String name, LongSupplier value) {}
+        };
+        SendPresenter.Listener listener = new SendPresenter.Listener() {
+            @Override public void onIdle() {}
+            @Override public void onSending() {}
+            @Override public void onSuccess(String message) {
+                done(true, null);
+            }
+            @Override public void onError(String message) {
+                done(false, message);
+            }
+            @Override public void onValidationError(String field, String message) {
+                done(false, "validation: " + message);
+            }
+
+            private void done(boolean ok, String error) {
+                (ok ? succeeded : failed).increment();
+                if (error != null && (errors.size() < MAX_ERROR_KINDS || errors.containsKey(error))) {
+                    errors.merge(error, 1L, Long::sum);
+                }
+                finished.incrementAndGet();
+            }
+        };
+        SendPresenter presenter = new SendPresenter(client, executor, listener, SendPresenter.Settings.defaults()
+                .withMetrics(metrics)
+                .withQueue(new SendQueue(queueSettings)));
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            due[0] = start + (long) (i * intervalNanos);
+            long wait;
+            while ((wait = due[0] - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+            presenter.submit("load-" + (i % 1000), String.valueOf(1 + i % 1000));
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (finished.get() < total && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new Report(total, succeeded.sum(), failed.sum(), total - finished.get(), elapsed, histogram, Map.copyOf(errors));
+    }
+}
@@ -1,7 +1,17 @@
 package com.example;
 
+import javax.management.JMException;
 import javax.swing.*;
-import java.util.concurrent.ExecutorService;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 /**
@@ -14,8 +24,14 @@ import java.util.concurrent.Executors;
  * Teaching points:
  * - Build the UI on the EDT (SwingUtilities.invokeLater).
  * - Keep long-running work off the EDT (use ExecutorServices).
+ * - Cold start: tabs, the XML-RPC client and the send executor are created when first needed (LazyTabs,
+ *   LazyRpcClient, LazyExecutor), so the first frame only waits for what it shows.
  */
 public class Main {
+
+    /** Prefix of the line printed by -Dstartup.report / -Dstartup.exitAfterFirstFrame. */
+    static final String FIRST_FRAME_REPORT = "Time to first frame: ";
+
     public static void main(String[] args) {
         // Ensure UI is created on the EDT
         SwingUtilities.invokeLater(() -> {
@@ -34,21 +50,175 @@ public class Main {
             JFrame frame = new JFrame("UI Demo");
             frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 
-            JTabbedPane tabs = new JTabbedPane();
-            tabs.addTab("Triad", new TriadPanel());
+            Metrics metrics = createMetrics();
+            // Reports (to stderr) any event that blocks the EDT longer than -Dedt.stallMs (default 250)
+            EdtWatchdog.install(Duration.ofMillis(Integer.getInteger("edt.stallMs", 250)), metrics);
+
+            // Tabs are built on first selection, so only the Triad tab is paid for before the first frame
+            LazyTabs tabs = new LazyTabs(new JTabbedPane());
+            // -Dtriad.debounceMs=150 recomputes once typing pauses instead of on every keystroke
+            tabs.addTab("Triad", () -> new TriadPanel(Duration.ofMillis(Integer.getInteger("triad.debounceMs", 0)), metrics));
 
-            // Real XML-RPC client wired to Python server
-            RpcClient xmlRpcClient = new ApacheXmlRpcClient("http://127.0.0.1:7777");
-            ExecutorService background = Executors.newSingleThreadExecutor();
-            tabs.addTab("Send XMLRPC", new SendPanel(xmlRpcClient, background));
+            // Real XML-RPC client wired to Python server; it and its executor are created on the first send
+            RpcClient xmlRpcClient = createRpcClient("http://127.0.0.1:7777", metrics);
+            LazyExecutor background = new LazyExecutor(Main::createSendExecutor);
+            SendOutbox outbox = createOutbox();
+            tabs.addTab("Send XMLRPC", () -> new SendPanel(xmlRpcClient, background, SendPanel.Settings.defaults()
+                    .withOutbox(outbox)
+                    .withMetrics(metrics)
+                    .withQueue(createQueueSettings())
+                    // -Dsend.idempotencyKeys=true tags each send with a UUID the server can dedupe retries on
+                    .withIdempotencyKeys(Boolean.getBoolean("send.idempotencyKeys") ? () -> UUID.randomUUID().toString() : null)));
 
-            frame.setContentPane(tabs);
+            frame.setContentPane(tabs.tabs());
             frame.pack();
             frame.setLocationRelativeTo(null);
+            if (Boolean.getBoolean("startup.report") || Boolean.getBoolean("startup.exitAfterFirstFrame")) {
+                reportFirstFrame(frame, Boolean.getBoolean("startup.exitAfterFirstFrame"));
+            }
             frame.setVisible(true);
 
-            // Optional: add a shutdown hook to cleanly stop the executor
-            Runtime.getRuntime().addShutdownHook(new Thread(background::shutdown));
+            // Sends left in the outbox by an earlier run are replayed by SendPanel; build it right after the first frame
+            if (outbox != null && outbox.depth() > 0) SwingUtilities.invokeLater(() -> tabs.build("Send XMLRPC"));
+
+            // Optional: add a shutdown hook to cleanly stop the executor and release pooled connections
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                Closeables.closeQuietly(background);
+                Closeables.closeQuietly(xmlRpcClient);
+                Closeables.closeQuietly(outbox);
+                Closeables.closeQuietly(metrics);
+            }));
+        });
+    }
+
+    /**
+     * Prints the time from JVM start to the first frame on screen (to stderr) once the frame has opened and
+     * the events queued with it have run. With exit, the JVM then exits: a training run for an AppCDS archive
+     * (see the README) and what StartupBenchmark measures.
+     */
+    private static void reportFirstFrame(JFrame frame, boolean exit) {
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                SwingUtilities.invokeLater(() -> {
+                    long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                    System.err.println(FIRST_FRAME_REPORT + millis + " ms");
+                    if (exit) System.exit(0);
+                });
+            }
         });
     }
+
+    /**
+     * Picks the executor for background sends from -Dsend.executor:
+     * - "single" (default): one platform thread, sends run one after another.
+     * - "virtual": one virtual thread per send, at most -Dsend.maxConcurrency (default 64) at once.
+     */
+    static Executor createSendExecutor() {
+        String mode = System.getProperty("send.executor", "single");
+        return switch (mode) {
+            case "single" -> Executors.newSingleThreadExecutor();
+            case "virtual" -> new VirtualThreadExecutor(Integer.getInteger("send.maxConcurrency", 64));
+            default -> throw new IllegalArgumentException("Unknown send.executor: " + mode);
+        };
+    }
+
+    /**
+     * Bounds on concurrent and waiting sends: -Dsend.maxInFlight (default 16), -Dsend.maxQueued (default 256)
+     * and -Dsend.overflow=reject|drop-oldest|block (default reject) for what happens beyond them.
+     */
+    static SendQueue.Settings createQueueSettings() {
+        SendQueue.Settings defaults = SendQueue.Settings.defaults();
+        String overflow = System.getProperty("send.overflow", "reject");
+        return new SendQueue.Settings(
+                Integer.getInteger("send.maxInFlight", defaults.maxInFlight()),
+                Integer.getInteger("send.maxQueued", defaults.maxQueued()),
+                switch (overflow) {
+                    case "reject" -> SendQueue.Overflow.REJECT;
+                    case "drop-oldest" -> SendQueue.Overflow.DROP_OLDEST;
+                    case "block" -> SendQueue.Overflow.BLOCK;
+                    default -> throw new IllegalArgumentException("Unknown send.overflow: " + overflow);
+                });
+    }
+
+    /**
+     * With -Dsend.outbox=&lt;directory&gt;, sends are persisted there first and replayed after outages/restarts.
+     */
+    static SendOutbox createOutbox() {
+        String directory = System.getProperty("send.outbox");
+        if (directory == null || directory.isBlank()) return null;
+        try {
+            return new SendOutbox(Path.of(directory));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open outbox in " + directory, ex);
+        }
+    }
+
+    /**
+     * Metrics are off (Metrics.NOOP) unless exported:
+     * - -Dmetrics.jmx=true registers them as the MBean com.example:type=Metrics (see JConsole/VisualVM).
+     * - -Dmetrics.dumpSeconds=N prints them to stderr every N seconds.
+     */
+    static Metrics createMetrics() {
+        boolean jmx = Boolean.getBoolean("metrics.jmx");
+        int dumpSeconds = Integer.getInteger("metrics.dumpSeconds", 0);
+        if (!jmx && dumpSeconds <= 0) return Metrics.NOOP;
+        MetricsRegistry registry = new MetricsRegistry();
+        if (jmx) {
+            try {
+                registry.registerJmx("com.example:type=Metrics");
+            } catch (JMException ex) {
+                throw new IllegalStateException("Cannot register metrics MBean", ex);
+            }
+        }
+        if (dumpSeconds > 0) registry.startDumping(Duration.ofSeconds(dumpSeconds), System.err::print);
+        return registry;
+    }
+
+    /**
+     * Picks the RpcClient implementation from -Drpc.client:
+     * - "apache" (default): Apache XML-RPC with pooled keep-alive connections.
+     * - "apache-unpooled": Apache XML-RPC over its default HttpURLConnection transport.
+     * - "http": non-blocking java.net.http client (sends do not occupy the background executor).
+     * - "streaming": hand-rolled encoder/parser over HttpURLConnection, reusing its buffers.
+     * - "binary": BinaryRpcClient, pipelined length-prefixed frames over one socket to -Drpc.binaryAddress
+     *   (host:port, default 127.0.0.1:7778) instead of XML-RPC over HTTP; the server must speak BinaryRpcCodec.
+     * With -Drpc.batch=true a blocking client ("apache", "apache-unpooled", "streaming") is wrapped in
+     * BatchingRpcClient: concurrent sends go out together (system.multicall for Apache), at most -Drpc.batchSize
+     * (default 32) at a time and after at most -Drpc.batchDelayMs (default 2). It needs a multi-threaded
+     * -Dsend.executor to see concurrent sends; "http" and "binary" already overlap calls and are refused.
+     * With -Drpc.resilient=true the client is wrapped in ResilientRpcClient (retries and a circuit breaker;
+     * add -Drpc.hedge=true for hedged requests); "http" and "binary" get its non-blocking view, async().
+     */
+    static RpcClient createRpcClient(String endpointUrl) {
+        return createRpcClient(endpointUrl, Metrics.NOOP);
+    }
+
+    static RpcClient createRpcClient(String endpointUrl, Metrics metrics) {
+        String kind = System.getProperty("rpc.client", "apache");
+        RpcClient client = switch (kind) {
+            // Lazy (also "apache-unpooled" and "binary"): client classes, connections and threads are created on
+            // the first send, not at startup
+            case "apache" -> new LazyRpcClient(
+                    () -> new ApacheXmlRpcClient(endpointUrl, ApacheXmlRpcClient.PoolSettings.defaults(), metrics));
+            case "apache-unpooled" -> new LazyRpcClient(() -> new ApacheXmlRpcClient(endpointUrl, metrics));
+            case "http" -> new HttpXmlRpcClient(endpointUrl);
+            case "streaming" -> new StreamingXmlRpcClient(endpointUrl);
+            case "binary" -> new LazyRpcClient.Async(
+                    () -> new BinaryRpcClient(System.getProperty("rpc.binaryAddress", "127.0.0.1:7778")));
+            default -> throw new IllegalArgumentException("Unknown rpc.client: " + kind);
+        };
+        if (Boolean.getBoolean("rpc.batch")) {
+            if (client instanceof AsyncRpcClient) {
+                throw new IllegalArgumentException("rpc.batch needs a blocking rpc.client, not " + kind);
+            }
+            client = new BatchingRpcClient(client, Integer.getInteger("rpc.batchSize", 32),
+                    Duration.ofMillis(Integer.getInteger("rpc.batchDelayMs", 2)));
+        }
+        if (!Boolean.getBoolean("rpc.resilient")) return client;
+        ResilientRpcClient.Settings settings = ResilientRpcClient.Settings.defaults().withHedging(Boolean.getBoolean("rpc.hedge"));
+        ResilientRpcClient resilient = new ResilientRpcClient(client, Clock.systemUTC(), settings);
+        // Keep the non-blocking clients non-blocking: SendPresenter only skips the executor for an AsyncRpcClient
+        return client instanceof AsyncRpcClient ? resilient.async() : resilient;
+    }
 }
\ No newline at end of file
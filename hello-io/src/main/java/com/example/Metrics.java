@@ -0,0 +1,55 @@
+package com.example;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal metrics SPI: counters, timers and gauges, with no dependency on a metrics library.
+ * - Components look up their Counter/Timer handles once (constructor) and call them on the hot path.
+ * - NOOP is the default everywhere: its handles are stateless singletons and Timer.start() does not even
+ *   read the clock, so instrumented code costs a few nanoseconds per event when metrics are off.
+ * - MetricsRegistry is the real implementation (lock-free, with JMX and text export).
+ *
+ * Teaching points:
+ * - Time with the start()/stop(token) pair rather than calling System.nanoTime() yourself, so the
+ *   disabled path skips the clock read.
+ */
+public interface Metrics {
+
+    /** A summed value. add may be negative for up-down values such as in-flight counts. */
+    interface Counter {
+        void increment();
+        void add(long delta);
+    }
+
+    /** Records durations into a histogram. */
+    interface Timer {
+        /** Returns a token to pass to stop (System.nanoTime() when enabled, 0 when not). */
+        long start();
+        /** Records the time since start returned startToken. */
+        void stop(long startToken);
+        void recordNanos(long nanos);
+    }
+
+    Counter counter(String name);
+
+    Timer timer(String name);
+
+    /** Registers a value that is read only when metrics are exported. */
+    void gauge(String name, LongSupplier value);
+
+    Metrics NOOP = new Metrics() {
+        private final Counter counter = new Counter() {
+            @Override public void increment() {}
+            @Override public void add(long delta) {}
+        };
+        private final Timer timer = new Timer() {
+            @Override public long start() { return 0; }
+            @Override public void stop(long startToken) {}
+            @Override public void recordNanos(long nanos) {}
+        };
+
+        @Override public Counter counter(String name) { return counter; }
+        @Override public Timer timer(String name) { return timer; }
+        @Override public void gauge(String name, LongSupplier value) {}
+    };
+}
@@ -0,0 +1,194 @@
+package com.example;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process Metrics implementation.
+ * Responsibilities:
+ * - Counters on LongAdder, timers on LatencyHistogram (nanoseconds), gauges read on export; all lock-free to record.
+ * - snapshot(): every metric as a flat name -> long map (timers expand to .count/.p50Micros/.p99Micros/...).
+ * - Export the snapshot as JMX attributes (registerJmx) and/or as a periodic text dump (startDumping).
+ *
+ * Teaching points:
+ * - Handles are created on first lookup and then shared, so callers should keep them in fields.
+ * - Timers are cumulative since start: good for "what is the tail", not for per-interval rates.
+ */
+public final class MetricsRegistry implements Metrics, AutoCloseable {
+
+    private static final class AdderCounter implements Counter {
+        final LongAdder sum = new LongAdder();
+        @Override public void increment() { sum.increment(); }
+        @Override public void add(long delta) { sum.add(delta); }
+    }
+
+    private static final class HistogramTimer implements Timer {
+        final LatencyHistogram nanos = new LatencyHistogram();
+        @Override public long start() { return System.nanoTime(); }
+        @Override public void stop(long startToken) { nanos.record(Math.max(0, System.nanoTime() - startToken)); }
+        @Override public void recordNanos(long value) { nanos.record(Math.max(0, value)); }
+    }
+
+    private final Map<String, AdderCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, HistogramTimer> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private final Object exportLock = new Object();
+    private ScheduledExecutorService dumper;
+    private ObjectName jmxName;
+
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new AdderCounter());
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new HistogramTimer());
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /** Current values sorted by name; timer values are in microseconds. */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((name, c) -> out.put(name, c.sum.sum()));
+        gauges.forEach((name, g) -> out.put(name, g.getAsLong()));
+        timers.forEach((name, t) -> {
+            LatencyHistogram h = t.nanos;
+            out.put(name + ".count", h.count());
+            out.put(name + ".p50Micros", h.valueAtPercentile(50) / 1_000);
+            out.put(name + ".p99Micros", h.valueAtPercentile(99) / 1_000);
+            out.put(name + ".p999Micros", h.valueAtPercentile(99.9) / 1_000);
+            out.put(name + ".maxMicros", h.max() / 1_000);
+        });
+        return out;
+    }
+
+    /** One line per counter/gauge and one per timer. */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, c) -> sb.append(name).append(' ').append(c.sum.sum()).append('\n'));
+        new TreeMap<>(gauges).forEach((name, g) -> sb.append(name).append(' ').append(g.getAsLong()).append('\n'));
+        new TreeMap<>(timers).forEach((name, t) -> {
+            LatencyHistogram h = t.nanos;
+            sb.append(String.format("%s count=%d p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms%n", name, h.count(),
+                    h.valueAtPercentile(50) / 1e6, h.valueAtPercentile(99) / 1e6,
+                    h.valueAtPercentile(99.9) / 1e6, h.max() / 1e6));
+        });
+        return sb.toString();
+    }
+
+    /** Passes dump() to out every interval on a daemon thread, until close(). */
+    public void startDumping(Duration interval, Consumer<String> out) {
+        synchronized (exportLock) {
+            if (dumper != null) throw new IllegalStateException("Already dumping");
+            dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            long millis = interval.toMillis();
+            dumper.scheduleAtFixedRate(() -> out.accept(dump()), millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Exposes snapshot() as read-only attributes of one MBean on the platform MBean server. */
+    public ObjectName registerJmx(String objectName) throws JMException {
+        synchronized (exportLock) {
+            if (jmxName != null) throw new IllegalStateException("Already registered as " + jmxName);
+            ObjectName name = new ObjectName(objectName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new JmxView(), name);
+            jmxName = name;
+            return name;
+        }
+    }
+
+    /** Stops the dump and unregisters the MBean; recorded values stay readable. */
+    @Override
+    public void close() {
+        synchronized (exportLock) {
+            if (dumper != null) dumper.shutdownNow();
+            dumper = null;
+            if (jmxName != null) {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                try {
+                    server.unregisterMBean(jmxName);
+                } catch (JMException ignored) {
+                    // Already gone
+                }
+                jmxName = null;
+            }
+        }
+    }
+
+    // Attributes are whatever snapshot() holds right now, so metrics created later show up too
+    private final class JmxView implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Long value = snapshot().get(attribute);
+            if (value == null) throw new AttributeNotFoundException(attribute);
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Long> snapshot = snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Long value = snapshot.get(attribute);
+                if (value != null) list.add(new Attribute(attribute, value));
+            }
+            return list;
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String name : snapshot().keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+            }
+            return new MBeanInfo(MetricsRegistry.class.getName(), "hello-io metrics",
+                    attributes.toArray(MBeanAttributeInfo[]::new), null, null, null);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName), "Metrics have no operations");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes the XML-RPC methodCall for receive(payload) straight into a reusable byte array.
+ * - Everything except the payload values is a pre-encoded constant (method name, member names, tags).
+ * - Strings take an ASCII fast path; ints are written digit by digit; nothing is allocated per call
+ *   once the buffer has grown to fit the largest payload.
+ * - Payloads with other keys or value types fall back to XmlRpcCodec.
+ *
+ * Not thread-safe: each thread (or pooled borrower) needs its own instance.
+ */
+final class ReceiveCallEncoder {
+
+    private static final byte[] CALL_START = ascii(
+            "<?xml version=\"1.0\"?><methodCall><methodName>receive</methodName><params><param><value><struct>");
+    private static final byte[] CALL_END = ascii("</struct></value></param></params></methodCall>");
+    private static final byte[] USER_ID_MEMBER = ascii("<member><name>userId</name><value><string>");
+    private static final byte[] AMOUNT_MEMBER = ascii("<member><name>amount</name><value><int>");
+    private static final byte[] CURRENCY_MEMBER = ascii("<member><name>currency</name><value><string>");
+    private static final byte[] STRING_MEMBER_END = ascii("</string></value></member>");
+    private static final byte[] INT_MEMBER_END = ascii("</int></value></member>");
+    private static final byte[] LT = ascii("&lt;");
+    private static final byte[] GT = ascii("&gt;");
+    private static final byte[] AMP = ascii("&amp;");
+    private static final byte[] MIN_INT = ascii(String.valueOf(Integer.MIN_VALUE));
+
+    private byte[] buf;
+    private int length;
+
+    ReceiveCallEncoder() {
+        this(512);
+    }
+
+    ReceiveCallEncoder(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    /** Encodes receive(payload); returns the number of bytes written to buffer(). */
+    int encode(Map<String, Object> payload) {
+        if (payload.size() == 3
+                && payload.get("userId") instanceof String userId
+                && payload.get("amount") instanceof Integer amount
+                && payload.get("currency") instanceof String currency) {
+            return encode(userId, amount, currency);
+        }
+        byte[] generic = XmlRpcCodec.encodeCall("receive", payload);
+        length = 0;
+        write(generic);
+        return length;
+    }
+
+    /** Encodes receive({userId, amount, currency}); returns the number of bytes written to buffer(). */
+    int encode(String userId, int amount, String currency) {
+        length = 0;
+        write(CALL_START);
+        write(USER_ID_MEMBER);
+        writeEscaped(userId);
+        write(STRING_MEMBER_END);
+        write(AMOUNT_MEMBER);
+        writeInt(amount);
+        write(INT_MEMBER_END);
+        write(CURRENCY_MEMBER);
+        writeEscaped(currency);
+        write(STRING_MEMBER_END);
+        write(CALL_END);
+        return length;
+    }
+
+    /** Backing array; only the first length() bytes belong to the last encoded call. */
+    byte[] buffer() {
+        return buf;
+    }
+
+    int length() {
+        return length;
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeInt(int v) {
+        if (v == Integer.MIN_VALUE) {
+            write(MIN_INT);
+            return;
+        }
+        ensureCapacity(11);
+        if (v < 0) {
+            buf[length++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (int x = v; x >= 10; x /= 10) digits++;
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            buf[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        length = end;
+    }
+
+    private void writeEscaped(String s) {
+        int n = s.length();
+        // Worst case per char: 3 UTF-8 bytes, or 5 for "&amp;"
+        ensureCapacity(n * 5);
+        for (int i = 0; i < n; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80) {
+                switch (ch) {
+                    case '<' -> writeUnchecked(LT);
+                    case '>' -> writeUnchecked(GT);
+                    case '&' -> writeUnchecked(AMP);
+                    default -> buf[length++] = (byte) ch;
+                }
+            } else if (ch < 0x800) {
+                buf[length++] = (byte) (0xC0 | (ch >> 6));
+                buf[length++] = (byte) (0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(ch, s.charAt(++i));
+                buf[length++] = (byte) (0xF0 | (cp >> 18));
+                buf[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[length++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                buf[length++] = '?'; // unpaired surrogate, same as String.getBytes(UTF_8)
+            } else {
+                buf[length++] = (byte) (0xE0 | (ch >> 12));
+                buf[length++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                buf[length++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+    }
+
+    private void writeUnchecked(byte[] bytes) {
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buf.length) {
+            byte[] bigger = new byte[Math.max(buf.length * 2, length + extra)];
+            System.arraycopy(buf, 0, bigger, 0, length);
+            buf = bigger;
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,395 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * RpcClient decorator that retries, hedges and fails fast.
+ * Responsibilities:
+ * - Retry transport failures with exponential backoff and full jitter (sleep a random time in [0, backoff]).
+ * - Optionally hedge: if an attempt is slower than the recent p95 latency, start a second one and take
+ *   whichever succeeds first.
+ * - Circuit breaker: after failureThreshold consecutive failed attempts, calls fail immediately with
+ *   CircuitOpenException for openDuration; then one trial call decides whether to close it again.
+ * - async() gives an AsyncRpcClient delegate the same treatment without blocking: retries wait on the
+ *   scheduler instead of sleeping, so HttpXmlRpcClient and BinaryRpcClient stay non-blocking.
+ *
+ * Teaching points:
+ * - Time comes from the injected Clock; waiting from the injected Sleeper (blocking retries) and Scheduler
+ *   (hedge trigger, hedge timeout, non-blocking retries), so tests control all three.
+ * - A Result.error is an answer from a healthy server: it is returned as-is, not retried, and counts as success
+ *   for the breaker. Server faults are not retried either; only transport errors are.
+ * - Retries and hedges can deliver a payload twice; the server must tolerate that (see the outbox ids).
+ */
+public final class ResilientRpcClient implements RpcClient, AutoCloseable {
+
+    /**
+     * maxAttempts includes the first try. hedgeAfterMin is the hedge delay until enough latencies are known,
+     * and the lower bound afterwards. failureThreshold 0 disables the breaker.
+     */
+    public record Settings(int maxAttempts, Duration baseBackoff, Duration maxBackoff,
+                           boolean hedging, Duration hedgeAfterMin,
+                           int failureThreshold, Duration openDuration) {
+        public Settings {
+            if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+            if (baseBackoff.isNegative() || maxBackoff.compareTo(baseBackoff) < 0) {
+                throw new IllegalArgumentException("need 0 <= baseBackoff <= maxBackoff");
+            }
+            if (hedgeAfterMin.isNegative()) throw new IllegalArgumentException("hedgeAfterMin must be >= 0");
+            if (failureThreshold < 0) throw new IllegalArgumentException("failureThreshold must be >= 0");
+            if (openDuration.isNegative()) throw new IllegalArgumentException("openDuration must be >= 0");
+        }
+
+        /** 3 attempts from 100 ms backoff (max 2 s), no hedging, open for 10 s after 5 failures. */
+        public static Settings defaults() {
+            return new Settings(3, Duration.ofMillis(100), Duration.ofSeconds(2),
+                    false, Duration.ofMillis(200), 5, Duration.ofSeconds(10));
+        }
+
+        public Settings withHedging(boolean enabled) {
+            return new Settings(maxAttempts, baseBackoff, maxBackoff, enabled, hedgeAfterMin, failureThreshold, openDuration);
+        }
+    }
+
+    public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    /** Thrown without contacting the server while the circuit is open. */
+    public static final class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleep(Duration duration) throws InterruptedException;
+    }
+
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_SAMPLES_FOR_P95 = 20;
+    // A hedged call gives up this long after its hedge was due; past the clients' own 5 s reply timeouts
+    private static final Duration HEDGE_GIVE_UP = Duration.ofSeconds(10);
+
+    // ThreadLocalRandom.current() must be called on the thread that uses it, so look it up per call
+    private static final RandomGenerator PER_THREAD_RANDOM = () -> ThreadLocalRandom.current().nextLong();
+
+    private static final Debouncer.Scheduler DELAYED = (delay, task) -> {
+        CompletableFuture<Void> run = CompletableFuture.runAsync(task,
+                CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS));
+        return () -> run.cancel(false);
+    };
+
+    private final RpcClient delegate;
+    private final Clock clock;
+    private final Settings settings;
+    private final Sleeper sleeper;
+    private final RandomGenerator random;
+    private final Debouncer.Scheduler scheduler;
+    private final ExecutorService hedgeThreads; // null unless hedging
+
+    private final Object lock = new Object();
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilMillis;
+    private boolean trialInFlight;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+
+    public ResilientRpcClient(RpcClient delegate, Clock clock, Settings settings) {
+        this(delegate, clock, settings, d -> Thread.sleep(d.toMillis()), PER_THREAD_RANDOM);
+    }
+
+    public ResilientRpcClient(RpcClient delegate, Clock clock, Settings settings, Sleeper sleeper, RandomGenerator random) {
+        this(delegate, clock, settings, sleeper, random, DELAYED);
+    }
+
+    /** scheduler runs hedges, hedge timeouts and the retries of async(); random must be safe to share between threads. */
+    public ResilientRpcClient(RpcClient delegate, Clock clock, Settings settings, Sleeper sleeper, RandomGenerator random,
+                              Debouncer.Scheduler scheduler) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.clock = Objects.requireNonNull(clock);
+        this.settings = Objects.requireNonNull(settings);
+        this.sleeper = Objects.requireNonNull(sleeper);
+        this.random = Objects.requireNonNull(random);
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.hedgeThreads = settings.hedging()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rpc-hedge-", 0).factory())
+                : null;
+    }
+
+    @Override
+    public Result sendValues(Map<String, Object> payload) throws Exception {
+        return execute(() -> delegate.sendValues(payload), settings.hedging());
+    }
+
+    /** The whole batch is retried as one unit and is never hedged. */
+    @Override
+    public List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+        return execute(() -> delegate.sendBatch(payloads), false);
+    }
+
+    public CircuitState circuitState() {
+        synchronized (lock) {
+            return state == CircuitState.OPEN && clock.millis() >= openUntilMillis ? CircuitState.HALF_OPEN : state;
+        }
+    }
+
+    /**
+     * Non-blocking view for an AsyncRpcClient delegate, sharing this client's settings, breaker and latency
+     * samples. Closing the view closes this client.
+     */
+    public AsyncRpcClient async() {
+        if (!(delegate instanceof AsyncRpcClient async)) {
+            throw new IllegalStateException(delegate.getClass().getSimpleName() + " is not an AsyncRpcClient");
+        }
+        return new AsyncView(async);
+    }
+
+    @Override
+    public void close() {
+        if (hedgeThreads != null) hedgeThreads.shutdownNow();
+        Closeables.close(delegate);
+    }
+
+    private final class AsyncView implements AsyncRpcClient, AutoCloseable {
+        private final AsyncRpcClient async;
+
+        AsyncView(AsyncRpcClient async) {
+            this.async = async;
+        }
+
+        @Override
+        public CompletableFuture<Result> sendValuesAsync(Map<String, Object> payload) {
+            return executeAsync(payload, 1);
+        }
+
+        /** Blocking, like the outer client: the batch is retried as one unit and never hedged. */
+        @Override
+        public List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+            return ResilientRpcClient.this.sendBatch(payloads);
+        }
+
+        @Override
+        public void close() {
+            ResilientRpcClient.this.close();
+        }
+
+        private CompletableFuture<Result> executeAsync(Map<String, Object> payload, int attempt) {
+            try {
+                acquirePermit();
+            } catch (CircuitOpenException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+            Supplier<CompletableFuture<Result>> call = () -> timedAsync(payload);
+            CompletableFuture<Result> outcome = settings.hedging() ? hedged(call) : call.get();
+            return outcome.handle((result, error) -> {
+                if (error == null) {
+                    onSuccess();
+                    return CompletableFuture.completedFuture(result);
+                }
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof Exception ex) || !isRetryable(ex)) {
+                    onSuccess(); // the server answered
+                    return CompletableFuture.<Result>failedFuture(cause);
+                }
+                onFailure();
+                if (attempt >= settings.maxAttempts()) return CompletableFuture.<Result>failedFuture(cause);
+                CompletableFuture<Result> retry = new CompletableFuture<>();
+                scheduler.schedule(backoff(attempt), () -> executeAsync(payload, attempt + 1).whenComplete((r, e) -> {
+                    if (e == null) retry.complete(r);
+                    else retry.completeExceptionally(unwrap(e));
+                }));
+                return retry;
+            }).thenCompose(Function.identity());
+        }
+
+        private CompletableFuture<Result> timedAsync(Map<String, Object> payload) {
+            long start = clock.millis();
+            CompletableFuture<Result> call;
+            try {
+                call = async.sendValuesAsync(payload);
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+            return call.whenComplete((result, error) -> {
+                if (error == null) recordLatency(clock.millis() - start);
+            });
+        }
+    }
+
+    private <T> T execute(Callable<T> call, boolean hedge) throws Exception {
+        Exception last = null;
+        for (int attempt = 1; attempt <= settings.maxAttempts(); attempt++) {
+            if (attempt > 1) sleeper.sleep(backoff(attempt - 1));
+            acquirePermit();
+            try {
+                T result = hedge ? hedged(call) : timed(call);
+                onSuccess();
+                return result;
+            } catch (InterruptedException ex) {
+                releaseTrial();
+                throw ex;
+            } catch (Exception ex) {
+                if (!isRetryable(ex)) {
+                    onSuccess(); // the server answered
+                    throw ex;
+                }
+                onFailure();
+                last = ex;
+            }
+        }
+        throw last;
+    }
+
+    // Full jitter: uniformly random in [0, min(maxBackoff, baseBackoff * 2^(retry-1))]
+    Duration backoff(int retry) {
+        long base = settings.baseBackoff().toMillis();
+        long cap = settings.maxBackoff().toMillis();
+        int shift = retry - 1;
+        long exp = shift < Long.numberOfLeadingZeros(base) - 1 ? Math.min(cap, base << shift) : cap;
+        return Duration.ofMillis(exp == 0 ? 0 : random.nextLong(exp + 1));
+    }
+
+    private <T> T timed(Callable<T> call) throws Exception {
+        long start = clock.millis();
+        T result = call.call();
+        recordLatency(clock.millis() - start);
+        return result;
+    }
+
+    private <T> T hedged(Callable<T> call) throws Exception {
+        Supplier<CompletableFuture<T>> attempt = () -> {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            hedgeThreads.execute(() -> {
+                try {
+                    result.complete(timed(call));
+                } catch (Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+            return result;
+        };
+        try {
+            return hedged(attempt).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) throw cause;
+            throw ex;
+        }
+    }
+
+    // Starts one attempt, and a second one if the scheduler fires the hedge before the first has answered;
+    // the first success wins, and the call fails once every attempt started has failed (or HEDGE_GIVE_UP passed).
+    private <T> CompletableFuture<T> hedged(Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger(1);
+        AtomicInteger failed = new AtomicInteger();
+        BiConsumer<T, Throwable> outcome = (result, error) -> {
+            if (error == null) winner.complete(result);
+            else if (failed.incrementAndGet() >= started.get()) winner.completeExceptionally(unwrap(error));
+        };
+        attempt.get().whenComplete(outcome);
+
+        Duration delay = Duration.ofMillis(hedgeDelayMillis());
+        Debouncer.Cancellable hedge = scheduler.schedule(delay, () -> {
+            if (winner.isDone()) return;
+            started.incrementAndGet();
+            attempt.get().whenComplete(outcome);
+        });
+        Debouncer.Cancellable giveUp = scheduler.schedule(delay.plus(HEDGE_GIVE_UP), () -> winner.completeExceptionally(
+                new SocketTimeoutException("No answer within " + delay.plus(HEDGE_GIVE_UP).toMillis() + " ms")));
+        winner.whenComplete((result, error) -> {
+            hedge.cancel();
+            giveUp.cancel();
+        });
+        return winner;
+    }
+
+    long hedgeDelayMillis() {
+        long min = settings.hedgeAfterMin().toMillis();
+        long[] sorted;
+        synchronized (lock) {
+            if (latencyCount < MIN_SAMPLES_FOR_P95) return min;
+            sorted = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_SAMPLES));
+        }
+        Arrays.sort(sorted);
+        long p95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+        return Math.max(min, p95);
+    }
+
+    private void recordLatency(long millis) {
+        synchronized (lock) {
+            latencies[latencyCount % LATENCY_SAMPLES] = millis;
+            latencyCount++;
+        }
+    }
+
+    private void acquirePermit() throws CircuitOpenException {
+        if (settings.failureThreshold() == 0) return;
+        synchronized (lock) {
+            if (state == CircuitState.CLOSED) return;
+            if (state == CircuitState.OPEN && clock.millis() >= openUntilMillis) state = CircuitState.HALF_OPEN;
+            if (state == CircuitState.HALF_OPEN && !trialInFlight) {
+                trialInFlight = true;
+                return;
+            }
+            throw new CircuitOpenException("Circuit open: server unavailable, not retrying until "
+                    + Duration.ofMillis(Math.max(0, openUntilMillis - clock.millis())).toMillis() + " ms from now");
+        }
+    }
+
+    private void onSuccess() {
+        synchronized (lock) {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            state = CircuitState.CLOSED;
+        }
+    }
+
+    private void releaseTrial() {
+        synchronized (lock) {
+            trialInFlight = false;
+        }
+    }
+
+    private void onFailure() {
+        if (settings.failureThreshold() == 0) return;
+        synchronized (lock) {
+            trialInFlight = false;
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN || consecutiveFailures >= settings.failureThreshold()) {
+                state = CircuitState.OPEN;
+                openUntilMillis = clock.millis() + settings.openDuration().toMillis();
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // Server faults (XML-RPC fault responses) mean the server is up and said no; retrying cannot help.
+    private static boolean isRetryable(Exception ex) {
+        return !(ex instanceof CircuitOpenException) && !XmlRpcCodec.isServerFault(ex);
+    }
+}
@@ -1,11 +1,44 @@
 package com.example;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface RpcClient {
 
     Result sendValues(Map<String, Object> payload) throws Exception;
 
+    /**
+     * Sends several payloads; the i-th result belongs to the i-th payload.
+     * Default: one sendValues call per payload (the first exception aborts the batch).
+     * Implementations may override this with a single round trip (e.g. XML-RPC system.multicall).
+     */
+    default List<Result> sendBatch(List<Map<String, Object>> payloads) throws Exception {
+        List<Result> results = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            results.add(sendValues(payload));
+        }
+        return results;
+    }
+
+    /**
+     * As sendBatch, but each payload gets its own outcome: its Result, or the exception a sendValues call
+     * for it would have thrown (e.g. the fault of one system.multicall entry). The futures may still be
+     * pending when this returns.
+     * Default: sendBatch, with its exception (if any) failing every payload.
+     */
+    default List<CompletableFuture<Result>> sendEach(List<Map<String, Object>> payloads) {
+        List<CompletableFuture<Result>> outcomes = new ArrayList<>(payloads.size());
+        try {
+            for (Result result : sendBatch(payloads)) outcomes.add(CompletableFuture.completedFuture(result));
+        } catch (Exception ex) {
+            outcomes.clear();
+            for (int i = 0; i < payloads.size(); i++) outcomes.add(CompletableFuture.failedFuture(ex));
+        }
+        return outcomes;
+    }
+
     record Result(boolean success, String message) {
         public static Result ok(String message) { return new Result(true, message); }
         public static Result error(String message) { return new Result(false, message); }
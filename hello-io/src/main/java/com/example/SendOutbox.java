@@ -0,0 +1,339 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable write-ahead outbox for send payloads.
+ * Responsibilities:
+ * - append(payload) writes a record to a memory-mapped segment file before the payload is sent.
+ * - ack(id) marks the record done in place; segments whose records are all acked are deleted.
+ * - On open, unacked records from earlier runs are loaded so they can be replayed (pending()).
+ *
+ * Record layout: [int bodyLength][int crc32(body)][byte state][long id][body]; a zero length ends a segment.
+ * The length is written last, and the CRC lets a torn record at the tail be ignored after a crash.
+ *
+ * Teaching points:
+ * - No file is opened per record: segments are mapped once and rolled when full.
+ * - Group commit: a background task forces dirty segments every syncInterval instead of fsync per record,
+ *   so a crash can lose at most the last interval of appends.
+ */
+public final class SendOutbox implements AutoCloseable {
+
+    /** An unacknowledged payload. */
+    public record Entry(long id, Map<String, Object> payload) {}
+
+    private static final int HEADER_BYTES = 4 + 4 + 1 + 8;
+    private static final int STATE_OFFSET = 8;
+    private static final byte PENDING = 0;
+    private static final byte ACKED = 1;
+    private static final String PREFIX = "outbox-";
+    private static final String SUFFIX = ".log";
+
+    private static final class Segment {
+        final long seq;
+        final Path path;
+        final MappedByteBuffer buf;
+        int pending;
+
+        Segment(long seq, Path path, MappedByteBuffer buf) {
+            this.seq = seq;
+            this.path = path;
+            this.buf = buf;
+        }
+    }
+
+    private record Location(Segment segment, int offset, Map<String, Object> payload) {}
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ScheduledExecutorService syncer;
+    private final CRC32 crc = new CRC32();
+
+    private final Object lock = new Object();
+    private final TreeMap<Long, Location> pendingById = new TreeMap<>();
+    private final Set<Segment> dirty = new HashSet<>();
+    private Segment active;
+    private long nextId;
+    private boolean closed = false;
+    private volatile IntConsumer depthListener = depth -> {};
+
+    public SendOutbox(Path directory) throws IOException {
+        this(directory, 1 << 20, Duration.ofMillis(50));
+    }
+
+    public SendOutbox(Path directory, int segmentBytes, Duration syncInterval) throws IOException {
+        if (segmentBytes < 4096) throw new IllegalArgumentException("segmentBytes must be >= 4096");
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+
+        long lastSeq = recover();
+        this.active = openSegment(lastSeq + 1);
+
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalNanos = syncInterval.toNanos();
+        syncer.scheduleWithFixedDelay(this::sync, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Receives the number of pending entries after every append and ack (on the calling thread). */
+    public void setDepthListener(IntConsumer listener) {
+        this.depthListener = listener != null ? listener : depth -> {};
+    }
+
+    /** Appends the payload and returns its id; durable after the next sync. */
+    public long append(Map<String, Object> payload) throws IOException {
+        byte[] body = encode(payload);
+        if (body.length + HEADER_BYTES + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Payload too large for outbox segment: " + body.length + " bytes");
+        }
+        long id;
+        int depth;
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Outbox is closed");
+            // Keep 4 spare bytes so a zero length always terminates the segment
+            if (active.buf.position() + HEADER_BYTES + body.length + 4 > segmentBytes) roll();
+
+            id = nextId++;
+            int offset = active.buf.position();
+            crc.reset();
+            crc.update(body);
+            active.buf.putInt(offset + 4, (int) crc.getValue());
+            active.buf.put(offset + STATE_OFFSET, PENDING);
+            active.buf.putLong(offset + STATE_OFFSET + 1, id);
+            active.buf.put(offset + HEADER_BYTES, body);
+            active.buf.putInt(offset, body.length); // commit marker last
+            active.buf.position(offset + HEADER_BYTES + body.length);
+
+            active.pending++;
+            dirty.add(active);
+            pendingById.put(id, new Location(active, offset, payload));
+            depth = pendingById.size();
+        }
+        depthListener.accept(depth);
+        return id;
+    }
+
+    /** Marks the entry as delivered. Returns false if it was unknown or already acked. */
+    public boolean ack(long id) {
+        int depth;
+        synchronized (lock) {
+            Location location = pendingById.remove(id);
+            if (location == null) return false;
+            Segment segment = location.segment();
+            segment.buf.put(location.offset() + STATE_OFFSET, ACKED);
+            segment.pending--;
+            if (segment.pending == 0 && segment != active) {
+                dirty.remove(segment);
+                deleteQuietly(segment.path);
+            } else {
+                dirty.add(segment);
+            }
+            depth = pendingById.size();
+        }
+        depthListener.accept(depth);
+        return true;
+    }
+
+    /** Unacknowledged entries in append order. */
+    public List<Entry> pending() {
+        synchronized (lock) {
+            List<Entry> entries = new ArrayList<>(pendingById.size());
+            pendingById.forEach((id, location) -> entries.add(new Entry(id, location.payload())));
+            return entries;
+        }
+    }
+
+    public int depth() {
+        synchronized (lock) {
+            return pendingById.size();
+        }
+    }
+
+    /** Forces every segment written since the last sync to disk. */
+    public void sync() {
+        List<Segment> toForce;
+        synchronized (lock) {
+            if (dirty.isEmpty()) return;
+            toForce = new ArrayList<>(dirty);
+            dirty.clear();
+        }
+        for (Segment segment : toForce) segment.buf.force();
+    }
+
+    /** Stops the background sync after a final one. Pending records stay on disk for the next run. */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+        }
+        syncer.shutdown();
+        sync();
+    }
+
+    // Must hold lock
+    private void roll() throws IOException {
+        Segment full = active;
+        full.buf.force();
+        dirty.remove(full);
+        active = openSegment(full.seq + 1);
+        if (full.pending == 0) deleteQuietly(full.path);
+    }
+
+    private Segment openSegment(long seq) throws IOException {
+        Path path = directory.resolve(String.format("%s%010d%s", PREFIX, seq, SUFFIX));
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(seq, path, ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+    }
+
+    // Loads pending records from existing segments; returns the highest segment number seen.
+    private long recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+        long lastSeq = 0;
+        for (Path path : files) {
+            String name = path.getFileName().toString();
+            long seq = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            lastSeq = Math.max(lastSeq, seq);
+
+            Segment segment;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(seq, path, ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size()));
+            }
+            scan(segment);
+            if (segment.pending == 0) deleteQuietly(path);
+        }
+        return lastSeq;
+    }
+
+    private void scan(Segment segment) {
+        ByteBuffer buf = segment.buf;
+        int offset = 0;
+        while (offset + HEADER_BYTES + 4 <= buf.capacity()) {
+            int length = buf.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > buf.capacity()) break;
+
+            byte[] body = new byte[length];
+            buf.get(offset + HEADER_BYTES, body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != buf.getInt(offset + 4)) break; // torn tail
+
+            long id = buf.getLong(offset + STATE_OFFSET + 1);
+            nextId = Math.max(nextId, id + 1);
+            if (buf.get(offset + STATE_OFFSET) == PENDING) {
+                segment.pending++;
+                pendingById.put(id, new Location(segment, offset, decode(body)));
+            }
+            offset += HEADER_BYTES + length;
+        }
+    }
+
+    // Only fully acked segments are deleted, so a failure loses nothing: the file holds no pending record
+    // and the next recover() tries again. It must not turn an ack or an append into a failure.
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            System.err.println("SendOutbox: could not delete " + path + ": " + ex);
+        }
+    }
+
+    // Body: [short entries] then per entry [short keyLen][key UTF-8][byte type][value]
+    static byte[] encode(Map<String, Object> payload) {
+        int size = 2;
+        List<byte[]> keys = new ArrayList<>(payload.size());
+        List<byte[]> strings = new ArrayList<>(payload.size());
+        for (Map.Entry<String, Object> e : payload.entrySet()) {
+            byte[] key = e.getKey().getBytes(StandardCharsets.UTF_8);
+            keys.add(key);
+            size += 2 + key.length + 1;
+            Object v = e.getValue();
+            if (v instanceof String s) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                size += 4 + bytes.length;
+            } else {
+                strings.add(null);
+                if (v instanceof Integer) size += 4;
+                else if (v instanceof Long || v instanceof Double) size += 8;
+                else if (v instanceof Boolean) size += 1;
+                else throw new IllegalArgumentException("Unsupported outbox value: " + v);
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putShort((short) payload.size());
+        int i = 0;
+        for (Map.Entry<String, Object> e : payload.entrySet()) {
+            Object v = e.getValue();
+            byte[] key = keys.get(i);
+            out.putShort((short) key.length).put(key);
+            switch (v) {
+                case String ignored -> out.put((byte) 'S').putInt(strings.get(i).length).put(strings.get(i));
+                case Integer n -> out.put((byte) 'I').putInt(n);
+                case Long n -> out.put((byte) 'J').putLong(n);
+                case Double d -> out.put((byte) 'D').putDouble(d);
+                case Boolean b -> out.put((byte) 'Z').put((byte) (b ? 1 : 0));
+                default -> throw new IllegalArgumentException("Unsupported outbox value: " + v);
+            }
+            i++;
+        }
+        return out.array();
+    }
+
+    static Map<String, Object> decode(byte[] body) {
+        ByteBuffer in = ByteBuffer.wrap(body);
+        int count = in.getShort();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[in.getShort()];
+            in.get(key);
+            Object value = switch (in.get()) {
+                case 'S' -> {
+                    byte[] s = new byte[in.getInt()];
+                    in.get(s);
+                    yield new String(s, StandardCharsets.UTF_8);
+                }
+                case 'I' -> in.getInt();
+                case 'J' -> in.getLong();
+                case 'D' -> in.getDouble();
+                case 'Z' -> in.get() != 0;
+                default -> throw new IllegalArgumentException("Corrupt outbox record");
+            };
+            payload.put(new String(key, StandardCharsets.UTF_8), value);
+        }
+        return payload;
+    }
+}
@@ -2,37 +2,111 @@ package com.example;
 
 import javax.swing.*;
 import java.awt.*;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * SendPanel: Thin Swing view for submitting form data via SendPresenter.
  * Responsibilities:
  * - Build simple form controls and forward user actions to the Presenter.
  * - Reflect Presenter state (idle/sending/success/error) in the UI.
+ * - When sends go through a SendOutbox, show how many are still queued and retry them periodically.
+ * - "Import CSV..." streams a file through a BulkImporter on its own thread and shows its progress. Rows use
+ *   the panel's client, executor, queue settings and idempotency keys, but not its outbox (the button's
+ *   tooltip says so).
  *
  * Teaching points:
  * - UI elements have stable names to enable robot/UI tests.
  * - Business logic lives in SendPresenter; this class remains mostly glue.
+ * - Import progress is polled by a Swing Timer, not pushed per row, so a million rows cost the EDT
+ *   a few label updates per second.
  */
 public class SendPanel extends JPanel {
 
+    /**
+     * Optional collaborators, built from defaults() with the with* methods.
+     * - outbox: sends survive server outages and restarts (null: not persisted).
+     * - metrics: where the send.* (and import.*) metrics go.
+     * - queue: bounds the sends running and waiting at once; the BLOCK policy never blocks the EDT.
+     * - idempotencyKeys: every send carries a fresh "idempotencyKey" (see SendPresenter; null: none).
+     */
+    public record Settings(SendOutbox outbox, Metrics metrics, SendQueue.Settings queue,
+                           Supplier<String> idempotencyKeys) {
+        public Settings {
+            Objects.requireNonNull(metrics);
+            Objects.requireNonNull(queue);
+        }
+
+        /** No outbox, no metrics, no limits, no idempotency keys. */
+        public static Settings defaults() {
+            return new Settings(null, Metrics.NOOP, SendQueue.Settings.unbounded(), null);
+        }
+
+        public Settings withOutbox(SendOutbox outbox) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+
+        public Settings withMetrics(Metrics metrics) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+
+        public Settings withQueue(SendQueue.Settings queue) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+
+        public Settings withIdempotencyKeys(Supplier<String> idempotencyKeys) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+    }
+
     private final JTextField userIdField = new JTextField(16);
     private final JTextField amountField = new JTextField(8);
     private final JButton sendButton = new JButton("Send");
+    private final JButton importButton = new JButton("Import CSV...");
     private final JLabel statusLabel = new JLabel("Idle");
+    private final JLabel importLabel = new JLabel(" ");
+
+    private static final int OUTBOX_RETRY_MS = 10_000;
+    static final int IMPORT_PROGRESS_MS = 250;
 
     private final SendPresenter presenter;
+    private final transient Supplier<BulkImporter> importers;
+    private final boolean hasOutbox;
+    private String status = "Idle"; // EDT only
+    private int outboxDepth = 0;    // EDT only
+    private int sendsWaiting = 0;   // EDT only
 
     public SendPanel(RpcClient rpcClient, Executor executor) {
+        this(rpcClient, executor, Settings.defaults());
+    }
+
+    public SendPanel(RpcClient rpcClient, Executor executor, Settings settings) {
         super(new GridBagLayout());
+        SendQueue.Settings queueSettings = settings.queue();
+        int importMaxInFlight = Math.min(queueSettings.maxInFlight(), BulkImporter.DEFAULT_MAX_IN_FLIGHT);
+        this.importers = () -> new BulkImporter(rpcClient, executor, importMaxInFlight, settings.metrics(),
+                queueSettings, settings.idempotencyKeys());
+        SendOutbox outbox = settings.outbox();
+        this.hasOutbox = outbox != null;
         this.presenter = new SendPresenter(
                 rpcClient,
                 executor,
-                java.time.Clock.systemUTC(),
-                new UiListener()
+                new UiListener(),
+                SendPresenter.Settings.defaults()
+                        .withOutbox(outbox)
+                        .withMetrics(settings.metrics())
+                        .withQueue(new SendQueue(queueSettings, () -> !SwingUtilities.isEventDispatchThread()))
+                        .withIdempotencyKeys(settings.idempotencyKeys())
         );
         buildUi();
         wire();
+        if (outbox != null) {
+            Timer retry = new Timer(OUTBOX_RETRY_MS, e -> presenter.drainOutbox());
+            retry.start();
+        }
     }
 
     public SendPanel() {
@@ -55,7 +129,10 @@ public class SendPanel extends JPanel {
         userIdField.setName("userIdField");
         amountField.setName("amountField");
         sendButton.setName("sendButton");
+        importButton.setName("importButton");
         statusLabel.setName("statusLabel");
+        importLabel.setName("importLabel");
+        importButton.setToolTipText("Rows are sent straight away; a row that fails is counted, not kept in the outbox.");
 
         // Row 0
         gbc.gridx = 0; gbc.gridy = 0; gbc.weightx = 0; add(userIdLabel, gbc);
@@ -70,6 +147,12 @@ public class SendPanel extends JPanel {
         buttons.add(sendButton);
         buttons.add(statusLabel);
         gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 2; gbc.weightx = 1; add(buttons, gbc);
+
+        // Row 3
+        JPanel bulk = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        bulk.add(importButton);
+        bulk.add(importLabel);
+        gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 2; gbc.weightx = 1; add(bulk, gbc);
     }
 
     private void wire() {
@@ -77,6 +160,42 @@ public class SendPanel extends JPanel {
             clearErrorStyles();
             presenter.submit(userIdField.getText(), amountField.getText());
         });
+        importButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                importFile(chooser.getSelectedFile().toPath());
+            }
+        });
+    }
+
+    /** Starts importing csv in the background; the button stays disabled until it has finished. */
+    void importFile(Path csv) {
+        BulkImporter importer = importers.get();
+        importButton.setEnabled(false);
+        importLabel.setText("Importing " + csv.getFileName() + (hasOutbox ? " (not via the outbox)..." : "..."));
+        Timer progress = new Timer(IMPORT_PROGRESS_MS, e -> importLabel.setText(importer.progress().summary()));
+        progress.start();
+
+        // Not the send executor: the importer blocks while rows are in flight, and the rows need that executor
+        Thread.ofPlatform().daemon().name("bulk-import").start(() -> {
+            String outcome;
+            try {
+                outcome = importer.run(csv).summary();
+                List<BulkImporter.RowError> rowErrors = importer.rowErrors();
+                if (!rowErrors.isEmpty()) {
+                    outcome += "; line " + rowErrors.get(0).line() + ": " + rowErrors.get(0).message();
+                }
+            } catch (Exception ex) {
+                if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+                outcome = "Import failed: " + ex.getMessage();
+            }
+            String text = outcome;
+            SwingUtilities.invokeLater(() -> {
+                progress.stop();
+                importLabel.setText(text);
+                importButton.setEnabled(true);
+            });
+        });
     }
 
     private void clearErrorStyles() {
@@ -91,40 +210,62 @@ public class SendPanel extends JPanel {
         }
     }
 
+    private void showStatus(String text) {
+        status = text;
+        StringBuilder sb = new StringBuilder(text);
+        if (sendsWaiting > 0) sb.append(" (").append(sendsWaiting).append(" waiting to send)");
+        if (outboxDepth > 0) sb.append(" (").append(outboxDepth).append(" queued)");
+        statusLabel.setText(sb.toString());
+    }
+
     private class UiListener implements SendPresenter.Listener {
         @Override public void onIdle() {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText("Idle");
+                showStatus("Idle");
                 sendButton.setEnabled(true);
             });
         }
 
         @Override public void onSending() {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText("Sending...");
+                showStatus("Sending...");
                 sendButton.setEnabled(false);
             });
         }
 
         @Override public void onSuccess(String message) {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText(message != null ? message : "Success");
+                showStatus(message != null ? message : "Success");
                 sendButton.setEnabled(true);
             });
         }
 
         @Override public void onError(String message) {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText(message != null ? message : "Error");
+                showStatus(message != null ? message : "Error");
                 sendButton.setEnabled(true);
             });
         }
 
         @Override public void onValidationError(String field, String message) {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText(message);
+                showStatus(message);
                 if (field != null) markError(field);
             });
         }
+
+        @Override public void onOutboxDepthChanged(int pending) {
+            SwingUtilities.invokeLater(() -> {
+                outboxDepth = pending;
+                showStatus(status);
+            });
+        }
+
+        @Override public void onQueueDepthChanged(int inFlight, int queued) {
+            SwingUtilities.invokeLater(() -> {
+                sendsWaiting = queued;
+                showStatus(status);
+            });
+        }
     }
 }
\ No newline at end of file
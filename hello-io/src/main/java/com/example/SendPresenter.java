@@ -1,17 +1,41 @@
 package com.example;
 
+import java.io.IOException;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Presenter for the "Send" feature.
  * Responsibilities:
  * - Validate form inputs.
  * - Build a payload (Map) and call RpcClient asynchronously via an injected Executor.
+ *   An AsyncRpcClient is called directly; its completion is delivered through the Executor,
+ *   so no thread is parked for the duration of the round trip.
  * - Report states to the View via Listener callbacks (Idle, Sending, Success, Error).
+ * - Optionally write each payload to a durable SendOutbox before sending, ack it once the server
+ *   answered, and replay whatever is still pending on startup and after the next successful send.
+ * - Coalesce identical submits: while a payload is in flight, submitting the same userId/amount/currency
+ *   again joins that call instead of making another; every submitter gets the result.
+ *   submitWithoutCoalescing opts out for callers whose equal payloads are distinct sends.
+ * - Optionally add an "idempotencyKey" to each payload; retries and outbox replays resend the same map,
+ *   so the server can recognise duplicates.
+ * - Admit sends through a bounded SendQueue (max in flight, max waiting, overflow policy) and report its
+ *   depth, so a burst shows up as backpressure instead of an ever-growing executor queue.
+ * - Record send.* metrics: validation failures, in-flight sends (a gauge), successes/errors, rejected/dropped sends and
+ *   submit-to-answer latency; send.coalesced counts submits that joined an identical in-flight send.
  *
  * Teaching points:
  * - Dependency inversion: Presenter depends on RpcClient interface, not a concrete XML-RPC library.
@@ -26,34 +50,135 @@ public final class SendPresenter {
         void onSuccess(String message);
         void onError(String message);
         void onValidationError(String field, String message);
+        /** Number of payloads in the outbox that the server has not answered yet. */
+        default void onOutboxDepthChanged(int pending) {}
+        /** Sends currently running and sends waiting for a slot in the SendQueue. */
+        default void onQueueDepthChanged(int inFlight, int queued) {}
     }
 
+    /**
+     * Optional collaborators, built from defaults() with the with* methods.
+     * - outbox: every validated payload is persisted before it is sent, and entries left over from a previous
+     *   run are replayed right away (null: sends are not persisted).
+     * - metrics: where the send.* metrics go.
+     * - queue: bounds how many sends run and wait at once; its depth is reported to the listener. A queue
+     *   serves one presenter (null: an unbounded queue of its own).
+     * - idempotencyKeys: each new payload gets "idempotencyKey" = idempotencyKeys.get(), e.g. a random UUID
+     *   (null: payloads carry no key).
+     */
+    public record Settings(SendOutbox outbox, Metrics metrics, SendQueue queue, Supplier<String> idempotencyKeys) {
+        public Settings {
+            Objects.requireNonNull(metrics);
+        }
+
+        /** No outbox, no metrics, no limits, no idempotency keys: the behaviour of the original presenter. */
+        public static Settings defaults() {
+            return new Settings(null, Metrics.NOOP, null, null);
+        }
+
+        public Settings withOutbox(SendOutbox outbox) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+
+        public Settings withMetrics(Metrics metrics) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+
+        public Settings withQueue(SendQueue queue) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+
+        public Settings withIdempotencyKeys(Supplier<String> idempotencyKeys) {
+            return new Settings(outbox, metrics, queue, idempotencyKeys);
+        }
+    }
+
+    private static final String REJECTED = "Too many sends in progress; try again in a moment.";
+    private static final String DROPPED = "Dropped: newer sends replaced it while the queue was full.";
+    private static final String KEPT = " Kept in the outbox for retry.";
+
     private final RpcClient rpcClient;
     private final Executor executor;
-    private final Clock clock; // reserved for future timestamps/retries/testing
     private final Listener listener;
+    private final SendOutbox outbox; // null when sends are not persisted
+    private final SendQueue queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Object outboxLock = new Object();
+    private final Supplier<String> idempotencyKeys; // null: payloads carry no key
+    // In-flight payload (without idempotency key) -> start times of submits waiting for the same answer
+    private final Map<Map<String, Object>, List<Long>> shared = new HashMap<>();
+
+    private final Metrics.Counter validationErrors;
+    private final AtomicInteger inFlightSends = new AtomicInteger(); // exported as the send.inFlight gauge
+    private final Metrics.Counter successes;
+    private final Metrics.Counter errors;
+    private final Metrics.Counter rejected;
+    private final Metrics.Counter dropped;
+    private final Metrics.Counter coalesced;
+    private final Metrics.Timer latency;
 
+    /**
+     * clock is kept for source compatibility but not read: retries, hedging and the circuit breaker live in
+     * ResilientRpcClient, which takes the Clock it runs on (Main.createRpcClient).
+     */
     public SendPresenter(RpcClient rpcClient, Executor executor, Clock clock, Listener listener) {
+        this(rpcClient, executor, listener, Settings.defaults());
+        Objects.requireNonNull(clock);
+    }
+
+    public SendPresenter(RpcClient rpcClient, Executor executor, Listener listener, Settings settings) {
+        Metrics metrics = settings.metrics();
+        this.validationErrors = metrics.counter("send.validationErrors");
+        metrics.gauge("send.inFlight", inFlightSends::get);
+        this.successes = metrics.counter("send.success");
+        this.errors = metrics.counter("send.error");
+        this.rejected = metrics.counter("send.rejected");
+        this.dropped = metrics.counter("send.dropped");
+        this.coalesced = metrics.counter("send.coalesced");
+        this.latency = metrics.timer("send.latency");
         this.rpcClient = Objects.requireNonNull(rpcClient);
         this.executor = Objects.requireNonNull(executor);
-        this.clock = Objects.requireNonNull(clock);
         this.listener = Objects.requireNonNull(listener);
+        this.outbox = settings.outbox();
+        this.queue = settings.queue() != null ? settings.queue() : new SendQueue(SendQueue.Settings.unbounded());
+        this.idempotencyKeys = settings.idempotencyKeys();
+        queue.setDepthListener(listener::onQueueDepthChanged);
         listener.onIdle();
+        if (outbox != null) {
+            outbox.setDepthListener(listener::onOutboxDepthChanged);
+            listener.onOutboxDepthChanged(outbox.depth());
+            drainOutbox();
+        }
     }
 
     /**
      * Validates inputs, builds payload, and invokes rpcClient on a background executor.
      * On completion, emits either onSuccess or onError.
+     * A submit identical to one still in flight shares its call and its outcome.
      */
     public void submit(String userIdText, String amountText) {
+        submit(userIdText, amountText, true);
+    }
+
+    /**
+     * As submit, but never joins an identical send in flight: every call makes its own.
+     * For callers where equal payloads are separate sends, e.g. the rows of a bulk import.
+     */
+    public void submitWithoutCoalescing(String userIdText, String amountText) {
+        submit(userIdText, amountText, false);
+    }
+
+    private void submit(String userIdText, String amountText, boolean coalesce) {
         // Validate input
         String userId = userIdText == null ? "" : userIdText.trim();
         if (userId.isEmpty()) {
+            validationErrors.increment();
             listener.onValidationError("userId", "User ID is required.");
             return;
         }
         Integer amount = parseNonNegativeInt(amountText);
         if (amount == null) {
+            validationErrors.increment();
             listener.onValidationError("amount", "Amount must be a whole number >= 0.");
             return;
         }
@@ -64,22 +189,200 @@ public final class SendPresenter {
         payload.put("amount", amount);
         payload.put("currency", "USD"); // example static field to show payload composition
 
+        long started = latency.start();
+        Map<String, Object> key = coalesce ? Map.copyOf(payload) : null; // null: shares nothing
         listener.onSending();
+        inFlightSends.incrementAndGet();
+        if (key != null && joinInFlight(key, started)) return;
+
+        if (idempotencyKeys != null) payload.put("idempotencyKey", idempotencyKeys.get());
+        if (outbox == null) {
+            boolean accepted = enqueue(payload, true,
+                    (result, error) -> completeShared(key, started, result, error),
+                    () -> overflowedShared(key, dropped, DROPPED));
+            if (!accepted) overflowedShared(key, rejected, REJECTED);
+            return;
+        }
+
+        long id;
+        try {
+            // Append and mark in flight atomically so a concurrent drain cannot pick this entry up too
+            synchronized (outboxLock) {
+                id = outbox.append(payload);
+                inFlight.add(id);
+            }
+        } catch (IOException | RuntimeException ex) {
+            overflowedShared(key, errors, "Failed to send: could not write outbox: " + ex.getMessage());
+            return;
+        }
+        // A rejected or dropped entry stays in the outbox and is replayed later
+        boolean accepted = enqueue(payload, true,
+                (result, error) -> {
+                    settle(id, result, error);
+                    completeShared(key, started, result, error);
+                },
+                () -> {
+                    inFlight.remove(id);
+                    overflowedShared(key, dropped, DROPPED + KEPT);
+                });
+        if (!accepted) {
+            inFlight.remove(id);
+            overflowedShared(key, rejected, REJECTED + KEPT);
+        }
+    }
+
+    // True if an identical payload is in flight and this submit now waits for its answer;
+    // otherwise registers this submit as the one that sends.
+    private boolean joinInFlight(Map<String, Object> key, long started) {
+        synchronized (shared) {
+            List<Long> followers = shared.get(key);
+            if (followers == null) {
+                shared.put(key, new ArrayList<>());
+                return false;
+            }
+            followers.add(started);
+        }
+        coalesced.increment();
+        return true;
+    }
+
+    // Released before anyone is notified, so a submit made from a callback starts a fresh send
+    private List<Long> release(Map<String, Object> key) {
+        if (key == null) return List.of();
+        synchronized (shared) {
+            List<Long> followers = shared.remove(key);
+            return followers != null ? followers : List.of();
+        }
+    }
+
+    private void completeShared(Map<String, Object> key, long started, RpcClient.Result result, Throwable error) {
+        List<Long> followers = release(key);
+        complete(started, result, error);
+        for (long follower : followers) complete(follower, result, error);
+    }
+
+    private void overflowedShared(Map<String, Object> key, Metrics.Counter counter, String message) {
+        List<Long> followers = release(key);
+        overflowed(counter, message);
+        for (int i = 0; i < followers.size(); i++) overflowed(counter, message);
+    }
+
+    /**
+     * Re-sends outbox entries that are neither answered nor currently in flight.
+     * Runs on startup and after every successful send; replays report only through onOutboxDepthChanged.
+     */
+    public void drainOutbox() {
+        if (outbox == null) return;
+        List<SendOutbox.Entry> replay = new ArrayList<>();
+        synchronized (outboxLock) {
+            for (SendOutbox.Entry entry : outbox.pending()) {
+                if (inFlight.add(entry.id())) replay.add(entry);
+            }
+        }
+        // Replays only use free room in the queue; whatever does not fit waits for the next drain
+        for (int i = 0; i < replay.size(); i++) {
+            long id = replay.get(i).id();
+            boolean accepted = enqueue(replay.get(i).payload(), false,
+                    (result, error) -> settle(id, result, error),
+                    () -> inFlight.remove(id));
+            if (!accepted) {
+                for (SendOutbox.Entry skipped : replay.subList(i, replay.size())) inFlight.remove(skipped.id());
+                return;
+            }
+        }
+    }
+
+    private boolean enqueue(Map<String, Object> payload, boolean mayOverflow,
+                            BiConsumer<RpcClient.Result, Throwable> callback, Runnable onDropped) {
+        SendQueue.Job job = new SendQueue.Job() {
+            @Override
+            public void start(Runnable done) {
+                AtomicBoolean finished = new AtomicBoolean();
+                BiConsumer<RpcClient.Result, Throwable> finish = (result, error) -> {
+                    if (!finished.compareAndSet(false, true)) return;
+                    try {
+                        callback.accept(result, error);
+                    } finally {
+                        done.run();
+                    }
+                    // The server is reachable again: replay anything pending, now that this slot is free
+                    if (outbox != null && error == null && result.success() && outbox.depth() > inFlight.size()) {
+                        drainOutbox();
+                    }
+                };
+                try {
+                    send(payload, finish);
+                } catch (RuntimeException ex) {
+                    // e.g. the executor was shut down; with a direct executor this may instead come out of
+                    // finish (a throwing listener), which has already run and released the slot
+                    if (finished.get()) throw ex;
+                    finish.accept(null, ex);
+                }
+            }
+
+            @Override
+            public void dropped() {
+                onDropped.run();
+            }
+        };
+        return mayOverflow ? queue.offer(job) : queue.offerIfRoom(job);
+    }
+
+    private void overflowed(Metrics.Counter counter, String message) {
+        counter.increment();
+        inFlightSends.decrementAndGet();
+        listener.onError(message);
+    }
+
+    // A client that answers null is a failed send, like one that throws
+    private void send(Map<String, Object> payload, BiConsumer<RpcClient.Result, Throwable> callback) {
+        BiConsumer<RpcClient.Result, Throwable> done = (result, error) -> callback.accept(result,
+                error == null && result == null ? new IllegalStateException("RpcClient returned no result") : error);
+        if (rpcClient instanceof AsyncRpcClient async) {
+            CompletableFuture<RpcClient.Result> pending;
+            try {
+                pending = async.sendValuesAsync(payload);
+            } catch (Exception ex) {
+                pending = CompletableFuture.failedFuture(ex);
+            }
+            pending.whenCompleteAsync(done, executor);
+            return;
+        }
 
         executor.execute(() -> {
+            RpcClient.Result result;
             try {
-                RpcClient.Result result = rpcClient.sendValues(payload);
-                if (result.success()) {
-                    listener.onSuccess(result.message() != null ? result.message() : "Sent OK");
-                } else {
-                    listener.onError(result.message() != null ? result.message() : "Remote error");
-                }
+                result = rpcClient.sendValues(payload);
             } catch (Exception ex) {
-                listener.onError("Failed to send: " + ex.getMessage());
+                done.accept(null, ex);
+                return;
             }
+            done.accept(result, null);
         });
     }
 
+    // Any answer from the server (success, remote error or fault) settles the entry; transport failures keep it
+    // for replay. A fault would be refused again on every replay, and would pin its segment forever.
+    private void settle(long id, RpcClient.Result result, Throwable error) {
+        inFlight.remove(id);
+        if (error != null && !XmlRpcCodec.isServerFault(error)) return;
+        outbox.ack(id);
+    }
+
+    private void complete(long started, RpcClient.Result result, Throwable error) {
+        latency.stop(started);
+        inFlightSends.decrementAndGet();
+        (error == null && result.success() ? successes : errors).increment();
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            listener.onError("Failed to send: " + cause.getMessage());
+        } else if (result.success()) {
+            listener.onSuccess(result.message() != null ? result.message() : "Sent OK");
+        } else {
+            listener.onError(result.message() != null ? result.message() : "Remote error");
+        }
+    }
+
     private Integer parseNonNegativeInt(String text) {
         if (text == null || text.isBlank()) return null;
         try {
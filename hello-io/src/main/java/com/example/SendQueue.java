@@ -0,0 +1,163 @@
+package com.example;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Admission control for sends: at most maxInFlight running, at most maxQueued waiting.
+ * Responsibilities:
+ * - offer(job) starts the job, queues it, or applies the Overflow policy when both limits are reached.
+ * - When a running job reports done, the oldest waiting job starts.
+ * - Report (inFlight, queued) to a depth listener after every change.
+ *
+ * Teaching points:
+ * - A bounded queue turns an overload into an explicit, visible decision instead of unbounded memory and latency.
+ * - BLOCK only blocks callers that may block (never the EDT); everyone else gets REJECT.
+ * - Jobs are started outside the lock: a job may complete synchronously and start the next one.
+ */
+public final class SendQueue {
+
+    public enum Overflow {
+        /** Refuse the new send. */
+        REJECT,
+        /** Drop the oldest waiting send (it is told via Job.dropped) and queue the new one. */
+        DROP_OLDEST,
+        /** Wait for room if the caller may block; otherwise reject. */
+        BLOCK
+    }
+
+    public record Settings(int maxInFlight, int maxQueued, Overflow overflow) {
+        public Settings {
+            if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
+            if (maxQueued < 0) throw new IllegalArgumentException("maxQueued must be >= 0");
+            Objects.requireNonNull(overflow);
+        }
+
+        /** No practical limit: every send starts right away (the behaviour before SendQueue existed). */
+        public static Settings unbounded() {
+            return new Settings(Integer.MAX_VALUE, 0, Overflow.REJECT);
+        }
+
+        /** 16 in flight, 256 waiting, reject beyond that. */
+        public static Settings defaults() {
+            return new Settings(16, 256, Overflow.REJECT);
+        }
+
+        public Settings withOverflow(Overflow policy) {
+            return new Settings(maxInFlight, maxQueued, policy);
+        }
+    }
+
+    /** A send waiting for or holding a slot. */
+    public interface Job {
+        /** Starts the send; done must be run exactly once when it has finished, on any thread. */
+        void start(Runnable done);
+
+        /** Called instead of start when DROP_OLDEST evicts this job from the queue. */
+        void dropped();
+    }
+
+    @FunctionalInterface
+    public interface DepthListener {
+        void onDepthChanged(int inFlight, int queued);
+    }
+
+    private final Settings settings;
+    private final BooleanSupplier callerMayBlock;
+    private final Runnable done = this::onJobDone;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Job> waiting = new ArrayDeque<>();
+    private int inFlight;
+    private volatile DepthListener depthListener = (inFlight, queued) -> {};
+
+    /** Every caller may block under the BLOCK policy. */
+    public SendQueue(Settings settings) {
+        this(settings, () -> true);
+    }
+
+    public SendQueue(Settings settings, BooleanSupplier callerMayBlock) {
+        this.settings = Objects.requireNonNull(settings);
+        this.callerMayBlock = Objects.requireNonNull(callerMayBlock);
+    }
+
+    public void setDepthListener(DepthListener listener) {
+        this.depthListener = listener != null ? listener : (inFlight, queued) -> {};
+    }
+
+    /** Starts or queues the job, applying the overflow policy when full. Returns false if it was rejected. */
+    public boolean offer(Job job) {
+        return admit(job, settings.overflow());
+    }
+
+    /** Starts or queues the job only if there is room; never blocks and never drops another job. */
+    public boolean offerIfRoom(Job job) {
+        return admit(job, Overflow.REJECT);
+    }
+
+    public int inFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int queued() {
+        synchronized (lock) {
+            return waiting.size();
+        }
+    }
+
+    private boolean admit(Job job, Overflow overflow) {
+        Objects.requireNonNull(job);
+        Job evicted = null;
+        boolean start = false;
+        int running, queued;
+        synchronized (lock) {
+            if (overflow == Overflow.BLOCK && isFull()) {
+                if (!callerMayBlock.getAsBoolean()) return false;
+                try {
+                    while (isFull()) lock.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (inFlight < settings.maxInFlight()) {
+                inFlight++;
+                start = true;
+            } else if (waiting.size() < settings.maxQueued()) {
+                waiting.add(job);
+            } else if (overflow == Overflow.DROP_OLDEST && !waiting.isEmpty()) {
+                evicted = waiting.poll();
+                waiting.add(job);
+            } else {
+                return false;
+            }
+            running = inFlight;
+            queued = waiting.size();
+        }
+        if (evicted != null) evicted.dropped();
+        depthListener.onDepthChanged(running, queued);
+        if (start) job.start(done);
+        return true;
+    }
+
+    private boolean isFull() {
+        return inFlight >= settings.maxInFlight() && waiting.size() >= settings.maxQueued();
+    }
+
+    private void onJobDone() {
+        Job next;
+        int running, queued;
+        synchronized (lock) {
+            next = waiting.poll();
+            if (next == null) inFlight--; // otherwise the slot passes straight to next
+            running = inFlight;
+            queued = waiting.size();
+            lock.notifyAll();
+        }
+        depthListener.onDepthChanged(running, queued);
+        if (next != null) next.start(done);
+    }
+}
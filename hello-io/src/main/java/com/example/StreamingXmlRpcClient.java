@@ -0,0 +1,107 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Purpose-built XML-RPC client for the 'receive' call.
+ * Responsibilities:
+ * - Encode the payload with ReceiveCallEncoder into a reused byte array.
+ * - POST it with a fixed Content-Length over HttpURLConnection (the JDK keeps the socket alive).
+ * - Read the reply into a reused byte array and parse it with XmlRpcResponseParser.
+ *
+ * Teaching points:
+ * - Buffers are borrowed from a small pool rather than a ThreadLocal, so the client also reuses
+ *   them when every send runs on a fresh virtual thread.
+ * - Same contract as ApacheXmlRpcClient: faults and HTTP errors are thrown, values become Result.ok.
+ */
+public class StreamingXmlRpcClient implements RpcClient {
+
+    private static final int CONNECTION_TIMEOUT_MS = 5_000;
+    private static final int REPLY_TIMEOUT_MS = 5_000;
+
+    /** Encoder plus response buffer; one borrower at a time. */
+    static final class Buffers {
+        final ReceiveCallEncoder encoder = new ReceiveCallEncoder();
+        byte[] response = new byte[1024];
+    }
+
+    private final URL endpoint;
+    private final ArrayBlockingQueue<Buffers> pool;
+
+    public StreamingXmlRpcClient(String endpointUrl) {
+        this(endpointUrl, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StreamingXmlRpcClient(String endpointUrl, int pooledBuffers) {
+        String url = endpointUrl.endsWith("/RPC2") ? endpointUrl : endpointUrl + "/RPC2";
+        try {
+            this.endpoint = URI.create(url).toURL();
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid endpoint URL: " + url, ex);
+        }
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, pooledBuffers));
+    }
+
+    @Override
+    public Result sendValues(Map<String, Object> payload) throws Exception {
+        Buffers buffers = pool.poll();
+        if (buffers == null) buffers = new Buffers();
+        try {
+            int requestLength = buffers.encoder.encode(payload);
+
+            HttpURLConnection conn = (HttpURLConnection) endpoint.openConnection();
+            conn.setConnectTimeout(CONNECTION_TIMEOUT_MS);
+            conn.setReadTimeout(REPLY_TIMEOUT_MS);
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "text/xml");
+            conn.setFixedLengthStreamingMode(requestLength);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(buffers.encoder.buffer(), 0, requestLength);
+            }
+
+            int status = conn.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                drain(conn.getErrorStream());
+                throw new IOException("HTTP " + status + " from XML-RPC server");
+            }
+            int responseLength;
+            // Reading to EOF and closing returns the socket to the JDK keep-alive cache
+            try (InputStream in = conn.getInputStream()) {
+                responseLength = readFully(in, buffers);
+            }
+            String value = XmlRpcResponseParser.parse(buffers.response, responseLength);
+            return Result.ok(value != null ? value : "OK");
+        } finally {
+            pool.offer(buffers);
+        }
+    }
+
+    private static int readFully(InputStream in, Buffers buffers) throws IOException {
+        int length = 0;
+        while (true) {
+            if (length == buffers.response.length) {
+                byte[] bigger = new byte[buffers.response.length * 2];
+                System.arraycopy(buffers.response, 0, bigger, 0, length);
+                buffers.response = bigger;
+            }
+            int n = in.read(buffers.response, length, buffers.response.length - length);
+            if (n < 0) return length;
+            length += n;
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) return;
+        try (in) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * TriadCalculator.adjust over many edits at once, on struct-of-arrays input.
+ * Responsibilities:
+ * - Row i is (a[i], b[i], c[i]) edited at field[i] (Field.ordinal()) to newValue[i] with total[i];
+ *   the result goes to (outA[i], outB[i], outC[i]), exactly what the scalar adjust would return.
+ * - Outputs may be the input arrays (in-place update): each row is read before it is written.
+ * - adjustParallel splits large batches across the common fork-join pool.
+ *
+ * Teaching points:
+ * - The loop body has no data-dependent branches: the edited field is turned into all-ones/all-zeros masks
+ *   and results are selected with and/or, and clamping uses Math.min/max. That shape lets C2 use SIMD.
+ * - Invalid rows are found with an OR-reduction before any output is written, like the scalar checks.
+ */
+public final class TriadBatchCalculator {
+
+    /** Below this many rows, adjustParallel runs sequentially; above it, rows are split into chunks this size. */
+    static final int PARALLEL_CHUNK = 1 << 16;
+
+    public void adjust(int[] a, int[] b, int[] c, int[] newValue, byte[] field, int[] total,
+                       int[] outA, int[] outB, int[] outC) {
+        int n = checkLengths(a, b, c, newValue, field, total, outA, outB, outC);
+        validate(a, b, c, field, total, 0, n);
+        compute(a, b, c, newValue, field, total, outA, outB, outC, 0, n);
+    }
+
+    public void adjustParallel(int[] a, int[] b, int[] c, int[] newValue, byte[] field, int[] total,
+                               int[] outA, int[] outB, int[] outC) {
+        int n = checkLengths(a, b, c, newValue, field, total, outA, outB, outC);
+        validate(a, b, c, field, total, 0, n);
+        if (n <= PARALLEL_CHUNK) {
+            compute(a, b, c, newValue, field, total, outA, outB, outC, 0, n);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new Chunk(a, b, c, newValue, field, total, outA, outB, outC, 0, n));
+    }
+
+    private static void compute(int[] a, int[] b, int[] c, int[] newValue, byte[] field, int[] total,
+                                int[] outA, int[] outB, int[] outC, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int f = field[i];
+            int t = total[i];
+            int mA = (f - 1) >> 31;       // -1 when f == 0
+            int mB = ((f ^ 1) - 1) >> 31; // -1 when f == 1
+            int mC = ((f ^ 2) - 1) >> 31; // -1 when f == 2
+            int ai = a[i], bi = b[i], ci = c[i];
+
+            int e = Math.max(0, Math.min(newValue[i], t));
+            int keep = (ci & mA) | (ai & mB) | (bi & mC);
+            int rest = t - e - keep;               // what the "next" field gets; cannot overflow
+            int next = Math.max(rest, 0);
+            int kept = keep + Math.min(rest, 0);   // a negative rest is taken from the kept field
+
+            outA[i] = (e & mA) | (kept & mB) | (next & mC);
+            outB[i] = (next & mA) | (e & mB) | (kept & mC);
+            outC[i] = (kept & mA) | (next & mB) | (e & mC);
+        }
+    }
+
+    private static void validate(int[] a, int[] b, int[] c, byte[] field, int[] total, int from, int to) {
+        int signs = 0;
+        for (int i = from; i < to; i++) {
+            signs |= a[i] | b[i] | c[i] | total[i] | field[i] | (2 - field[i]);
+        }
+        if (signs >= 0) return;
+        // Slow path only to report the first bad row
+        for (int i = from; i < to; i++) {
+            if (total[i] < 0) throw new IllegalArgumentException("total must be >= 0 (row " + i + ")");
+            if ((a[i] | b[i] | c[i]) < 0) throw new IllegalArgumentException("Values must be >= 0 (row " + i + ")");
+            if (field[i] < 0 || field[i] > 2) throw new IllegalArgumentException("Unknown field " + field[i] + " (row " + i + ")");
+        }
+    }
+
+    private static int checkLengths(int[] a, int[] b, int[] c, int[] newValue, byte[] field, int[] total,
+                                    int[] outA, int[] outB, int[] outC) {
+        int n = a.length;
+        if (b.length != n || c.length != n || newValue.length != n || field.length != n || total.length != n
+                || outA.length != n || outB.length != n || outC.length != n) {
+            throw new IllegalArgumentException("All arrays must have the same length");
+        }
+        return n;
+    }
+
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a, b, c, newValue, total, outA, outB, outC;
+        private final byte[] field;
+        private final int from, to;
+
+        Chunk(int[] a, int[] b, int[] c, int[] newValue, byte[] field, int[] total,
+              int[] outA, int[] outB, int[] outC, int from, int to) {
+            this.a = a; this.b = b; this.c = c; this.newValue = newValue; this.field = field; this.total = total;
+            this.outA = outA; this.outB = outB; this.outC = outC;
+            this.from = from; this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                TriadBatchCalculator.compute(a, b, c, newValue, field, total, outA, outB, outC, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk(a, b, c, newValue, field, total, outA, outB, outC, from, mid),
+                      new Chunk(a, b, c, newValue, field, total, outA, outB, outC, mid, to));
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.example;
 
-import java.util.Objects;
-
 /**
  * Pure calculation logic for a trio of integers (A, B, C) that must always sum to a fixed total.
  * - No Swing, no threading, no I/O: easy to unit test.
@@ -10,16 +8,38 @@ import java.util.Objects;
  *   * Edit B  -> adjust C, keep A
  *   * Edit C  -> adjust A, keep B
  * - Values are clamped to be non-negative and never exceed the total.
+ * - The arithmetic is AllocationCalculator's ADJUST_NEXT policy with three buckets (A, B, C in order);
+ *   the fast paths run it on a per-thread scratch array instead of allocating one per call.
  *
  * Teaching points:
  * - Keep business rules separate from the UI to test quickly and deterministically.
  * - Return immutable value objects (Values) to simplify reasoning and equality checks.
+ * - Hot paths can avoid allocation altogether: adjustPacked works on a long, and a ValuesCache hands out
+ *   canonical Values for triples seen before.
  */
 
 public final class TriadCalculator {
 
     public enum Field { A, B, C }
 
+    /** Largest value (and total) that fits in a packed triple: 21 bits per field. */
+    public static final int MAX_PACKED = (1 << 21) - 1;
+
+    private static final AllocationCalculator ALLOCATOR = new AllocationCalculator();
+    // Reused by every adjust on the same thread; the calculator itself stays stateless and shareable
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[3]);
+
+    private final ValuesCache cache; // null: always allocate
+
+    public TriadCalculator() {
+        this(null);
+    }
+
+    /** With a cache, adjust returns canonical Values instances for triples it has seen recently. */
+    public TriadCalculator(ValuesCache cache) {
+        this.cache = cache;
+    }
+
     /**
      * Immutable triple of non-negative integers.
      * Using a tiny value class instead of a Map keeps the code type-safe and self-documenting.
@@ -38,7 +58,55 @@ public final class TriadCalculator {
             if (!(o instanceof Values v)) return false;
             return a == v.a && b == v.b && c == v.c;
         }
-        @Override public int hashCode() { return Objects.hash(a, b, c); }
+        // Same value as Objects.hash(a, b, c), without the varargs array and boxing
+        @Override public int hashCode() { return (31 * (31 * (31 + a) + b)) + c; }
+    }
+
+    /**
+     * Bounded, lossy cache of canonical Values (direct-mapped, like a CPU cache: a new triple evicts
+     * whatever shared its slot). Lookups never allocate; misses allocate one Values.
+     * Safe to share between threads: Values is immutable, so a racy slot write is harmless.
+     */
+    public static final class ValuesCache {
+        private final Values[] slots;
+        private final int mask;
+        private final int shift;
+
+        /** capacity is rounded up to a power of two. */
+        public ValuesCache(int capacity) {
+            if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("capacity out of range");
+            int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            this.slots = new Values[size];
+            this.mask = size - 1;
+            this.shift = 64 - Integer.numberOfTrailingZeros(size);
+        }
+
+        public Values get(int a, int b, int c) {
+            // Multiplicative hashing on the top bits; hashCode() collides a lot for triples with the same sum
+            long k = a * 0x9E3779B97F4A7C15L ^ b * 0xC2B2AE3D27D4EB4FL ^ c * 0x165667B19E3779F9L;
+            int slot = (int) (k >>> shift) & mask;
+            Values v = slots[slot];
+            if (v != null && v.a == a && v.b == b && v.c == c) return v;
+            v = new Values(a, b, c);
+            slots[slot] = v;
+            return v;
+        }
+    }
+
+    /** Packs a triple with each value in [0, MAX_PACKED] into one long. */
+    public static long pack(int a, int b, int c) {
+        if ((a | b | c) < 0 || a > MAX_PACKED || b > MAX_PACKED || c > MAX_PACKED) {
+            throw new IllegalArgumentException("Values must be in [0, " + MAX_PACKED + "]");
+        }
+        return ((long) a << 42) | ((long) b << 21) | c;
+    }
+
+    public static int packedA(long packed) { return (int) (packed >>> 42) & MAX_PACKED; }
+    public static int packedB(long packed) { return (int) (packed >>> 21) & MAX_PACKED; }
+    public static int packedC(long packed) { return (int) packed & MAX_PACKED; }
+
+    public static Values unpack(long packed) {
+        return new Values(packedA(packed), packedB(packed), packedC(packed));
     }
 
     /**
@@ -48,66 +116,26 @@ public final class TriadCalculator {
      *
      * This method contains no UI or threading and is safe for unit testing.
      */
-
     public Values adjust(Values current, Field edited, int newValue, int total) {
-        if (total < 0) throw new IllegalArgumentException("total must be >= 0");
-        int a = current.a, b = current.b, c = current.c;
-
-        // Clamp edited value to [0, total]
-        int e = Math.max(0, Math.min(newValue, total));
+        int[] v = SCRATCH.get();
+        v[0] = current.a; v[1] = current.b; v[2] = current.c;
+        ALLOCATOR.adjust(v, edited.ordinal(), newValue, total);
+        return values(v[0], v[1], v[2]);
+    }
 
-        return switch (edited) {
-            case A -> solve(e, b, c, total, "A");
-            case B -> solve(a, e, c, total, "B");
-            case C -> solve(a, b, e, total, "C");
-        };
+    /**
+     * adjust on a packed triple (see pack); returns the packed result and never allocates.
+     * total must be in [0, MAX_PACKED]; edited is Field.ordinal().
+     */
+    public static long adjustPacked(long packed, int edited, int newValue, int total) {
+        if (total < 0 || total > MAX_PACKED) throw new IllegalArgumentException("total must be in [0, " + MAX_PACKED + "]");
+        int[] v = SCRATCH.get();
+        v[0] = packedA(packed); v[1] = packedB(packed); v[2] = packedC(packed);
+        ALLOCATOR.adjust(v, edited, newValue, total);
+        return ((long) v[0] << 42) | ((long) v[1] << 21) | v[2];
     }
 
-    // Internal helper: depending on which is edited, we adjust the "next" field and try to keep the "remaining" field.
-    // For edited A: (A=e, adjust B, keep C)
-    // For edited B: (B=e, adjust C, keep A)
-    // For edited C: (C=e, adjust A, keep B)
-    private Values solve(int a, int b, int c, int total, String edited) {
-        switch (edited) {
-            case "A": {
-                int newA = a;
-                int keepC = c;
-                int newB = total - newA - keepC;
-                if (newB < 0) {
-                    newB = 0;
-                    int newC = total - newA - newB;
-                    if (newC < 0) newC = 0;
-                    return new Values(newA, newB, newC);
-                }
-                return new Values(newA, newB, keepC);
-            }
-            case "B": {
-                int newB = b;
-                int keepA = a;
-                int newC = total - keepA - newB;
-                if (newC < 0) {
-                    newC = 0;
-                    int newA = total - newB - newC;
-                    if (newA < 0) newA = 0;
-                    return new Values(newA, newB, newC);
-                }
-                return new Values(keepA, newB, newC);
-            }
-            case "C": {
-                int newC = c;
-                int keepB = b;
-                int newA = total - keepB - newC;
-                if (newA < 0) {
-                    newA = 0;
-                    int newB = total - newA - newC;
-                    if (newB < 0) newB = 0;
-                    return new Values(newA, newB, newC);
-                }
-                return new Values(newA, keepB, newC);
-            }
-
-            default:
-                throw new IllegalStateException("Unexpected edited flag");
-        }
+    private Values values(int a, int b, int c) {
+        return cache != null ? cache.get(a, b, c) : new Values(a, b, c);
     }
-}
\ No newline at end of file
+}
@@ -4,18 +4,26 @@ import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * TriadPanel: Thin Swing view for the triad demo.
  * Responsibilities:
  * - Build the UI and forward user interactions to the Presenter.
  * - Update UI controls when the Presenter notifies changes.
- * - Ensure all UI mutations happen on the EDT (uses SwingUtilities.invokeLater).
+ * - Ensure all UI mutations happen on the EDT (coalesced through EdtCoalescer).
  *
  * Teaching points:
  * - Components have stable names (setName) for robot/UI testing.
  * - The guard pattern (beginProgrammaticUpdate/endProgrammaticUpdate) prevents edit loops.
+ * - Ctrl+Z / Ctrl+Y (or Ctrl+Shift+Z) call the Presenter's undo/redo from any field in the panel.
  * - No business logic here; this class is hard to unit test, but easy to robot-test.
+ * - Presenter callbacks only record the latest state; one EDT pass applies it, skipping unchanged fields.
  */
 public class TriadPanel extends JPanel {
 
@@ -24,15 +32,52 @@ public class TriadPanel extends JPanel {
     private final JTextField cField = new JTextField(6);
     private final JSpinner totalSpinner = new JSpinner(new SpinnerNumberModel(100, 0, 10_000, 1));
 
+    /** Latest state not yet shown: values/total are null when unchanged; errors are cleared by new values. */
+    record Update(TriadCalculator.Values values, Integer total, Set<TriadCalculator.Field> errors) {
+        static final Update NONE = new Update(null, null, Set.of());
+
+        Update withValues(TriadCalculator.Values v) {
+            return new Update(v, total, Set.of());
+        }
+
+        Update withTotal(int t) {
+            return new Update(values, t, errors);
+        }
+
+        Update withError(TriadCalculator.Field field) {
+            if (field == null || errors.contains(field)) return this;
+            EnumSet<TriadCalculator.Field> more = EnumSet.of(field);
+            more.addAll(errors);
+            return new Update(values, total, more);
+        }
+    }
+
+    // Every triple for totals up to ~120, so steady editing reuses Values instead of allocating them
+    private static final int VALUES_CACHE_SIZE = 8192;
+
+    private final transient EdtCoalescer<Update> updates = new EdtCoalescer<>(Update.NONE, this::apply);
     private final TriadPresenter presenter;
 
     public TriadPanel() {
+        this(Duration.ZERO);
+    }
+
+    /** A positive editWindow debounces typing: the triad is recomputed once the field has been quiet that long. */
+    public TriadPanel(Duration editWindow) {
+        this(editWindow, Metrics.NOOP);
+    }
+
+    public TriadPanel(Duration editWindow, Metrics metrics) {
         super(new GridBagLayout());
         this.presenter = new TriadPresenter(
-                new TriadCalculator(),
+                new TriadCalculator(new TriadCalculator.ValuesCache(VALUES_CACHE_SIZE)),
                 new UiListener(),
                 (int) totalSpinner.getValue(),
-                new TriadCalculator.Values(34, 33, 33)
+                new TriadCalculator.Values(34, 33, 33),
+                editWindow.isZero() ? null : Debouncer.swingTimers(),
+                editWindow,
+                Debouncer.Mode.DEBOUNCE,
+                metrics
         );
         buildUi();
         wireBindings();
@@ -80,6 +125,17 @@ public class TriadPanel extends JPanel {
         addChangeListener(cField, () -> presenter.onFieldEdited(TriadCalculator.Field.C, cField.getText()));
 
         totalSpinner.addChangeListener(e -> presenter.setTotal((int) totalSpinner.getValue()));
+
+        InputMap keys = getInputMap(WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "redo");
+        getActionMap().put("undo", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { presenter.undo(); }
+        });
+        getActionMap().put("redo", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { presenter.redo(); }
+        });
     }
 
     private void addChangeListener(JTextField field, Runnable onChange) {
@@ -90,12 +146,20 @@ public class TriadPanel extends JPanel {
         });
     }
 
+    private void apply(Update update) {
+        if (update.total() != null && !update.total().equals(totalSpinner.getValue())) {
+            totalSpinner.setValue(update.total());
+        }
+        if (update.values() != null) setFieldsFrom(update.values());
+        for (TriadCalculator.Field field : update.errors()) markError(field);
+    }
+
     private void setFieldsFrom(TriadCalculator.Values v) {
         presenter.beginProgrammaticUpdate();
         try {
-            aField.setText(String.valueOf(v.a));
-            bField.setText(String.valueOf(v.b));
-            cField.setText(String.valueOf(v.c));
+            setTextIfChanged(aField, v.a);
+            setTextIfChanged(bField, v.b);
+            setTextIfChanged(cField, v.c);
             int spinnerVal = (int) totalSpinner.getValue();
             if (spinnerVal != presenter.currentTotal()) {
                 totalSpinner.setValue(presenter.currentTotal());
@@ -106,6 +170,12 @@ public class TriadPanel extends JPanel {
         }
     }
 
+    // setText on equal text still fires remove+insert events and a repaint
+    private static void setTextIfChanged(JTextField field, int value) {
+        String text = String.valueOf(value);
+        if (!text.equals(field.getText())) field.setText(text);
+    }
+
     private void clearErrorStyles() {
         aField.setBackground(UIManager.getColor("TextField.background"));
         bField.setBackground(UIManager.getColor("TextField.background"));
@@ -123,14 +193,14 @@ public class TriadPanel extends JPanel {
 
     private class UiListener implements TriadPresenter.Listener {
         @Override public void onValuesChanged(TriadCalculator.Values values) {
-            SwingUtilities.invokeLater(() -> setFieldsFrom(values));
+            updates.update(u -> u.withValues(values));
         }
         @Override public void onValidationError(TriadCalculator.Field field, String message) {
-            SwingUtilities.invokeLater(() -> markError(field));
+            updates.update(u -> u.withError(field));
             // Optional: tooltip or status label
         }
         @Override public void onTotalChanged(int total) {
-            SwingUtilities.invokeLater(() -> totalSpinner.setValue(total));
+            updates.update(u -> u.withTotal(total));
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.example;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -16,6 +19,9 @@ import java.util.function.Consumer;
  * - MVP/MVVM separation: Presenter has no Swing code; View is thin.
  * - Prevent UI feedback loops via programmaticUpdate guards.
  * - Easy to unit test without any UI tooling.
+ * - Optional Debouncer: keystrokes only record the latest text per field; parse/adjust runs once input settles.
+ * - Undo/redo: every change of values or total is recorded in an EditHistory ring (deltas, not Values objects).
+ * - Metrics: triad.edits counts keystrokes, triad.apply times parse + adjust (rejected edits too), triad.validationErrors counts rejects.
  */
 public final class TriadPresenter {
 
@@ -30,10 +36,39 @@ public final class TriadPresenter {
     private int total;
     private TriadCalculator.Values values;
     private boolean programmaticUpdate = false;
+    private final Debouncer debouncer; // null: apply every edit immediately
+    private final Map<TriadCalculator.Field, String> pendingEdits = new LinkedHashMap<>();
+
+    private static final int HISTORY_SLOTS = 4096; // 32 KB: about 4000 typical edits
+    private final EditHistory history = new EditHistory(HISTORY_SLOTS);
+    private final int[] before = new int[4];
+    private final int[] after = new int[4];
+
+    private final Metrics.Counter edits;
+    private final Metrics.Counter validationErrors;
+    private final Metrics.Timer applyTime;
 
     public TriadPresenter(TriadCalculator calculator, Listener listener, int initialTotal, TriadCalculator.Values initialValues) {
+        this(calculator, listener, initialTotal, initialValues, null, Duration.ZERO, Debouncer.Mode.DEBOUNCE);
+    }
+
+    /**
+     * With a scheduler, field edits are applied after the input has been quiet for editWindow (DEBOUNCE)
+     * or at most once per editWindow (THROTTLE). Calls on the presenter and scheduled tasks must share one thread.
+     */
+    public TriadPresenter(TriadCalculator calculator, Listener listener, int initialTotal, TriadCalculator.Values initialValues,
+                          Debouncer.Scheduler scheduler, Duration editWindow, Debouncer.Mode mode) {
+        this(calculator, listener, initialTotal, initialValues, scheduler, editWindow, mode, Metrics.NOOP);
+    }
+
+    public TriadPresenter(TriadCalculator calculator, Listener listener, int initialTotal, TriadCalculator.Values initialValues,
+                          Debouncer.Scheduler scheduler, Duration editWindow, Debouncer.Mode mode, Metrics metrics) {
+        this.edits = metrics.counter("triad.edits");
+        this.validationErrors = metrics.counter("triad.validationErrors");
+        this.applyTime = metrics.timer("triad.apply");
         this.calculator = Objects.requireNonNull(calculator);
         this.listener = Objects.requireNonNull(listener);
+        this.debouncer = scheduler == null ? null : new Debouncer(scheduler, editWindow, mode, this::applyPendingEdits);
         if (initialTotal < 0) throw new IllegalArgumentException("total must be >= 0");
         this.total = initialTotal;
         this.values = Objects.requireNonNull(initialValues);
@@ -46,13 +81,13 @@ public final class TriadPresenter {
      * Current policy: re-apply A with the same value (clamped) to compute new B/C.
      */
     public void setTotal(int newTotal) {
+        flushPendingEdits();
         if (newTotal < 0) {
             emit(l -> l.onValidationError(null, "Total must be >= 0"));
             return;
         }
-        this.total = newTotal;
         // Re-adjust keeping the last edited field concept isn’t tracked here; we re-fit by editing A with the same value.
-        values = calculator.adjust(values, TriadCalculator.Field.A, values.a, newTotal);
+        commit(calculator.adjust(values, TriadCalculator.Field.A, values.a, newTotal), newTotal);
         emit(l -> l.onTotalChanged(total));
         emit(l -> l.onValuesChanged(values));
     }
@@ -62,18 +97,107 @@ public final class TriadPresenter {
      * - Parses the value
      * - Emits validation errors
      * - Updates values via the calculator and notifies the View
+     * With a debouncer, only the latest text per field is kept until the window elapses.
      */
     public void onFieldEdited(TriadCalculator.Field field, String text) {
         if (programmaticUpdate) return;
+        edits.increment();
+        if (debouncer == null) {
+            applyEdit(field, text);
+            return;
+        }
+        pendingEdits.remove(field); // re-insert so fields apply in the order they were last edited
+        pendingEdits.put(field, text);
+        debouncer.trigger();
+    }
+
+    /** Applies edits still waiting for the debounce window, e.g. before reading values for a submit. */
+    public void flushPendingEdits() {
+        if (debouncer != null) debouncer.flush();
+    }
+
+    private void applyPendingEdits() {
+        Map<TriadCalculator.Field, String> edits = new LinkedHashMap<>(pendingEdits);
+        pendingEdits.clear();
+        edits.forEach(this::applyEdit);
+    }
+
+    private void applyEdit(TriadCalculator.Field field, String text) {
+        long started = applyTime.start();
         Integer parsed = parseNonNegativeInt(text);
         if (parsed == null) {
+            validationErrors.increment();
+            applyTime.stop(started);
             emit(l -> l.onValidationError(field, "Please enter a whole number >= 0"));
             return;
         }
-        values = calculator.adjust(values, field, parsed, total);
+        commit(calculator.adjust(values, field, parsed, total), total);
+        applyTime.stop(started);
         emit(l -> l.onValuesChanged(values));
     }
 
+    private void commit(TriadCalculator.Values newValues, int newTotal) {
+        store(before, values, total);
+        store(after, newValues, newTotal);
+        history.record(before, after);
+        values = newValues;
+        total = newTotal;
+    }
+
+    /** Reverts the last change of values or total; returns false if there is nothing to undo. */
+    public boolean undo() {
+        return undo(1) == 1;
+    }
+
+    /** Re-applies the last undone change; returns false if there is nothing to redo. */
+    public boolean redo() {
+        return redo(1) == 1;
+    }
+
+    /** Undoes up to steps changes, notifying the listener once at the end; returns how many were undone. */
+    public int undo(int steps) {
+        flushPendingEdits();
+        store(after, values, total);
+        int done = 0;
+        while (done < steps && history.undo(after)) done++;
+        restore(done);
+        return done;
+    }
+
+    /** Redoes up to steps changes, notifying the listener once at the end; returns how many were redone. */
+    public int redo(int steps) {
+        flushPendingEdits();
+        store(after, values, total);
+        int done = 0;
+        while (done < steps && history.redo(after)) done++;
+        restore(done);
+        return done;
+    }
+
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    private void restore(int steps) {
+        if (steps == 0) return;
+        boolean totalChanged = after[3] != total;
+        values = new TriadCalculator.Values(after[0], after[1], after[2]);
+        total = after[3];
+        if (totalChanged) emit(l -> l.onTotalChanged(total));
+        emit(l -> l.onValuesChanged(values));
+    }
+
+    private static void store(int[] state, TriadCalculator.Values v, int t) {
+        state[0] = v.a;
+        state[1] = v.b;
+        state[2] = v.c;
+        state[3] = t;
+    }
+
     public TriadCalculator.Values currentValues() {
         return values;
     }
@@ -0,0 +1,57 @@
+package com.example;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor that runs every task on its own virtual thread, with at most maxConcurrency running at once.
+ * Responsibilities:
+ * - Never block the submitting thread (the EDT can call execute freely).
+ * - Protect the server: tasks beyond the limit wait (cheaply, as parked virtual threads) for a permit.
+ *
+ * Teaching points:
+ * - A slow send no longer holds up the sends queued behind it, unlike a single-thread executor.
+ * - Blocking calls such as RpcClient.sendValues are fine on virtual threads; the carrier thread is released.
+ */
+public final class VirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final ExecutorService threads;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public VirtualThreadExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be >= 1");
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true); // fair: sends start in submission order
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("send-", 0).factory());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        threads.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /** Number of tasks currently holding a permit. */
+    public int activeCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /** Stops accepting tasks and waits for submitted ones to finish. */
+    @Override
+    public void close() {
+        threads.close();
+    }
+}
@@ -0,0 +1,271 @@
+package com.example;
+
+import org.apache.xmlrpc.XmlRpcException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Minimal XML-RPC encoder/decoder for clients that bring their own HTTP transport.
+ * Supports the value types this app exchanges: string, int/i4, boolean, double, struct and array.
+ * Also covers the server side (decodeCall, encodeResponse, encodeFault) for in-process stand-in servers.
+ *
+ * Teaching points:
+ * - Pure functions over bytes: no I/O, no threading, easy to unit test.
+ * - Faults are surfaced as XmlRpcCodec.Fault so callers can tell remote errors from bad responses.
+ */
+final class XmlRpcCodec {
+
+    /** A <fault> returned by the server. */
+    static final class Fault extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int code;
+
+        Fault(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    /** A decoded <methodCall>. */
+    record Call(String methodName, List<Object> params) {}
+
+    private static final XMLInputFactory XML_INPUT = newInputFactory();
+
+    private XmlRpcCodec() {}
+
+    /**
+     * True if error is the server answering with a fault: a Fault, or an XmlRpcException with a non-zero
+     * code (Apache reports transport problems with code 0). Such a call reached the server and was refused,
+     * so resending the same payload cannot help; anything else may be a transport failure.
+     */
+    static boolean isServerFault(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+        if (error instanceof Fault) return true;
+        return error instanceof XmlRpcException x && x.code != 0;
+    }
+
+    static byte[] encodeCall(String methodName, Object... params) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodCall><methodName>");
+        escape(methodName, sb);
+        sb.append("</methodName><params>");
+        for (Object param : params) {
+            sb.append("<param>");
+            encodeValue(param, sb);
+            sb.append("</param>");
+        }
+        sb.append("</params></methodCall>");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Returns the single response value, or throws Fault if the server answered with a fault. */
+    static Object decodeResponse(byte[] body) throws Fault {
+        try {
+            XMLStreamReader r = XML_INPUT.createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                boolean fault = false;
+                while (r.hasNext()) {
+                    if (r.next() != XMLStreamConstants.START_ELEMENT) continue;
+                    switch (r.getLocalName()) {
+                        case "fault" -> fault = true;
+                        case "value" -> {
+                            Object value = readValue(r);
+                            if (!fault) return value;
+                            Map<?, ?> struct = value instanceof Map<?, ?> m ? m : Map.of();
+                            Object code = struct.get("faultCode");
+                            Object message = struct.get("faultString");
+                            throw new Fault(code instanceof Integer i ? i : 0,
+                                    message != null ? message.toString() : "Remote fault");
+                        }
+                        default -> { }
+                    }
+                }
+                throw new IllegalArgumentException("Response has no value");
+            } finally {
+                r.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IllegalArgumentException("Malformed XML-RPC response: " + ex.getMessage(), ex);
+        }
+    }
+
+    static Call decodeCall(byte[] body) {
+        try {
+            XMLStreamReader r = XML_INPUT.createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                String methodName = null;
+                List<Object> params = new ArrayList<>();
+                while (r.hasNext()) {
+                    if (r.next() != XMLStreamConstants.START_ELEMENT) continue;
+                    switch (r.getLocalName()) {
+                        case "methodName" -> methodName = r.getElementText().trim();
+                        case "value" -> params.add(readValue(r));
+                        default -> { }
+                    }
+                }
+                if (methodName == null) throw new IllegalArgumentException("Call has no methodName");
+                return new Call(methodName, params);
+            } finally {
+                r.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IllegalArgumentException("Malformed XML-RPC call: " + ex.getMessage(), ex);
+        }
+    }
+
+    static byte[] encodeResponse(Object value) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodResponse><params><param>");
+        encodeValue(value, sb);
+        sb.append("</param></params></methodResponse>");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] encodeFault(int code, String message) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodResponse><fault>");
+        encodeValue(faultStruct(code, message), sb);
+        sb.append("</fault></methodResponse>");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** The struct XML-RPC uses for faults, also as an element of a system.multicall result. */
+    static Map<String, Object> faultStruct(int code, String message) {
+        Map<String, Object> fault = new LinkedHashMap<>();
+        fault.put("faultCode", code);
+        fault.put("faultString", message);
+        return fault;
+    }
+
+    private static void encodeValue(Object value, StringBuilder sb) {
+        sb.append("<value>");
+        if (value instanceof String s) {
+            sb.append("<string>");
+            escape(s, sb);
+            sb.append("</string>");
+        } else if (value instanceof Integer i) {
+            sb.append("<int>").append(i.intValue()).append("</int>");
+        } else if (value instanceof Boolean b) {
+            sb.append("<boolean>").append(b ? '1' : '0').append("</boolean>");
+        } else if (value instanceof Double d) {
+            // XML-RPC doubles have no exponent notation
+            sb.append("<double>").append(BigDecimal.valueOf(d).toPlainString()).append("</double>");
+        } else if (value instanceof Map<?, ?> map) {
+            sb.append("<struct>");
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                sb.append("<member><name>");
+                escape(String.valueOf(e.getKey()), sb);
+                sb.append("</name>");
+                encodeValue(e.getValue(), sb);
+                sb.append("</member>");
+            }
+            sb.append("</struct>");
+        } else if (value instanceof List<?> list) {
+            encodeArray(list.toArray(), sb);
+        } else if (value instanceof Object[] array) {
+            encodeArray(array, sb);
+        } else {
+            throw new IllegalArgumentException("Unsupported XML-RPC value: " + value);
+        }
+        sb.append("</value>");
+    }
+
+    private static void encodeArray(Object[] items, StringBuilder sb) {
+        sb.append("<array><data>");
+        for (Object item : items) encodeValue(item, sb);
+        sb.append("</data></array>");
+    }
+
+    private static void escape(String s, StringBuilder sb) {
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                default -> sb.append(ch);
+            }
+        }
+    }
+
+    // Reader is positioned on <value>; returns with the reader on </value>.
+    private static Object readValue(XMLStreamReader r) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        Object typed = null;
+        boolean hasType = false;
+        while (true) {
+            int event = r.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(r.getText());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                typed = readTyped(r);
+                hasType = true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                // <value>text</value> without a type element is a string
+                return hasType ? typed : text.toString();
+            }
+        }
+    }
+
+    // Reader is positioned on the type element inside <value>.
+    private static Object readTyped(XMLStreamReader r) throws XMLStreamException {
+        String type = r.getLocalName();
+        switch (type) {
+            case "string":
+                return r.getElementText();
+            case "int":
+            case "i4":
+                return Integer.parseInt(r.getElementText().trim());
+            case "boolean":
+                return "1".equals(r.getElementText().trim());
+            case "double":
+                return Double.parseDouble(r.getElementText().trim());
+            case "nil":
+                r.nextTag();
+                return null;
+            case "struct": {
+                Map<String, Object> struct = new HashMap<>();
+                while (r.nextTag() == XMLStreamConstants.START_ELEMENT) { // <member>
+                    String name = null;
+                    Object value = null;
+                    while (r.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if ("name".equals(r.getLocalName())) name = r.getElementText();
+                        else value = readValue(r);
+                    }
+                    struct.put(name, value);
+                }
+                return struct;
+            }
+            case "array": {
+                List<Object> items = new ArrayList<>();
+                r.nextTag(); // <data>
+                while (r.nextTag() == XMLStreamConstants.START_ELEMENT) items.add(readValue(r));
+                r.nextTag(); // </array>
+                return items.toArray();
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported XML-RPC type: " + type);
+        }
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
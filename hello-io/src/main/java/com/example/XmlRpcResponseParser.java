@@ -0,0 +1,152 @@
+package com.example;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal pull parser for single-value XML-RPC responses, working directly on the received bytes.
+ * - Scans for <fault> or the first <value> and reads the scalar inside (string, untyped, int, boolean, double).
+ * - Decodes the five predefined XML entities and numeric character references; any other entity, or a
+ *   reference with a bad digit or out of the Unicode range, is rejected rather than guessed at.
+ * - Structs and arrays are out of scope; use XmlRpcCodec for those.
+ *
+ * Teaching points:
+ * - No DOM, no SAX callbacks, no intermediate char buffers: the only allocation is the returned String.
+ */
+final class XmlRpcResponseParser {
+
+    private static final byte[] FAULT = ascii("<fault>");
+    private static final byte[] VALUE = ascii("<value>");
+    private static final byte[] FAULT_CODE = ascii("<name>faultCode</name>");
+    private static final byte[] FAULT_STRING = ascii("<name>faultString</name>");
+
+    private XmlRpcResponseParser() {}
+
+    /** Returns the response value as text (null for <nil/>), or throws Fault for a fault response. */
+    static String parse(byte[] b, int len) throws XmlRpcCodec.Fault {
+        if (indexOf(b, 0, len, FAULT) >= 0) {
+            String code = memberValue(b, len, FAULT_CODE);
+            String message = memberValue(b, len, FAULT_STRING);
+            throw new XmlRpcCodec.Fault(parseIntOrZero(code), message != null ? message : "Remote fault");
+        }
+        int value = indexOf(b, 0, len, VALUE);
+        if (value < 0) throw new IllegalArgumentException("Response has no value");
+        return scalar(b, value + VALUE.length, len);
+    }
+
+    private static String memberValue(byte[] b, int len, byte[] name) {
+        int at = indexOf(b, 0, len, name);
+        if (at < 0) return null;
+        int value = indexOf(b, at + name.length, len, VALUE);
+        return value < 0 ? null : scalar(b, value + VALUE.length, len);
+    }
+
+    // p is just past <value>
+    private static String scalar(byte[] b, int p, int len) {
+        int textEnd = indexOf(b, p, len, (byte) '<');
+        if (textEnd < 0 || textEnd + 1 >= len) throw new IllegalArgumentException("Truncated value");
+        if (b[textEnd + 1] == '/') {
+            return decode(b, p, textEnd); // untyped <value>text</value> is a string
+        }
+        int typeEnd = indexOf(b, textEnd, len, (byte) '>');
+        if (typeEnd < 0) throw new IllegalArgumentException("Truncated value");
+        if (b[typeEnd - 1] == '/') return null; // <nil/>
+        if (startsWith(b, textEnd + 1, "struct") || startsWith(b, textEnd + 1, "array")) {
+            throw new IllegalArgumentException("Only scalar responses are supported");
+        }
+        int contentEnd = indexOf(b, typeEnd + 1, len, (byte) '<');
+        if (contentEnd < 0) throw new IllegalArgumentException("Truncated value");
+        return decode(b, typeEnd + 1, contentEnd);
+    }
+
+    private static String decode(byte[] b, int from, int to) {
+        int amp = indexOf(b, from, to, (byte) '&');
+        if (amp < 0) return new String(b, from, to - from, StandardCharsets.UTF_8);
+
+        StringBuilder sb = new StringBuilder(to - from);
+        int p = from;
+        while (amp >= 0) {
+            sb.append(new String(b, p, amp - p, StandardCharsets.UTF_8));
+            int semi = indexOf(b, amp, to, (byte) ';');
+            if (semi < 0) throw new IllegalArgumentException("Unterminated entity");
+            appendEntity(b, amp + 1, semi, sb);
+            p = semi + 1;
+            amp = indexOf(b, p, to, (byte) '&');
+        }
+        sb.append(new String(b, p, to - p, StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    // b[from, to) is the entity name between '&' and ';'
+    private static void appendEntity(byte[] b, int from, int to, StringBuilder sb) {
+        if (to > from && b[from] == '#') {
+            boolean hex = to - from > 1 && (b[from + 1] == 'x' || b[from + 1] == 'X');
+            int radix = hex ? 16 : 10;
+            int digits = from + (hex ? 2 : 1);
+            if (digits == to) throw new IllegalArgumentException("Empty character reference");
+            int cp = 0;
+            for (int i = digits; i < to; i++) {
+                int digit = Character.digit(b[i], radix);
+                if (digit < 0) throw new IllegalArgumentException("Invalid character reference &" + entity(b, from, to) + ";");
+                cp = cp * radix + digit;
+                if (cp > Character.MAX_CODE_POINT) {
+                    throw new IllegalArgumentException("Character reference out of range &" + entity(b, from, to) + ";");
+                }
+            }
+            sb.appendCodePoint(cp);
+            return;
+        }
+        if (is(b, from, to, "lt")) sb.append('<');
+        else if (is(b, from, to, "gt")) sb.append('>');
+        else if (is(b, from, to, "amp")) sb.append('&');
+        else if (is(b, from, to, "quot")) sb.append('"');
+        else if (is(b, from, to, "apos")) sb.append('\'');
+        else throw new IllegalArgumentException("Unknown entity &" + entity(b, from, to) + ";");
+    }
+
+    private static boolean is(byte[] b, int from, int to, String name) {
+        return to - from == name.length() && startsWith(b, from, name);
+    }
+
+    private static String entity(byte[] b, int from, int to) {
+        return new String(b, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static int parseIntOrZero(String s) {
+        if (s == null) return 0;
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static boolean startsWith(byte[] b, int at, String prefix) {
+        if (at + prefix.length() > b.length) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (b[at + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte target) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == target) return i;
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte[] target) {
+        outer:
+        for (int i = from; i <= to - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (b[i + j] != target[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AllocationCalculatorTest {
+
+    private final AllocationCalculator calc = new AllocationCalculator();
+
+    @Test
+    void adjustNext_withThreeBuckets_matchesTheTriadPolicy() {
+        Random random = new Random(7);
+        TriadCalculator triad = new TriadCalculator();
+        for (int i = 0; i < 10_000; i++) {
+            int total = random.nextInt(200);
+            int[] v = {random.nextInt(120), random.nextInt(120), random.nextInt(120)};
+            int edited = random.nextInt(3);
+            int newValue = random.nextInt(250) - 20;
+
+            TriadCalculator.Values expected = legacyTriad(v, edited, newValue, total);
+            assertThat(triad.adjust(new TriadCalculator.Values(v[0], v[1], v[2]), TriadCalculator.Field.values()[edited], newValue, total))
+                    .isEqualTo(expected);
+            calc.adjust(v, edited, newValue, total);
+            assertThat(new TriadCalculator.Values(v[0], v[1], v[2])).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void adjustNext_takesShortfallFromTheFollowingBucketsInOrder() {
+        int[] v = {10, 10, 10, 10, 10};
+        calc.adjust(v, 1, 35, 50);
+        // next (index 2) drops to 0, then the remaining 15 over comes from index 3, then 4
+        assertThat(v).containsExactly(10, 35, 0, 0, 5);
+        assertThat(Arrays.stream(v).sum()).isEqualTo(50);
+    }
+
+    @Test
+    void adjustNext_wrapsAroundFromTheLastBucket() {
+        long[] v = {5, 5, 5, 5};
+        calc.adjust(v, 3, 8, 20);
+        assertThat(v).containsExactly(2, 5, 5, 8);
+    }
+
+    @Test
+    void proportional_keepsRatiosAndSpreadsRoundingAfterTheEditedBucket() {
+        int[] v = {50, 30, 20, 10};
+        calc.adjust(v, 0, 60, 100, AllocationCalculator.Mode.PROPORTIONAL);
+        // 40 shared 3:2:1 -> 20, 13.33, 6.67 -> floors 20, 13, 6, leftover 1 goes to index 1
+        assertThat(v).containsExactly(60, 21, 13, 6);
+
+        int[] zeros = {0, 0, 0, 0};
+        calc.adjust(zeros, 2, 1, 9, AllocationCalculator.Mode.PROPORTIONAL);
+        assertThat(zeros).containsExactly(3, 2, 1, 3); // 8 over three: 2 each, leftovers to index 3 then 0
+    }
+
+    @Test
+    void anyEdit_keepsThousandsOfBucketsNonNegativeAndSummingToTotal() {
+        Random random = new Random(11);
+        int n = 5_000;
+        int total = 1_000_000;
+        int[] v = new int[n];
+        v[0] = total;
+        long[] w = new long[n];
+        w[0] = total;
+        for (int i = 0; i < 2_000; i++) {
+            AllocationCalculator.Mode mode = AllocationCalculator.Mode.values()[i % 2];
+            int edited = random.nextInt(n);
+            int newValue = random.nextInt(total / 10);
+            calc.adjust(v, edited, newValue, total, mode);
+            calc.adjust(w, edited, newValue, total, mode);
+
+            assertThat(Arrays.stream(v).asLongStream().sum()).isEqualTo(total);
+            assertThat(Arrays.stream(v).min().getAsInt()).isNotNegative();
+            assertThat(Arrays.stream(v).asLongStream().toArray()).isEqualTo(w);
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> calc.adjust(new int[] {1, 2}, 0, 1, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calc.adjust(new int[] {1}, 0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calc.adjust(new int[] {1, -2}, 0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calc.adjust(new int[] {1, 2}, 2, 1, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> calc.adjust(new long[] {Long.MAX_VALUE / 2, Long.MAX_VALUE / 2}, 0, 0, Long.MAX_VALUE,
+                AllocationCalculator.Mode.PROPORTIONAL)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void steadyStateAdjust_doesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var modes = AllocationCalculator.Mode.values(); // values() clones its array: keep it out of the loop
+        int[] v = new int[1_000];
+        v[0] = 100_000;
+        for (int i = 0; i < 20_000; i++) {
+            calc.adjust(v, i % 1_000, i % 500, 100_000, modes[i % 2]);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20_000; i++) {
+            calc.adjust(v, i % 1_000, i % 500, 100_000, modes[i % 2]);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Allow for the measurement call itself; 20k calls allocating anything would be hundreds of kilobytes
+        assertThat(allocated).isLessThan(10_000);
+    }
+
+    // The original string-switched TriadCalculator.solve, kept as the reference for the N = 3 case
+    private static TriadCalculator.Values legacyTriad(int[] v, int edited, int newValue, int total) {
+        int e = Math.max(0, Math.min(newValue, total));
+        int a = v[0], b = v[1], c = v[2];
+        switch (edited) {
+            case 0 -> {
+                int nb = total - e - c;
+                return nb < 0 ? new TriadCalculator.Values(e, 0, Math.max(0, total - e)) : new TriadCalculator.Values(e, nb, c);
+            }
+            case 1 -> {
+                int nc = total - a - e;
+                return nc < 0 ? new TriadCalculator.Values(Math.max(0, total - e), e, 0) : new TriadCalculator.Values(a, e, nc);
+            }
+            default -> {
+                int na = total - b - e;
+                return na < 0 ? new TriadCalculator.Values(0, Math.max(0, total - e), e) : new TriadCalculator.Values(na, b, e);
+            }
+        }
+    }
+}
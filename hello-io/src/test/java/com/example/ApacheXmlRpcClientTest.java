@@ -0,0 +1,212 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.xmlrpc.XmlRpcException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApacheXmlRpcClientTest {
+
+    private static final String RESPONSE = """
+            <?xml version="1.0"?>
+            <methodResponse><params><param><value><string>Server received</string></value></param></params></methodResponse>
+            """;
+    private static final String MULTICALL_RESPONSE = """
+            <?xml version="1.0"?>
+            <methodResponse><params><param><value><array><data>
+            <value><array><data><value><string>first</string></value></data></array></value>
+            <value><struct>
+              <member><name>faultCode</name><value><int>1</int></value></member>
+              <member><name>faultString</name><value><string>bad payload</string></value></member>
+            </struct></value>
+            </data></array></value></param></params></methodResponse>
+            """;
+    private static final String NO_MULTICALL_FAULT = """
+            <?xml version="1.0"?>
+            <methodResponse><fault><value><struct>
+              <member><name>faultCode</name><value><int>1</int></value></member>
+              <member><name>faultString</name><value><string>&lt;class 'Exception'&gt;:method "system.multicall" is not supported</string></value></member>
+            </struct></value></fault></methodResponse>
+            """;
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean multicallEnabled = true;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/RPC2", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            requests.incrementAndGet();
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String response = !request.contains("system.multicall") ? RESPONSE
+                    : multicallEnabled ? MULTICALL_RESPONSE : NO_MULTICALL_FAULT;
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/xml");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Test
+    void pooledClient_reusesConnections_acrossConcurrentCalls() throws Exception {
+        var pool = new ApacheXmlRpcClient.PoolSettings(2, 4, Duration.ofSeconds(30));
+        try (ApacheXmlRpcClient client = new ApacheXmlRpcClient(url(), pool)) {
+            ExecutorService callers = Executors.newFixedThreadPool(6);
+            try {
+                List<Future<RpcClient.Result>> results = new ArrayList<>();
+                for (int i = 0; i < 60; i++) {
+                    Map<String, Object> payload = Map.of("userId", "u" + i, "amount", i, "currency", "USD");
+                    results.add(callers.submit(() -> client.sendValues(payload)));
+                }
+                for (Future<RpcClient.Result> f : results) {
+                    assertThat(f.get()).isEqualTo(RpcClient.Result.ok("Server received"));
+                }
+            } finally {
+                callers.shutdownNow();
+            }
+        }
+        // 60 calls from 6 threads were carried by at most maxConnectionsPerHost sockets
+        assertThat(clientPorts).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void pooledClient_recordsCallAndConnectionMetrics() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        try (ApacheXmlRpcClient client = new ApacheXmlRpcClient(url(), ApacheXmlRpcClient.PoolSettings.defaults(), metrics)) {
+            for (int i = 0; i < 3; i++) client.sendValues(Map.of("userId", "u" + i, "amount", i, "currency", "USD"));
+
+            assertThat(metrics.snapshot())
+                    .containsEntry("rpc.apache.call.count", 3L)
+                    .containsEntry("rpc.apache.connectionAcquire.count", 3L)
+                    .containsEntry("rpc.apache.errors", 0L)
+                    .containsEntry("rpc.apache.pool.connections", 1L);
+        }
+    }
+
+    @Test
+    void defaultClient_recordsCallMetrics() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        try (ApacheXmlRpcClient client = new ApacheXmlRpcClient(url(), metrics)) {
+            for (int i = 0; i < 3; i++) client.sendValues(Map.of("userId", "u" + i, "amount", i, "currency", "USD"));
+
+            assertThat(metrics.snapshot())
+                    .containsEntry("rpc.apache.call.count", 3L)
+                    .containsEntry("rpc.apache.errors", 0L)
+                    .doesNotContainKey("rpc.apache.pool.connections");
+        }
+    }
+
+    @Test
+    void defaultClient_appendsRpcPath_andSendsValues() throws Exception {
+        try (ApacheXmlRpcClient client = new ApacheXmlRpcClient(url())) {
+            assertThat(client.endpointUrl()).endsWith("/RPC2");
+            assertThat(client.sendValues(Map.of("userId", "alice", "amount", 1, "currency", "USD")).message())
+                    .isEqualTo("Server received");
+        }
+    }
+
+    @Test
+    void sendBatch_usesOneMulticallRoundTrip_andMapsFaultsToErrors() throws Exception {
+        try (ApacheXmlRpcClient client = new ApacheXmlRpcClient(url(), ApacheXmlRpcClient.PoolSettings.defaults())) {
+            List<RpcClient.Result> results = client.sendBatch(List.of(
+                    Map.of("userId", "a", "amount", 1, "currency", "USD"),
+                    Map.of("userId", "b", "amount", 2, "currency", "USD")));
+
+            assertThat(results).containsExactly(RpcClient.Result.ok("first"), RpcClient.Result.error("bad payload"));
+            assertThat(requests.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void batchedSends_getAFaultedEntryAsTheXmlRpcExceptionASingleCallThrows() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (BatchingRpcClient client = new BatchingRpcClient(
+                new ApacheXmlRpcClient(url(), ApacheXmlRpcClient.PoolSettings.defaults()), 2, Duration.ofMinutes(1))) {
+            List<Future<RpcClient.Result>> calls = List.of(
+                    callers.submit(() -> client.sendValues(Map.of("userId", "a"))),
+                    callers.submit(() -> client.sendValues(Map.of("userId", "b"))));
+
+            // The server answers entry 1 with "first" and faults entry 2; which caller got which slot varies
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<RpcClient.Result> call : calls) {
+                try {
+                    outcomes.add(call.get());
+                } catch (ExecutionException ex) {
+                    outcomes.add(ex.getCause());
+                }
+            }
+            assertThat(outcomes).contains(RpcClient.Result.ok("first"));
+            assertThat(outcomes).filteredOn(XmlRpcException.class::isInstance).singleElement()
+                    .isInstanceOfSatisfying(XmlRpcException.class, ex -> {
+                        assertThat(ex.code).isEqualTo(1);
+                        assertThat(ex).hasMessage("bad payload");
+                    });
+            assertThat(requests.get()).isEqualTo(1);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void sendBatch_degradesToIndividualCalls_whenServerLacksMulticall() throws Exception {
+        multicallEnabled = false;
+        try (ApacheXmlRpcClient client = new ApacheXmlRpcClient(url(), ApacheXmlRpcClient.PoolSettings.defaults())) {
+            List<Map<String, Object>> batch = List.of(Map.of("userId", "a"), Map.of("userId", "b"));
+
+            assertThat(client.sendBatch(batch)).containsExactly(
+                    RpcClient.Result.ok("Server received"), RpcClient.Result.ok("Server received"));
+            assertThat(client.isMulticallSupported()).isFalse();
+            // 1 rejected multicall + 2 individual calls
+            assertThat(requests.get()).isEqualTo(3);
+
+            client.sendBatch(batch);
+            assertThat(requests.get()).isEqualTo(5); // multicall is not retried
+        }
+    }
+
+    @Test
+    void closedClient_rejectsSends() {
+        ApacheXmlRpcClient client = new ApacheXmlRpcClient(url(), ApacheXmlRpcClient.PoolSettings.defaults());
+        client.close();
+        client.close(); // idempotent
+
+        assertThatThrownBy(() -> client.sendValues(Map.of("userId", "bob")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
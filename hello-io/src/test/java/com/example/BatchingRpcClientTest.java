@@ -0,0 +1,134 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchingRpcClientTest {
+
+    /** Echoes each payload's userId back and records the batch sizes it saw. */
+    static class RecordingDelegate implements RpcClient {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Result sendValues(Map<String, Object> payload) {
+            batchSizes.add(1);
+            return Result.ok("got " + payload.get("userId"));
+        }
+
+        @Override
+        public List<Result> sendBatch(List<Map<String, Object>> payloads) {
+            batchSizes.add(payloads.size());
+            List<Result> results = new ArrayList<>();
+            for (Map<String, Object> p : payloads) results.add(Result.ok("got " + p.get("userId")));
+            return results;
+        }
+    }
+
+    @Test
+    void flushesWhenBatchIsFull_andFansResultsBackToEachCaller() throws Exception {
+        RecordingDelegate delegate = new RecordingDelegate();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try (BatchingRpcClient client = new BatchingRpcClient(delegate, 4, Duration.ofMinutes(1))) {
+            List<Future<RpcClient.Result>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String userId = "u" + i;
+                results.add(callers.submit(() -> client.sendValues(Map.of("userId", userId))));
+            }
+            for (int i = 0; i < 4; i++) {
+                assertThat(results.get(i).get().message()).isEqualTo("got u" + i);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(delegate.batchSizes).containsExactly(4);
+    }
+
+    @Test
+    void flushesAfterMaxDelay_whenBatchIsNotFull() throws Exception {
+        RecordingDelegate delegate = new RecordingDelegate();
+        try (BatchingRpcClient client = new BatchingRpcClient(delegate, 100, Duration.ofMillis(20))) {
+            RpcClient.Result result = client.sendValues(Map.of("userId", "alice"));
+            assertThat(result).isEqualTo(RpcClient.Result.ok("got alice"));
+        }
+        assertThat(delegate.batchSizes).containsExactly(1);
+    }
+
+    @Test
+    void batchFailure_isRethrownToEveryCaller() throws Exception {
+        RpcClient failing = new RpcClient() {
+            @Override public Result sendValues(Map<String, Object> payload) { throw new IllegalStateException("down"); }
+            @Override public List<Result> sendBatch(List<Map<String, Object>> payloads) { throw new IllegalStateException("down"); }
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (BatchingRpcClient client = new BatchingRpcClient(failing, 2, Duration.ofMinutes(1))) {
+            Future<RpcClient.Result> first = callers.submit(() -> client.sendValues(Map.of("userId", "a")));
+            Future<RpcClient.Result> second = callers.submit(() -> client.sendValues(Map.of("userId", "b")));
+            assertThatThrownBy(first::get).hasRootCauseMessage("down");
+            assertThatThrownBy(second::get).hasRootCauseMessage("down");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void faultForOneEntry_reachesOnlyItsCaller_asTheSameException() throws Exception {
+        XmlRpcCodec.Fault fault = new XmlRpcCodec.Fault(4, "Unknown user");
+        RpcClient delegate = new RpcClient() {
+            @Override public Result sendValues(Map<String, Object> payload) { throw new AssertionError("batched"); }
+            @Override public List<CompletableFuture<Result>> sendEach(List<Map<String, Object>> payloads) {
+                return List.of(CompletableFuture.completedFuture(Result.ok("ok")), CompletableFuture.failedFuture(fault));
+            }
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (BatchingRpcClient client = new BatchingRpcClient(delegate, 2, Duration.ofMinutes(1))) {
+            List<Future<RpcClient.Result>> calls = List.of(
+                    callers.submit(() -> client.sendValues(Map.of("userId", "a"))),
+                    callers.submit(() -> client.sendValues(Map.of("userId", "b"))));
+
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<RpcClient.Result> call : calls) {
+                try {
+                    outcomes.add(call.get());
+                } catch (ExecutionException ex) {
+                    outcomes.add(ex.getCause());
+                }
+            }
+            assertThat(outcomes).containsExactlyInAnyOrder(RpcClient.Result.ok("ok"), fault);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void close_closesTheDelegate() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        class CloseableDelegate extends RecordingDelegate implements AutoCloseable {
+            @Override public void close() { closed.set(true); }
+        }
+        new BatchingRpcClient(new CloseableDelegate(), 10, Duration.ofMillis(5)).close();
+
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void closedClient_rejectsSends() {
+        BatchingRpcClient client = new BatchingRpcClient(new RecordingDelegate(), 10, Duration.ofMillis(5));
+        client.close();
+        assertThatThrownBy(() -> client.sendValues(Map.of("userId", "late")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
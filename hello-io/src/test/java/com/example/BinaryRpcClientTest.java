@@ -0,0 +1,175 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryRpcClientTest {
+
+    private StandInBinaryServer server;
+    private BinaryRpcClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) client.close();
+        if (server != null) server.close();
+    }
+
+    private BinaryRpcClient start(StandInXmlRpcServer.Settings settings) throws IOException {
+        server = new StandInBinaryServer(settings);
+        client = new BinaryRpcClient(server.address());
+        return client;
+    }
+
+    private static Map<String, Object> payload(String userId, int amount) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", userId);
+        payload.put("amount", amount);
+        payload.put("currency", "USD");
+        return payload;
+    }
+
+    @Test
+    void sendValues_returnsTheServerReply() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults());
+
+        RpcClient.Result result = client.sendValues(payload("alice", 42));
+
+        assertThat(result).isEqualTo(RpcClient.Result.ok("Server received: userId=alice, amount=42 USD"));
+        assertThat(server.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void faults_areThrownLikeTheXmlRpcClientsDo() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults().withFaultRate(1));
+
+        assertThatThrownBy(() -> client.sendValues(payload("alice", 1)))
+                .isInstanceOf(XmlRpcCodec.Fault.class)
+                .hasMessage("Injected failure")
+                .satisfies(ex -> assertThat(((XmlRpcCodec.Fault) ex).code).isEqualTo(StandInXmlRpcServer.INJECTED_FAULT));
+    }
+
+    @Test
+    void manyCalls_areOutstandingOnOneConnection_andRepliesFindTheirCaller() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofMillis(200)));
+
+        long started = System.nanoTime();
+        List<CompletableFuture<RpcClient.Result>> calls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) calls.add(client.sendValuesAsync(payload("user" + i, i)));
+        for (int i = 0; i < 50; i++) {
+            assertThat(calls.get(i).get(5, TimeUnit.SECONDS).message())
+                    .isEqualTo("Server received: userId=user" + i + ", amount=" + i + " USD");
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(server.peakInFlight()).isGreaterThan(1);
+        assertThat(elapsedMillis).isLessThan(50 * 200 / 4); // one at a time would take 10 s
+        assertThat(client.outstanding()).isZero();
+    }
+
+    @Test
+    void sendBatch_pipelinesTheWholeBatch() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofMillis(100)));
+
+        List<RpcClient.Result> results = client.sendBatch(List.of(payload("a", 1), payload("b", 2), payload("c", 3)));
+
+        assertThat(results).extracting(RpcClient.Result::message).containsExactly(
+                "Server received: userId=a, amount=1 USD",
+                "Server received: userId=b, amount=2 USD",
+                "Server received: userId=c, amount=3 USD");
+        assertThat(server.peakInFlight()).isEqualTo(3);
+    }
+
+    @Test
+    void droppedConnection_failsOutstandingCalls_andTheNextSendReconnects() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofMillis(500)));
+        CompletableFuture<RpcClient.Result> call = client.sendValuesAsync(payload("alice", 1));
+        while (server.peakInFlight() == 0) Thread.onSpinWait();
+
+        server.dropConnections();
+
+        assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThat(client.sendValues(payload("bob", 2)).success()).isTrue();
+        assertThat(server.connections()).isEqualTo(2);
+    }
+
+    @Test
+    void answeredCalls_cancelTheirReplyTimeouts() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults());
+        List<CompletableFuture<RpcClient.Result>> calls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) calls.add(client.sendValuesAsync(payload("user" + i, i)));
+        for (CompletableFuture<RpcClient.Result> call : calls) assertThat(call.get(5, TimeUnit.SECONDS).success()).isTrue();
+
+        // Nothing waits out the 5 s reply timeout of a call that has been answered
+        assertThat(client.scheduledTimeouts()).isZero();
+    }
+
+    @Test
+    void callWithoutReply_timesOut() throws Exception {
+        server = new StandInBinaryServer(StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofSeconds(5)));
+        client = new BinaryRpcClient(server.socketAddress(), Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> client.sendValues(payload("alice", 1)))
+                .isInstanceOf(SocketTimeoutException.class);
+        assertThat(client.outstanding()).isZero();
+    }
+
+    @Test
+    void closedClient_refusesSends_andUnreachableServerFailsTheCall() throws Exception {
+        start(StandInXmlRpcServer.Settings.defaults());
+        client.close();
+        assertThatThrownBy(() -> client.sendValues(payload("alice", 1))).isInstanceOf(IOException.class);
+
+        String address = server.address();
+        server.close();
+        server = null;
+        client = new BinaryRpcClient(address);
+        assertThatThrownBy(() -> client.sendValues(payload("alice", 1))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void receiveFrames_areAFractionOfTheXmlRpcRequest() throws Exception {
+        Map<String, Object> payload = payload("alice", 42);
+
+        ByteBuffer frame = BinaryRpcCodec.request(7, payload);
+        int binaryBytes = frame.remaining();
+        BinaryRpcCodec.Frame decoded = BinaryRpcCodec.read(Channels.newChannel(
+                new ByteArrayInputStream(frame.array())), ByteBuffer.allocate(BinaryRpcCodec.HEADER_BYTES));
+
+        assertThat(decoded.id()).isEqualTo(7);
+        assertThat(BinaryRpcCodec.payload(decoded)).isEqualTo(payload);
+        assertThat(binaryBytes).isLessThan(80);
+        assertThat(binaryBytes * 4).isLessThan(XmlRpcCodec.encodeCall("receive", payload).length);
+    }
+
+    @Test
+    void truncatedFrames_areRejected() {
+        ByteBuffer frame = BinaryRpcCodec.ok(1, "hello");
+        byte[] truncated = Arrays.copyOf(frame.array(), frame.remaining() - 2);
+
+        assertThatThrownBy(() -> BinaryRpcCodec.read(Channels.newChannel(new ByteArrayInputStream(truncated)),
+                ByteBuffer.allocate(BinaryRpcCodec.HEADER_BYTES)))
+                .isInstanceOf(EOFException.class);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class BulkImporterTest {
+
+    @TempDir
+    Path dir;
+
+    private Path csv(String... lines) throws IOException {
+        return Files.write(dir.resolve("rows.csv"), List.of(lines));
+    }
+
+    @Test
+    void sendsEveryValidRow_andReportsInvalidOnesWithTheirLine() throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("ok"));
+        Path file = csv("userId,amount", "alice,10", "", "bob,x", " ,5", "carol,7,extra", "\"d,ave\",3");
+
+        BulkImporter importer = new BulkImporter(client, Runnable::run, 4);
+        BulkImporter.Progress done = importer.run(file);
+
+        assertThat(done.rowsRead()).isEqualTo(5);
+        assertThat(done.succeeded()).isEqualTo(2);
+        assertThat(done.invalid()).isEqualTo(3);
+        assertThat(done.failed()).isZero();
+        assertThat(done.inFlight()).isZero();
+        assertThat(done.done()).isTrue();
+        assertThat(done.bytesRead()).isEqualTo(done.totalBytes());
+        assertThat(importer.rowErrors()).containsExactly(
+                new BulkImporter.RowError(4, "Amount must be a whole number >= 0."),
+                new BulkImporter.RowError(5, "User ID is required."),
+                new BulkImporter.RowError(6, "Expected 2 fields (userId,amount), got 3"));
+        verify(client).sendValues(Map.of("userId", "alice", "amount", 10, "currency", "USD"));
+        verify(client).sendValues(Map.of("userId", "d,ave", "amount", 3, "currency", "USD"));
+    }
+
+    @Test
+    void neverHasMoreThanMaxInFlightRowsUnanswered() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        RpcClient client = payload -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(2);
+            running.decrementAndGet();
+            return RpcClient.Result.ok("ok");
+        };
+        String[] rows = new String[500];
+        for (int i = 0; i < rows.length; i++) rows[i] = "user" + i + "," + i;
+        Path file = csv(rows);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            BulkImporter.Progress done = new BulkImporter(client, executor, 8).run(file);
+
+            assertThat(done.succeeded()).isEqualTo(500);
+        }
+        assertThat(peak.get()).isBetween(2, 8);
+    }
+
+    @Test
+    void identicalRows_areEachSent() throws Exception {
+        CountDownLatch bothSent = new CountDownLatch(2);
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenAnswer(call -> {
+            // Hold the first row until the second is sent, so the two are in flight together
+            bothSent.countDown();
+            bothSent.await(5, TimeUnit.SECONDS);
+            return RpcClient.Result.ok("ok");
+        });
+        Path file = csv("alice,1", "alice,1");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            BulkImporter.Progress done = new BulkImporter(client, executor, 4).run(file);
+
+            assertThat(done.succeeded()).isEqualTo(2);
+        }
+        verify(client, times(2)).sendValues(Map.of("userId", "alice", "amount", 1, "currency", "USD"));
+    }
+
+    @Test
+    void retainedHeap_doesNotGrowWithTheFile() throws Exception {
+        long small = retainedHalfWay(50_000);
+        long big = retainedHalfWay(500_000);
+
+        // Ten times the rows; a reader that buffered them would retain tens of MB more
+        assertThat(big).isLessThan(small + 8 * 1024 * 1024);
+    }
+
+    // Heap in use after a GC half-way through an import of rows rows, i.e. what the importer holds on to
+    private long retainedHalfWay(int rows) throws Exception {
+        Path file = dir.resolve("rows" + rows + ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < rows; i++) out.write("user" + i + "," + i + "\n");
+        }
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong retained = new AtomicLong();
+        AtomicInteger sent = new AtomicInteger();
+        RpcClient client = payload -> {
+            if (sent.incrementAndGet() == rows / 2) {
+                System.gc();
+                retained.set(memory.getHeapMemoryUsage().getUsed());
+            }
+            return RpcClient.Result.ok("ok");
+        };
+
+        BulkImporter.Progress done = new BulkImporter(client, Runnable::run, 16).run(file);
+
+        assertThat(done.succeeded()).isEqualTo(rows);
+        return retained.get();
+    }
+
+    @Test
+    void failures_areCountedByMessage() throws Exception {
+        RpcClient client = payload -> payload.get("userId").equals("bad")
+                ? RpcClient.Result.error("Rejected")
+                : RpcClient.Result.ok("ok");
+        Path file = csv("good,1", "bad,1", "good,2", "bad,2");
+
+        BulkImporter importer = new BulkImporter(client, Runnable::run, 2);
+        BulkImporter.Progress done = importer.run(file);
+
+        assertThat(done.succeeded()).isEqualTo(2);
+        assertThat(done.failed()).isEqualTo(2);
+        assertThat(importer.failures()).hasSize(1).containsValue(2L);
+    }
+
+    @Test
+    void cancel_stopsReadingAndWaitsForRowsInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RpcClient client = payload -> {
+            release.await(5, TimeUnit.SECONDS);
+            return RpcClient.Result.ok("ok");
+        };
+        String[] rows = new String[100];
+        for (int i = 0; i < rows.length; i++) rows[i] = "user" + i + ",1";
+        Path file = csv(rows);
+        BulkImporter importer = new BulkImporter(client, Executors.newVirtualThreadPerTaskExecutor(), 3);
+
+        ExecutorService runner = Executors.newSingleThreadExecutor();
+        try {
+            Future<BulkImporter.Progress> run = runner.submit(() -> importer.run(file));
+            await().atMost(5, TimeUnit.SECONDS).until(() -> importer.progress().inFlight() == 3);
+            importer.cancel();
+            release.countDown();
+
+            BulkImporter.Progress done = run.get(5, TimeUnit.SECONDS);
+            assertThat(done.rowsRead()).isLessThan(100);
+            assertThat(done.finished()).isEqualTo(done.rowsRead());
+            assertThat(done.inFlight()).isZero();
+            assertThatThrownBy(() -> importer.run(file)).isInstanceOf(IllegalStateException.class);
+        } finally {
+            runner.shutdownNow();
+        }
+    }
+
+    @Test
+    void parsesQuotedFields() {
+        assertThat(BulkImporter.parseCsvLine("a,1")).containsExactly("a", "1");
+        assertThat(BulkImporter.parseCsvLine("\"say \"\"hi\"\"\",2")).containsExactly("say \"hi\"", "2");
+        assertThat(BulkImporter.parseCsvLine("only")).containsExactly("only");
+        assertThat(BulkImporter.parseCsvLine("a,")).containsExactly("a", "");
+    }
+}
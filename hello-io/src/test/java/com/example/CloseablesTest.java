@@ -0,0 +1,43 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CloseablesTest {
+
+    @Test
+    void close_shutsExecutorServicesDown_andIgnoresPlainObjects() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Closeables.close(executor);
+        Closeables.close("not closeable");
+
+        assertThat(executor.isShutdown()).isTrue();
+    }
+
+    @Test
+    void close_wrapsCheckedExceptions_andRestoresTheInterrupt() {
+        AutoCloseable failing = () -> { throw new IOException("disk gone"); };
+        AutoCloseable interrupted = () -> { throw new InterruptedException(); };
+
+        assertThatThrownBy(() -> Closeables.close(failing))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThatThrownBy(() -> Closeables.close(interrupted)).isInstanceOf(IllegalStateException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void closeQuietly_ignoresFailures() {
+        AutoCloseable failing = () -> { throw new IllegalStateException("already closed"); };
+
+        assertThatCode(() -> Closeables.closeQuietly(failing)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentTriadPresenterTest {
+
+    static class RecordingListener implements ConcurrentTriadPresenter.Listener {
+        final AtomicReference<ConcurrentTriadPresenter.Snapshot> latest = new AtomicReference<>();
+        final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void onStateChanged(ConcurrentTriadPresenter.Snapshot snapshot) {
+            latest.accumulateAndGet(snapshot, (shown, arrived) -> arrived.isNewerThan(shown) ? arrived : shown);
+        }
+
+        @Override
+        public void onValidationError(TriadCalculator.Field field, String message) {
+            errors.add(field + ": " + message);
+        }
+    }
+
+    @Test
+    void edits_followTheTriadPolicy_andBumpTheVersion() {
+        var listener = new RecordingListener();
+        var presenter = new ConcurrentTriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(30, 40, 30));
+
+        var afterEdit = presenter.onFieldEdited(TriadCalculator.Field.A, "50");
+        assertThat(afterEdit.values()).isEqualTo(new TriadCalculator.Values(50, 20, 30));
+        assertThat(afterEdit.version()).isEqualTo(1);
+
+        var afterTotal = presenter.setTotal(60);
+        assertThat(afterTotal.total()).isEqualTo(60);
+        assertThat(afterTotal.values()).isEqualTo(new TriadCalculator.Values(50, 0, 10));
+        assertThat(listener.latest.get()).isEqualTo(afterTotal);
+    }
+
+    @Test
+    void invalidInput_isReported_andChangesNothing() {
+        var listener = new RecordingListener();
+        var presenter = new ConcurrentTriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(25, 25, 50));
+
+        assertThat(presenter.onFieldEdited(TriadCalculator.Field.C, "abc")).isNull();
+        assertThat(presenter.setTotal(-1)).isNull();
+
+        assertThat(listener.errors).hasSize(2);
+        assertThat(presenter.snapshot().version()).isZero();
+    }
+
+    @Test
+    void programmaticGuard_onlySuppressesEditsFromTheSameThread() throws Exception {
+        var presenter = new ConcurrentTriadPresenter(new TriadCalculator(), new RecordingListener(), 100,
+                new TriadCalculator.Values(0, 50, 50));
+
+        presenter.beginProgrammaticUpdate();
+        try {
+            assertThat(presenter.onFieldEdited(TriadCalculator.Field.A, "10")).isNull(); // view feedback: ignored
+
+            AtomicReference<ConcurrentTriadPresenter.Snapshot> fromScript = new AtomicReference<>();
+            Thread script = Thread.ofPlatform().start(() -> fromScript.set(presenter.onFieldEdited(TriadCalculator.Field.A, "20")));
+            script.join();
+            assertThat(fromScript.get().values().a).isEqualTo(20);
+        } finally {
+            presenter.endProgrammaticUpdate();
+        }
+        assertThat(presenter.onFieldEdited(TriadCalculator.Field.A, "30").values().a).isEqualTo(30);
+    }
+
+    private record Op(TriadCalculator.Field field, int value, ConcurrentTriadPresenter.Snapshot result) {
+        boolean isTotal() {
+            return field == null;
+        }
+    }
+
+    @Test
+    void concurrentEdits_areLinearizable() throws Exception {
+        int threads = 8;
+        int opsPerThread = 5_000;
+        var initial = new TriadCalculator.Values(100, 100, 100);
+        var listener = new RecordingListener();
+        var presenter = new ConcurrentTriadPresenter(new TriadCalculator(new TriadCalculator.ValuesCache(1024)),
+                listener, 300, initial);
+
+        List<List<Op>> perThread = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<String> torn = new ArrayList<>();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                var s = presenter.snapshot();
+                if (s.values().a + s.values().b + s.values().c != s.total()) torn.add(s.toString());
+            }
+        });
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Op> ops = new ArrayList<>(opsPerThread);
+            perThread.add(ops);
+            SplittableRandom random = new SplittableRandom(t);
+            writers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < opsPerThread; i++) {
+                    if (random.nextInt(10) == 0) {
+                        int total = random.nextInt(100, 500);
+                        ops.add(new Op(null, total, presenter.setTotal(total)));
+                    } else {
+                        var field = TriadCalculator.Field.values()[random.nextInt(3)];
+                        int value = random.nextInt(0, 600);
+                        ops.add(new Op(field, value, presenter.edit(field, value)));
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread w : writers) w.join();
+        running.set(false);
+        reader.join();
+
+        // The version numbers give the linearization order: replaying the ops sequentially in that order
+        // must reproduce exactly the snapshot each thread got back.
+        List<Op> all = new ArrayList<>();
+        perThread.forEach(all::addAll);
+        all.sort(Comparator.comparingLong(op -> op.result().version()));
+
+        var calculator = new TriadCalculator();
+        var values = initial;
+        int total = 300;
+        for (int i = 0; i < all.size(); i++) {
+            Op op = all.get(i);
+            if (op.isTotal()) {
+                values = calculator.adjust(values, TriadCalculator.Field.A, values.a, op.value());
+                total = op.value();
+            } else {
+                values = calculator.adjust(values, op.field(), op.value(), total);
+            }
+            assertThat(op.result().version()).isEqualTo(i + 1L);
+            assertThat(op.result().total()).isEqualTo(total);
+            assertThat(op.result().values()).isEqualTo(values);
+        }
+        assertThat(torn).isEmpty();
+        assertThat(presenter.snapshot().version()).isEqualTo((long) threads * opsPerThread);
+        assertThat(listener.latest.get()).isEqualTo(presenter.snapshot());
+    }
+}
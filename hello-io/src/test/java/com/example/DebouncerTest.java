@@ -0,0 +1,64 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DebouncerTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(100);
+
+    @Test
+    void debounce_runsOnceAfterInputHasBeenQuietForTheWindow() {
+        ManualScheduler scheduler = new ManualScheduler();
+        int[] runs = {0};
+        Debouncer debouncer = new Debouncer(scheduler, WINDOW, Debouncer.Mode.DEBOUNCE, () -> runs[0]++);
+
+        for (int i = 0; i < 5; i++) {
+            debouncer.trigger();
+            scheduler.advance(Duration.ofMillis(60));
+        }
+        assertThat(runs[0]).isZero();
+
+        scheduler.advance(Duration.ofMillis(40));
+        assertThat(runs[0]).isEqualTo(1);
+        assertThat(debouncer.isPending()).isFalse();
+    }
+
+    @Test
+    void throttle_runsAtMostOncePerWindowDuringContinuousInput() {
+        ManualScheduler scheduler = new ManualScheduler();
+        int[] runs = {0};
+        Debouncer debouncer = new Debouncer(scheduler, WINDOW, Debouncer.Mode.THROTTLE, () -> runs[0]++);
+
+        for (int i = 0; i < 10; i++) {
+            debouncer.trigger();
+            scheduler.advance(Duration.ofMillis(30));
+        }
+        // 300 ms of typing: fired at 100, 220 (first trigger after 100 was at 120), pending again after that
+        assertThat(runs[0]).isEqualTo(2);
+        scheduler.advance(WINDOW);
+        assertThat(runs[0]).isEqualTo(3);
+    }
+
+    @Test
+    void flush_runsPendingActionImmediately_andCancel_dropsIt() {
+        ManualScheduler scheduler = new ManualScheduler();
+        int[] runs = {0};
+        Debouncer debouncer = new Debouncer(scheduler, WINDOW, Debouncer.Mode.DEBOUNCE, () -> runs[0]++);
+
+        debouncer.flush();
+        assertThat(runs[0]).isZero();
+
+        debouncer.trigger();
+        debouncer.flush();
+        assertThat(runs[0]).isEqualTo(1);
+
+        debouncer.trigger();
+        debouncer.cancel();
+        scheduler.advance(WINDOW);
+        assertThat(runs[0]).isEqualTo(1);
+    }
+}
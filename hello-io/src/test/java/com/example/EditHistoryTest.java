@@ -0,0 +1,97 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EditHistoryTest {
+
+    @Test
+    void undoAndRedo_walkBackAndForthThroughRecordedStates() {
+        EditHistory history = new EditHistory(64);
+        List<int[]> states = new ArrayList<>();
+        states.add(new int[] {34, 33, 33, 100});
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            int[] prev = states.get(states.size() - 1);
+            // Mix small steps (narrow entries) and huge ones (wide entries)
+            int scale = i % 4 == 0 ? 1_000_000 : 100;
+            int[] next = {random.nextInt(scale), random.nextInt(scale), random.nextInt(scale), random.nextInt(scale)};
+            history.record(prev, next);
+            states.add(next);
+        }
+
+        int[] state = states.get(states.size() - 1).clone();
+        for (int i = states.size() - 2; i >= 0; i--) {
+            assertThat(history.undo(state)).isTrue();
+            assertThat(state).containsExactly(states.get(i));
+        }
+        assertThat(history.undo(state)).isFalse();
+
+        for (int i = 1; i < states.size(); i++) {
+            assertThat(history.redo(state)).isTrue();
+            assertThat(state).containsExactly(states.get(i));
+        }
+        assertThat(history.redo(state)).isFalse();
+    }
+
+    @Test
+    void recordingAfterUndo_discardsRedoSteps() {
+        EditHistory history = new EditHistory(16);
+        int[] state = {0, 0, 0, 0};
+        history.record(state, new int[] {1, 0, 0, 1});
+        state = new int[] {1, 0, 0, 1};
+        history.undo(state);
+
+        history.record(state, new int[] {0, 5, 0, 5});
+        assertThat(history.canRedo()).isFalse();
+        assertThat(history.canUndo()).isTrue();
+    }
+
+    @Test
+    void equalStates_areNotRecorded() {
+        EditHistory history = new EditHistory(16);
+        history.record(new int[] {1, 2, 3, 6}, new int[] {1, 2, 3, 6});
+        assertThat(history.canUndo()).isFalse();
+    }
+
+    @Test
+    void fullRing_dropsOldestSteps_andKeepsRecentOnesExact() {
+        EditHistory history = new EditHistory(16);
+        int[] state = {0, 0, 0, 0};
+        for (int i = 1; i <= 100; i++) {
+            // Every third step is wide (3 slots), so eviction has to skip whole entries
+            int step = i % 3 == 0 ? 100_000 : 1;
+            int[] next = {state[0] + step, state[1], state[2], state[3] + step};
+            history.record(state, next);
+            state = next;
+        }
+        assertThat(history.usedSlots()).isLessThanOrEqualTo(16);
+
+        int[] expected = state.clone();
+        int undone = 0;
+        while (history.undo(state)) undone++;
+        assertThat(undone).isBetween(5, 16);
+        while (history.redo(state)) undone--;
+        assertThat(undone).isZero();
+        assertThat(state).containsExactly(expected);
+    }
+
+    @Test
+    void thousandsOfTypicalEdits_fitInAFewKilobytes() {
+        EditHistory history = new EditHistory(4096);
+        int[] state = {34, 33, 33, 100};
+        for (int i = 0; i < 4_000; i++) {
+            int a = i % 90;
+            int[] next = {a, 90 - a, 10, 100};
+            history.record(state, next);
+            state = next;
+        }
+        // One 8-byte slot per edit
+        assertThat(history.usedSlots()).isLessThanOrEqualTo(4_000);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EdtCoalescerTest {
+
+    /** Stands in for the EDT queue so its length can be observed. */
+    static class QueueingEdt implements Executor {
+        final Queue<Runnable> queue = new ArrayDeque<>();
+        int maxLength;
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            queue.add(task);
+            maxLength = Math.max(maxLength, queue.size());
+        }
+
+        synchronized void runAll() {
+            Runnable task;
+            while ((task = queue.poll()) != null) task.run();
+        }
+    }
+
+    @Test
+    void burstOfUpdates_postsOnePass_andAppliesOnlyTheLatest() {
+        QueueingEdt edt = new QueueingEdt();
+        List<Integer> applied = new ArrayList<>();
+        EdtCoalescer<Integer> coalescer = new EdtCoalescer<>(0, applied::add, edt);
+
+        for (int i = 1; i <= 1_000; i++) {
+            int value = i;
+            coalescer.update(previous -> value);
+        }
+        assertThat(edt.queue).hasSize(1);
+
+        edt.runAll();
+        assertThat(applied).containsExactly(1_000);
+        assertThat(coalescer.passesPosted()).isEqualTo(1);
+    }
+
+    @Test
+    void updateAfterAPassRan_schedulesAnotherPass() {
+        QueueingEdt edt = new QueueingEdt();
+        List<Integer> applied = new ArrayList<>();
+        EdtCoalescer<Integer> coalescer = new EdtCoalescer<>(0, applied::add, edt);
+
+        coalescer.update(previous -> previous + 1);
+        edt.runAll();
+        coalescer.update(previous -> previous + 1);
+        edt.runAll();
+
+        // Each pass starts from the empty state again
+        assertThat(applied).containsExactly(1, 1);
+    }
+
+    @Test
+    void rapidTypingInTriad_reducesQueuedEdtWork() {
+        QueueingEdt naiveEdt = new QueueingEdt();
+        TriadPresenter.Listener naive = new TriadPresenter.Listener() {
+            @Override public void onValuesChanged(TriadCalculator.Values values) { naiveEdt.execute(() -> {}); }
+            @Override public void onValidationError(TriadCalculator.Field field, String message) { naiveEdt.execute(() -> {}); }
+            @Override public void onTotalChanged(int total) { naiveEdt.execute(() -> {}); }
+        };
+
+        QueueingEdt coalescedEdt = new QueueingEdt();
+        List<TriadPanel.Update> applied = new ArrayList<>();
+        EdtCoalescer<TriadPanel.Update> updates = new EdtCoalescer<>(TriadPanel.Update.NONE, applied::add, coalescedEdt);
+        TriadPresenter.Listener coalesced = new TriadPresenter.Listener() {
+            @Override public void onValuesChanged(TriadCalculator.Values values) { updates.update(u -> u.withValues(values)); }
+            @Override public void onValidationError(TriadCalculator.Field field, String message) { updates.update(u -> u.withError(field)); }
+            @Override public void onTotalChanged(int total) { updates.update(u -> u.withTotal(total)); }
+        };
+
+        for (TriadPresenter.Listener listener : List.of(naive, coalesced)) {
+            TriadPresenter presenter = new TriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(34, 33, 33));
+            for (int i = 0; i < 200; i++) {
+                presenter.onFieldEdited(TriadCalculator.Field.A, String.valueOf(i % 100));
+                if (i % 50 == 0) presenter.setTotal(100 + i);
+            }
+            presenter.onFieldEdited(TriadCalculator.Field.B, "x");
+        }
+
+        assertThat(naiveEdt.maxLength).isGreaterThan(200);
+        assertThat(coalescedEdt.maxLength).isEqualTo(1);
+
+        coalescedEdt.runAll();
+        TriadPanel.Update last = applied.get(0);
+        assertThat(last.total()).isEqualTo(250);
+        assertThat(last.values().a + last.values().b + last.values().c).isEqualTo(250);
+        assertThat(last.errors()).containsExactly(TriadCalculator.Field.B);
+    }
+
+    @Test
+    void concurrentUpdates_areNeverLost() throws Exception {
+        QueueingEdt edt = new QueueingEdt();
+        List<Integer> applied = new ArrayList<>();
+        EdtCoalescer<Integer> coalescer = new EdtCoalescer<>(0, applied::add, edt);
+        int threads = 4;
+        int perThread = 10_000;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) coalescer.update(previous -> previous + 1);
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        edt.runAll();
+
+        assertThat(applied.stream().mapToInt(Integer::intValue).sum()).isEqualTo(threads * perThread);
+    }
+}
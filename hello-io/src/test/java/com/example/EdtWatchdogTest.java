@@ -0,0 +1,94 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Toolkit;
+import java.awt.event.InvocationEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Dispatches events directly on the test thread, so no display (or real EDT) is needed
+class EdtWatchdogTest {
+
+    private final List<EdtWatchdog.Stall> reported = new ArrayList<>();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final EdtWatchdog watchdog = new EdtWatchdog(Duration.ofMillis(50), metrics, reported::add);
+
+    @AfterEach
+    void tearDown() {
+        watchdog.uninstall();
+    }
+
+    private static InvocationEvent event(Runnable work) {
+        return new InvocationEvent(Toolkit.getDefaultToolkit(), work);
+    }
+
+    @Test
+    void fastEvents_areTimed_butNotReported() {
+        for (int i = 0; i < 10; i++) watchdog.dispatchEvent(event(() -> {}));
+
+        assertThat(watchdog.dispatchTimes().count()).isEqualTo(10);
+        assertThat(metrics.snapshot()).containsEntry("edt.dispatch.count", 10L).containsEntry("edt.stalls", 0L);
+        assertThat(reported).isEmpty();
+        watchdog.assertNoStalls();
+    }
+
+    @Test
+    void slowEvent_isReported_withTheStackCapturedWhileItWasStuck() {
+        watchdog.dispatchEvent(event(EdtWatchdogTest::blockingCall));
+
+        assertThat(reported).hasSize(1);
+        EdtWatchdog.Stall stall = reported.get(0);
+        assertThat(stall.duration()).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(stall.event()).startsWith("InvocationEvent");
+        assertThat(stall.stack()).anySatisfy(frame -> assertThat(frame.getMethodName()).isEqualTo("blockingCall"));
+        assertThat(metrics.snapshot()).containsEntry("edt.stalls", 1L);
+
+        assertThatThrownBy(watchdog::assertNoStalls)
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("1 EDT stall(s)")
+                .hasMessageContaining("blockingCall");
+        watchdog.clearStalls();
+        watchdog.assertNoStalls();
+    }
+
+    @Test
+    void eventRunningANestedLoop_isNotAStall() {
+        // Like a modal dialog: the outer event dispatches further events until the dialog closes
+        watchdog.dispatchEvent(event(() -> {
+            for (int i = 0; i < 4; i++) {
+                watchdog.dispatchEvent(event(() -> sleep(30)));
+            }
+        }));
+
+        assertThat(reported).isEmpty();
+        assertThat(watchdog.dispatchTimes().count()).isZero();
+    }
+
+    @Test
+    void queueWait_isMeasuredFromEventCreation() {
+        InvocationEvent queued = event(() -> {});
+        sleep(40);
+
+        watchdog.dispatchEvent(queued);
+
+        assertThat(watchdog.queueWaitMillis().max()).isGreaterThanOrEqualTo(40);
+    }
+
+    private static void blockingCall() {
+        sleep(300);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpXmlRpcClientTest {
+
+    private HttpServer server;
+    private volatile String response = """
+            <?xml version="1.0"?>
+            <methodResponse><params><param><value><string>Server received</string></value></param></params></methodResponse>
+            """;
+    private volatile long delayMillis = 0;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/RPC2", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private HttpXmlRpcClient client() {
+        return new HttpXmlRpcClient("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void sendValuesAsync_completesWithServerMessage() throws Exception {
+        RpcClient.Result result = client()
+                .sendValuesAsync(Map.of("userId", "alice", "amount", 42, "currency", "USD"))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(RpcClient.Result.ok("Server received"));
+    }
+
+    @Test
+    void manySlowSends_areInFlightAtOnce_withoutBlockingTheCaller() throws Exception {
+        delayMillis = 300;
+        HttpXmlRpcClient client = client();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<RpcClient.Result>> inFlight = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            inFlight.add(client.sendValuesAsync(Map.of("userId", "u" + i, "amount", i, "currency", "USD")));
+        }
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(20, TimeUnit.SECONDS);
+        // Submitting never waited on a round trip
+        assertThat(submitMillis).isLessThan(delayMillis * 3);
+        assertThat(inFlight).allSatisfy(f -> assertThat(f.join().success()).isTrue());
+    }
+
+    @Test
+    void faultResponse_completesExceptionally_andBlockingBridgeRethrows() {
+        response = """
+                <methodResponse><fault><value><struct>
+                  <member><name>faultCode</name><value><int>1</int></value></member>
+                  <member><name>faultString</name><value><string>boom</string></value></member>
+                </struct></value></fault></methodResponse>
+                """;
+
+        assertThatThrownBy(() -> client().sendValues(Map.of("userId", "bob")))
+                .isInstanceOf(XmlRpcCodec.Fault.class)
+                .hasMessage("boom");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram_reportsZeros() {
+        LatencyHistogram h = new LatencyHistogram();
+
+        assertThat(h.count()).isZero();
+        assertThat(h.valueAtPercentile(99)).isZero();
+        assertThat(h.max()).isZero();
+    }
+
+    @Test
+    void smallValues_areExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 1; v <= 100; v++) h.record(v);
+
+        assertThat(h.valueAtPercentile(50)).isEqualTo(50);
+        assertThat(h.valueAtPercentile(99)).isEqualTo(99);
+        assertThat(h.valueAtPercentile(100)).isEqualTo(100);
+        assertThat(h.mean()).isEqualTo(50.5);
+    }
+
+    @Test
+    void largeValues_stayWithinRelativePrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 1_000_000; v++) h.record(v * 37);
+
+        assertThat((double) h.valueAtPercentile(50)).isCloseTo(500_000 * 37, within(500_000 * 37 / 64.0));
+        assertThat((double) h.valueAtPercentile(99.9)).isCloseTo(999_000 * 37, within(999_000 * 37 / 64.0));
+        assertThat(h.max()).isEqualTo(37_000_000);
+        assertThat(h.valueAtPercentile(100)).isEqualTo(37_000_000);
+    }
+
+    @Test
+    void bucketBounds_coverEveryValueOnce() {
+        long[] samples = {0, 127, 128, 129, 255, 256, 1_000_003, 1L << 40, Long.MAX_VALUE};
+        for (long v : samples) {
+            int index = LatencyHistogram.indexOf(v);
+            assertThat(LatencyHistogram.highestValueIn(index)).isGreaterThanOrEqualTo(v);
+            if (index > 0) assertThat(LatencyHistogram.highestValueIn(index - 1)).isLessThan(v);
+        }
+    }
+
+    @Test
+    void tail_isVisible_evenWhenRare() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < 999; i++) h.record(1_000);
+        h.record(2_000_000);
+
+        assertThat(h.valueAtPercentile(99)).isLessThan(1_100);
+        assertThat(h.valueAtPercentile(99.95)).isEqualTo(2_000_000);
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThatThrownBy(() -> new LatencyHistogram().record(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
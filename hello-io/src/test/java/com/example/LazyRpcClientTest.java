@@ -0,0 +1,166 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class LazyRpcClientTest {
+
+    @Test
+    void createsTheDelegate_onTheFirstSendOnly() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+        when(delegate.sendBatch(anyList())).thenReturn(List.of(RpcClient.Result.ok("OK")));
+        AtomicInteger created = new AtomicInteger();
+        LazyRpcClient client = new LazyRpcClient(() -> {
+            created.incrementAndGet();
+            return delegate;
+        });
+
+        assertThat(created).hasValue(0);
+        assertThat(client.isCreated()).isFalse();
+
+        assertThat(client.sendValues(Map.of("a", 1))).isEqualTo(RpcClient.Result.ok("OK"));
+        assertThat(client.sendBatch(List.of(Map.of("a", 2)))).containsExactly(RpcClient.Result.ok("OK"));
+        assertThat(created).hasValue(1);
+        assertThat(client.isCreated()).isTrue();
+        verify(delegate).sendValues(Map.of("a", 1));
+        verify(delegate).sendBatch(List.of(Map.of("a", 2)));
+    }
+
+    @Test
+    void concurrentFirstSends_shareOneDelegate() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+        AtomicInteger created = new AtomicInteger();
+        LazyRpcClient client = new LazyRpcClient(() -> {
+            created.incrementAndGet();
+            return delegate;
+        });
+
+        int threads = 8;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RpcClient.Result>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return client.sendValues(Map.of());
+                }));
+            }
+            go.countDown();
+            for (Future<RpcClient.Result> result : results) assertThat(result.get().success()).isTrue();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void close_closesACreatedDelegate_andRejectsLaterSends() throws Exception {
+        RpcClient delegate = mock(RpcClient.class, withSettings().extraInterfaces(AutoCloseable.class));
+        LazyRpcClient client = new LazyRpcClient(() -> delegate);
+        client.sendValues(Map.of());
+
+        client.close();
+        client.close();
+
+        verify((AutoCloseable) delegate).close();
+        assertThat(client.isCreated()).isTrue();
+    }
+
+    @Test
+    void closeWithoutASend_neverCreatesTheDelegate() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        LazyRpcClient client = new LazyRpcClient(() -> {
+            created.incrementAndGet();
+            return mock(RpcClient.class);
+        });
+
+        client.close();
+
+        assertThat(created).hasValue(0);
+        assertThatThrownBy(() -> client.sendValues(Map.of()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+        assertThat(created).hasValue(0);
+    }
+
+    @Test
+    void asyncView_createsTheDelegateOnTheFirstSend_andStaysNonBlocking() throws Exception {
+        AsyncRpcClient delegate = mock(AsyncRpcClient.class, withSettings().extraInterfaces(AutoCloseable.class));
+        CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+        when(delegate.sendValuesAsync(anyMap())).thenReturn(reply);
+        AtomicInteger created = new AtomicInteger();
+        LazyRpcClient.Async client = new LazyRpcClient.Async(() -> {
+            created.incrementAndGet();
+            return delegate;
+        });
+        assertThat(client.isCreated()).isFalse();
+
+        CompletableFuture<RpcClient.Result> call = client.sendValuesAsync(Map.of("a", 1));
+        assertThat(call).isNotDone();
+        reply.complete(RpcClient.Result.ok("OK"));
+        assertThat(call).isCompletedWithValue(RpcClient.Result.ok("OK"));
+        client.sendValuesAsync(Map.of("a", 2));
+        assertThat(created).hasValue(1);
+
+        client.close();
+        verify((AutoCloseable) delegate).close();
+    }
+
+    @Test
+    void lazyExecutor_startsThreadsOnFirstTask_andShutsThemDownOnClose() throws Exception {
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        AtomicInteger created = new AtomicInteger();
+        LazyExecutor executor = new LazyExecutor(() -> {
+            created.incrementAndGet();
+            return service;
+        });
+        assertThat(executor.isCreated()).isFalse();
+
+        CountDownLatch ran = new CountDownLatch(2);
+        executor.execute(ran::countDown);
+        executor.execute(ran::countDown);
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(created).hasValue(1);
+
+        executor.close();
+        assertThat(service.isShutdown()).isTrue();
+        assertThatThrownBy(() -> executor.execute(() -> {}))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void lazyExecutorClosedBeforeUse_createsNothing() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        LazyExecutor executor = new LazyExecutor(() -> {
+            created.incrementAndGet();
+            return Runnable::run;
+        });
+
+        executor.close();
+
+        assertThat(created).hasValue(0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyTabsTest {
+
+    @Test
+    void buildsTheSelectedTabAtOnce_andTheOthersOnFirstSelection() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            AtomicInteger firstBuilt = new AtomicInteger();
+            AtomicInteger secondBuilt = new AtomicInteger();
+            JLabel first = new JLabel("first");
+            JLabel second = new JLabel("second");
+            LazyTabs lazy = new LazyTabs(new JTabbedPane());
+
+            lazy.addTab("One", () -> { firstBuilt.incrementAndGet(); return first; });
+            lazy.addTab("Two", () -> { secondBuilt.incrementAndGet(); return second; });
+
+            assertThat(firstBuilt).hasValue(1);
+            assertThat(secondBuilt).hasValue(0);
+            assertThat(lazy.isBuilt("One")).isTrue();
+            assertThat(lazy.isBuilt("Two")).isFalse();
+            assertThat(lazy.tabs().getComponentAt(0)).isSameAs(first);
+
+            lazy.tabs().setSelectedIndex(1);
+            lazy.tabs().setSelectedIndex(0);
+            lazy.tabs().setSelectedIndex(1);
+
+            assertThat(secondBuilt).hasValue(1);
+            assertThat(lazy.tabs().getComponentAt(1)).isSameAs(second);
+            assertThat(lazy.tabs().getTitleAt(1)).isEqualTo("Two");
+        });
+    }
+
+    @Test
+    void build_createsATabWithoutSelectingIt() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            AtomicInteger built = new AtomicInteger();
+            LazyTabs lazy = new LazyTabs(new JTabbedPane());
+            lazy.addTab("One", JPanel::new);
+            lazy.addTab("Two", () -> { built.incrementAndGet(); return new JPanel(); });
+
+            lazy.build("Two");
+            lazy.build("Two");
+
+            assertThat(built).hasValue(1);
+            assertThat(lazy.tabs().getSelectedIndex()).isZero();
+            assertThatThrownBy(() -> lazy.build("Three")).isInstanceOf(IllegalArgumentException.class);
+        });
+    }
+
+    @Test
+    void failingFactory_isRetriedOnTheNextSelection() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            AtomicInteger attempts = new AtomicInteger();
+            LazyTabs lazy = new LazyTabs(new JTabbedPane());
+            lazy.addTab("One", JPanel::new);
+            lazy.addTab("Two", () -> {
+                if (attempts.incrementAndGet() == 1) throw new IllegalStateException("not yet");
+                return new JPanel();
+            });
+
+            assertThatThrownBy(() -> lazy.build("Two")).hasMessage("not yet");
+            assertThat(lazy.isBuilt("Two")).isFalse();
+
+            lazy.tabs().setSelectedIndex(1);
+            assertThat(lazy.isBuilt("Two")).isTrue();
+            assertThat(attempts).hasValue(2);
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoadGeneratorTest {
+
+    @Test
+    void sendsAtTheRequestedRate_andRecordsEveryCall() throws Exception {
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer(
+                StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofMillis(5)));
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            RpcClient client = new StreamingXmlRpcClient(server.url());
+
+            LoadGenerator.Report report = LoadGenerator.run(client, executor, 50, Duration.ofSeconds(1));
+
+            assertThat(report.sent()).isEqualTo(50);
+            assertThat(report.succeeded()).isEqualTo(50);
+            assertThat(report.failed()).isZero();
+            assertThat(report.unfinished()).isZero();
+            assertThat(report.latencyMicros().count()).isEqualTo(50);
+            assertThat(report.latencyMicros().valueAtPercentile(50)).isGreaterThanOrEqualTo(5_000);
+            assertThat(server.calls()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    void latency_countsFromTheDueTime_whenTheExecutorFallsBehind() throws Exception {
+        RpcClient slow = mock(RpcClient.class);
+        when(slow.sendValues(any())).thenAnswer(inv -> {
+            Thread.sleep(50);
+            return RpcClient.Result.ok("OK");
+        });
+        try (ExecutorService single = Executors.newSingleThreadExecutor()) {
+            // 20 sends due within 200 ms, but one at a time they take about a second
+            LoadGenerator.Report report = LoadGenerator.run(slow, single, 100, Duration.ofMillis(200));
+
+            assertThat(report.succeeded()).isEqualTo(20);
+            // The last send waited behind 19 others: its latency includes the queueing, not just its own 50 ms
+            assertThat(report.latencyMicros().max()).isGreaterThan(500_000);
+        }
+    }
+
+    @Test
+    void sendsBeyondTheQueueLimits_areCountedAsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RpcClient stuck = mock(RpcClient.class);
+        when(stuck.sendValues(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return RpcClient.Result.ok("OK");
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // 10 distinct sends within 100 ms; only 2 may run and 1 wait while the client hangs
+            CompletableFuture<LoadGenerator.Report> run = CompletableFuture.supplyAsync(() -> LoadGenerator.run(stuck,
+                    executor, new SendQueue.Settings(2, 1, SendQueue.Overflow.REJECT), 100, Duration.ofMillis(100)));
+            await().atMost(5, TimeUnit.SECONDS).until(() -> mockingDetails(stuck).getInvocations().size() == 2);
+            Thread.sleep(200);
+            release.countDown();
+            LoadGenerator.Report report = run.get(5, TimeUnit.SECONDS);
+
+            assertThat(report.succeeded()).isEqualTo(3);
+            assertThat(report.failed()).isEqualTo(7);
+            assertThat(report.errors().keySet()).singleElement().asString().startsWith("Too many sends");
+            assertThat(report.latencyMicros().count()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void identicalSendsInFlight_areCoalescedLikeTheForm() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RpcClient stuck = mock(RpcClient.class);
+        when(stuck.sendValues(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return RpcClient.Result.ok("OK");
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // 1500 sends cycle through 1000 payloads; the last 500 repeat sends that are still in flight
+            CompletableFuture<LoadGenerator.Report> run = CompletableFuture.supplyAsync(() -> LoadGenerator.run(stuck,
+                    executor, SendQueue.Settings.unbounded(), 15_000, Duration.ofMillis(100)));
+            await().atMost(5, TimeUnit.SECONDS).until(() -> mockingDetails(stuck).getInvocations().size() == 1000);
+            Thread.sleep(200);
+            release.countDown();
+            LoadGenerator.Report report = run.get(5, TimeUnit.SECONDS);
+
+            assertThat(report.succeeded()).isEqualTo(1500);
+            assertThat(report.latencyMicros().count()).isEqualTo(1500);
+            verify(stuck, times(1000)).sendValues(any());
+        }
+    }
+
+    @Test
+    void main_rejectsAnOptionWithoutAValue() {
+        assertThatThrownBy(() -> LoadGenerator.main(new String[] {"--rate", "10", "--seconds"}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--seconds has no value");
+    }
+
+    @Test
+    void countsErrorsByMessage() throws Exception {
+        RpcClient failing = mock(RpcClient.class);
+        when(failing.sendValues(any())).thenReturn(RpcClient.Result.error("quota exceeded"));
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            LoadGenerator.Report report = LoadGenerator.run(failing, executor, 100, Duration.ofMillis(100));
+
+            assertThat(report.failed()).isEqualTo(10);
+            assertThat(report.errors()).hasSize(1);
+            assertThat(report.errors().values()).containsExactly(10L);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+            assertThat(out.toString(StandardCharsets.UTF_8)).contains("errors 10").contains("p99.9");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** Debouncer.Scheduler driven by advance(); tasks run on the test thread. */
+class ManualScheduler implements Debouncer.Scheduler {
+
+    private static final class Task {
+        final long dueMillis;
+        final Runnable body;
+        boolean cancelled;
+
+        Task(long dueMillis, Runnable body) {
+            this.dueMillis = dueMillis;
+            this.body = body;
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private long nowMillis;
+    int scheduledCount;
+
+    @Override
+    public Debouncer.Cancellable schedule(Duration delay, Runnable body) {
+        Task task = new Task(nowMillis + delay.toMillis(), body);
+        tasks.add(task);
+        scheduledCount++;
+        return () -> task.cancelled = true;
+    }
+
+    void advance(Duration by) {
+        long target = nowMillis + by.toMillis();
+        while (true) {
+            Task next = tasks.stream()
+                    .filter(t -> !t.cancelled && t.dueMillis <= target)
+                    .min(Comparator.comparingLong(t -> t.dueMillis))
+                    .orElse(null);
+            if (next == null) break;
+            tasks.remove(next);
+            nowMillis = next.dueMillis;
+            next.body.run();
+        }
+        nowMillis = target;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsRegistryTest {
+
+    @Test
+    void countersTimersAndGauges_showUpInTheSnapshot() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("sent").increment();
+        registry.counter("sent").add(2);
+        registry.counter("inFlight").add(-1);
+        registry.timer("latency").recordNanos(2_000_000);
+        registry.gauge("depth", () -> 7);
+
+        assertThat(registry.snapshot())
+                .containsEntry("sent", 3L)
+                .containsEntry("inFlight", -1L)
+                .containsEntry("depth", 7L)
+                .containsEntry("latency.count", 1L)
+                .containsEntry("latency.maxMicros", 2_000L);
+        assertThat(registry.snapshot().get("latency.p99Micros")).isBetween(1_970L, 2_000L);
+    }
+
+    @Test
+    void handles_areSharedPerName() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertThat(registry.counter("a")).isSameAs(registry.counter("a"));
+        assertThat(registry.timer("t")).isSameAs(registry.timer("t"));
+    }
+
+    @Test
+    void timerStartStop_recordsElapsedTime() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.Timer timer = registry.timer("sleep");
+
+        long token = timer.start();
+        Thread.sleep(5);
+        timer.stop(token);
+
+        assertThat(registry.snapshot().get("sleep.maxMicros")).isGreaterThanOrEqualTo(5_000L);
+    }
+
+    @Test
+    void noopHandles_ignoreEverything() {
+        Metrics.Timer timer = Metrics.NOOP.timer("x");
+
+        assertThat(timer.start()).isZero();
+        timer.stop(0);
+        Metrics.NOOP.counter("y").increment();
+        assertThat(Metrics.NOOP.counter("y")).isSameAs(Metrics.NOOP.counter("z"));
+    }
+
+    @Test
+    void dump_printsOneLinePerMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("send.success").add(4);
+        registry.timer("send.latency").recordNanos(1_500_000);
+
+        assertThat(registry.dump())
+                .contains("send.success 4")
+                .containsPattern("send.latency count=1 p50=1[.,]\\d+ms");
+    }
+
+    @Test
+    void periodicDump_runsUntilClosed() throws Exception {
+        CountDownLatch dumped = new CountDownLatch(2);
+        AtomicReference<String> last = new AtomicReference<>();
+        try (MetricsRegistry registry = new MetricsRegistry()) {
+            registry.counter("ticks").increment();
+            registry.startDumping(Duration.ofMillis(20), text -> {
+                last.set(text);
+                dumped.countDown();
+            });
+            assertThat(dumped.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(last.get()).contains("ticks 1");
+    }
+
+    @Test
+    void jmx_exposesTheSnapshotAsAttributes() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name;
+        try (MetricsRegistry registry = new MetricsRegistry()) {
+            name = registry.registerJmx("com.example.test:type=Metrics");
+            registry.counter("send.error").add(3);
+            registry.timer("send.latency").recordNanos(1_000_000);
+
+            assertThat(server.getAttribute(name, "send.error")).isEqualTo(3L);
+            assertThat(server.getAttribute(name, "send.latency.count")).isEqualTo(1L);
+            assertThat(server.getMBeanInfo(name).getAttributes()).extracting("name")
+                    .contains("send.error", "send.latency.p99Micros");
+            assertThatThrownBy(() -> server.invoke(name, "reset", new Object[0], new String[0]))
+                    .isInstanceOf(ReflectionException.class)
+                    .hasCauseInstanceOf(NoSuchMethodException.class);
+        }
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+}
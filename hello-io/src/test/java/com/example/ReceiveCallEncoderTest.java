@@ -0,0 +1,84 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiveCallEncoderTest {
+
+    private static String text(ReceiveCallEncoder encoder) {
+        return new String(encoder.buffer(), 0, encoder.length(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void encodesReceiveCall_withPreEncodedMembers() {
+        ReceiveCallEncoder encoder = new ReceiveCallEncoder();
+        encoder.encode("alice", 42, "USD");
+
+        assertThat(text(encoder)).isEqualTo("<?xml version=\"1.0\"?><methodCall><methodName>receive</methodName>"
+                + "<params><param><value><struct>"
+                + "<member><name>userId</name><value><string>alice</string></value></member>"
+                + "<member><name>amount</name><value><int>42</int></value></member>"
+                + "<member><name>currency</name><value><string>USD</string></value></member>"
+                + "</struct></value></param></params></methodCall>");
+    }
+
+    @Test
+    void escapesMarkup_andEncodesNonAsciiAsUtf8() {
+        ReceiveCallEncoder encoder = new ReceiveCallEncoder(16); // forces buffer growth
+        encoder.encode("a<b>&c é€😀", -7, "€");
+
+        assertThat(text(encoder))
+                .contains("<string>a&lt;b&gt;&amp;c é€😀</string>")
+                .contains("<int>-7</int>")
+                .contains("<string>€</string>");
+    }
+
+    @Test
+    void writesIntegerEdgeCases() {
+        ReceiveCallEncoder encoder = new ReceiveCallEncoder();
+        for (int v : new int[]{0, 9, 10, 1_000_000, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            encoder.encode("u", v, "USD");
+            assertThat(text(encoder)).contains("<int>" + v + "</int>");
+        }
+    }
+
+    @Test
+    void presenterPayloadMap_usesFastPath_otherShapesFallBackToCodec() {
+        ReceiveCallEncoder encoder = new ReceiveCallEncoder();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("userId", "bob");
+        payload.put("amount", 1);
+        payload.put("currency", "USD");
+        encoder.encode(payload);
+        String fast = text(encoder);
+
+        encoder.encode("bob", 1, "USD");
+        assertThat(fast).isEqualTo(text(encoder));
+
+        payload.put("note", true);
+        encoder.encode(payload);
+        assertThat(text(encoder)).isEqualTo(new String(XmlRpcCodec.encodeCall("receive", payload), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void steadyStateEncoding_doesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ReceiveCallEncoder encoder = new ReceiveCallEncoder();
+        for (int i = 0; i < 20_000; i++) encoder.encode("user-" + (i % 10), i, "USD"); // warm up and size the buffer
+
+        String userId = "user-123";
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) encoder.encode(userId, i, "USD");
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Allow for the measurement call itself; 100k calls allocating anything would be megabytes
+        assertThat(allocated).isLessThan(10_000);
+    }
+}
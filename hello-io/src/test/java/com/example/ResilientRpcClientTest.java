@@ -0,0 +1,303 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class ResilientRpcClientTest {
+
+    private static final Map<String, Object> PAYLOAD = Map.of("userId", "alice", "amount", 1, "currency", "USD");
+
+    /** Clock that only moves when the test (or the sleeper) advances it. */
+    static final class ManualClock extends Clock {
+        long millis = 1_000_000;
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis); }
+        @Override public long millis() { return millis; }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final List<Duration> sleeps = new ArrayList<>();
+    private final ResilientRpcClient.Sleeper sleeper = d -> {
+        sleeps.add(d);
+        clock.millis += d.toMillis();
+    };
+
+    /** Scheduler whose tasks run only when the test polls and runs them. */
+    private final List<Duration> delays = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Runnable> scheduled = new LinkedBlockingQueue<>();
+    private final Debouncer.Scheduler scheduler = (delay, task) -> {
+        delays.add(delay);
+        scheduled.add(task);
+        return () -> {};
+    };
+
+    private static ResilientRpcClient.Settings settings(int maxAttempts, int failureThreshold) {
+        return new ResilientRpcClient.Settings(maxAttempts, Duration.ofMillis(100), Duration.ofSeconds(2),
+                false, Duration.ofMillis(50), failureThreshold, Duration.ofSeconds(10));
+    }
+
+    private ResilientRpcClient client(RpcClient delegate, ResilientRpcClient.Settings settings) {
+        return new ResilientRpcClient(delegate, clock, settings, sleeper, new Random(42));
+    }
+
+    @Test
+    void transportFailures_areRetriedWithJitteredExponentialBackoff() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap()))
+                .thenThrow(new IOException("connection reset"))
+                .thenThrow(new IOException("connection reset"))
+                .thenReturn(RpcClient.Result.ok("OK"));
+
+        RpcClient.Result result = client(delegate, settings(3, 0)).sendValues(PAYLOAD);
+
+        assertThat(result).isEqualTo(RpcClient.Result.ok("OK"));
+        verify(delegate, times(3)).sendValues(PAYLOAD);
+        assertThat(sleeps).hasSize(2);
+        assertThat(sleeps.get(0)).isBetween(Duration.ZERO, Duration.ofMillis(100));
+        assertThat(sleeps.get(1)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+    }
+
+    @Test
+    void backoff_growsExponentially_upToTheCap() {
+        ResilientRpcClient client = client(mock(RpcClient.class), settings(3, 0));
+        long[] maxSeen = new long[8];
+        for (int i = 0; i < 2_000; i++) {
+            for (int retry = 1; retry <= 7; retry++) {
+                maxSeen[retry] = Math.max(maxSeen[retry], client.backoff(retry).toMillis());
+            }
+        }
+        assertThat(maxSeen[1]).isBetween(90L, 100L);
+        assertThat(maxSeen[3]).isBetween(360L, 400L);
+        assertThat(maxSeen[6]).isBetween(1800L, 2000L); // 3200 capped at 2000
+        assertThat(maxSeen[7]).isLessThanOrEqualTo(2000L);
+        assertThat(client.backoff(Integer.MAX_VALUE)).isLessThanOrEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts_withTheLastError() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap())).thenThrow(new IOException("down"));
+
+        assertThatThrownBy(() -> client(delegate, settings(4, 0)).sendValues(PAYLOAD)).hasMessage("down");
+        verify(delegate, times(4)).sendValues(PAYLOAD);
+    }
+
+    @Test
+    void remoteErrorsAndFaults_areNotRetried() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap())).thenReturn(RpcClient.Result.error("Bad Request"));
+        assertThat(client(delegate, settings(3, 0)).sendValues(PAYLOAD).success()).isFalse();
+        verify(delegate, times(1)).sendValues(PAYLOAD);
+
+        RpcClient faulty = mock(RpcClient.class);
+        when(faulty.sendValues(anyMap())).thenThrow(new XmlRpcCodec.Fault(3, "invalid amount"));
+        assertThatThrownBy(() -> client(faulty, settings(3, 0)).sendValues(PAYLOAD)).isInstanceOf(XmlRpcCodec.Fault.class);
+        verify(faulty, times(1)).sendValues(PAYLOAD);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailures_failsFast_thenRecoversThroughATrialCall() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap())).thenThrow(new IOException("down"));
+        ResilientRpcClient client = client(delegate, settings(1, 3));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.sendValues(PAYLOAD)).hasMessage("down");
+        }
+        assertThat(client.circuitState()).isEqualTo(ResilientRpcClient.CircuitState.OPEN);
+
+        assertThatThrownBy(() -> client.sendValues(PAYLOAD)).isInstanceOf(ResilientRpcClient.CircuitOpenException.class);
+        verify(delegate, times(3)).sendValues(PAYLOAD);
+
+        // Trial after openDuration fails: open again for another period
+        clock.millis += 10_000;
+        assertThat(client.circuitState()).isEqualTo(ResilientRpcClient.CircuitState.HALF_OPEN);
+        assertThatThrownBy(() -> client.sendValues(PAYLOAD)).hasMessage("down");
+        assertThat(client.circuitState()).isEqualTo(ResilientRpcClient.CircuitState.OPEN);
+
+        // Trial succeeds: closed
+        clock.millis += 10_000;
+        reset(delegate);
+        when(delegate.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+        assertThat(client.sendValues(PAYLOAD).success()).isTrue();
+        assertThat(client.circuitState()).isEqualTo(ResilientRpcClient.CircuitState.CLOSED);
+    }
+
+    @Test
+    void retriesStop_whenTheCircuitOpensInBetween() throws Exception {
+        RpcClient delegate = mock(RpcClient.class);
+        when(delegate.sendValues(anyMap())).thenThrow(new IOException("down"));
+
+        assertThatThrownBy(() -> client(delegate, settings(5, 2)).sendValues(PAYLOAD))
+                .isInstanceOf(ResilientRpcClient.CircuitOpenException.class);
+        verify(delegate, times(2)).sendValues(PAYLOAD);
+    }
+
+    @Test
+    void hedging_sendsASecondRequestWhenTheFirstIsSlow_andTakesTheFirstAnswer() throws Exception {
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        RpcClient delegate = payload -> {
+            if (calls.incrementAndGet() == 1) {
+                releaseFirst.await(5, TimeUnit.SECONDS);
+                return RpcClient.Result.ok("slow");
+            }
+            return RpcClient.Result.ok("hedged");
+        };
+
+        try (ResilientRpcClient client = new ResilientRpcClient(delegate, Clock.systemUTC(),
+                settings(1, 0).withHedging(true), sleeper, new Random(1))) {
+            assertThat(client.sendValues(PAYLOAD).message()).isEqualTo("hedged");
+            assertThat(calls.get()).isEqualTo(2);
+        } finally {
+            releaseFirst.countDown();
+        }
+    }
+
+    @Test
+    void hedgeDelay_followsTheRecentP95Latency() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        RpcClient delegate = payload -> {
+            // 9 of every 10 calls take 10 ms, one takes 400 ms (all on the manual clock)
+            clock.millis += calls.incrementAndGet() % 10 == 0 ? 400 : 10;
+            return RpcClient.Result.ok("OK");
+        };
+        ResilientRpcClient client = client(delegate, settings(1, 0));
+        assertThat(client.hedgeDelayMillis()).isEqualTo(50); // too few samples: the configured minimum
+
+        for (int i = 0; i < 100; i++) client.sendValues(PAYLOAD);
+        assertThat(client.hedgeDelayMillis()).isEqualTo(400);
+    }
+
+    @Test
+    void hedging_startsTheSecondAttemptOnlyWhenTheSchedulerFires() throws Exception {
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        RpcClient delegate = payload -> {
+            if (calls.incrementAndGet() == 1) {
+                releaseFirst.await(5, TimeUnit.SECONDS);
+                return RpcClient.Result.ok("slow");
+            }
+            return RpcClient.Result.ok("hedged");
+        };
+
+        try (ResilientRpcClient client = new ResilientRpcClient(delegate, clock, settings(1, 0).withHedging(true),
+                sleeper, new Random(1), scheduler)) {
+            CompletableFuture<RpcClient.Result> call = sendInBackground(client);
+            Runnable hedge = scheduled.poll(5, TimeUnit.SECONDS);
+            assertThat(delays.get(0)).isEqualTo(Duration.ofMillis(50));
+            await().atMost(5, TimeUnit.SECONDS).until(() -> calls.get() == 1);
+            assertThat(call).isNotDone();
+
+            hedge.run();
+
+            assertThat(call.get(5, TimeUnit.SECONDS).message()).isEqualTo("hedged");
+            assertThat(calls.get()).isEqualTo(2);
+        } finally {
+            releaseFirst.countDown();
+        }
+    }
+
+    @Test
+    void hedgedCall_givesUp_whenNoAttemptAnswersBeforeTheTimeout() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        RpcClient delegate = payload -> {
+            never.await(5, TimeUnit.SECONDS);
+            return RpcClient.Result.ok("too late");
+        };
+
+        try (ResilientRpcClient client = new ResilientRpcClient(delegate, clock, settings(1, 0).withHedging(true),
+                sleeper, new Random(1), scheduler)) {
+            CompletableFuture<RpcClient.Result> call = sendInBackground(client);
+            scheduled.poll(5, TimeUnit.SECONDS).run(); // hedge
+            scheduled.poll(5, TimeUnit.SECONDS).run(); // give up
+
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(SocketTimeoutException.class);
+            assertThat(delays.get(1)).isEqualTo(Duration.ofMillis(50).plusSeconds(10));
+        } finally {
+            never.countDown();
+        }
+    }
+
+    @Test
+    void asyncView_retriesOnTheScheduler_withoutBlocking() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AsyncRpcClient delegate = payload -> calls.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new IOException("connection reset"))
+                : CompletableFuture.completedFuture(RpcClient.Result.ok("OK"));
+        AsyncRpcClient client = new ResilientRpcClient(delegate, clock, settings(3, 0), sleeper, new Random(42), scheduler)
+                .async();
+
+        CompletableFuture<RpcClient.Result> call = client.sendValuesAsync(PAYLOAD);
+        assertThat(call).isNotDone();
+        assertThat(calls.get()).isEqualTo(1);
+
+        scheduled.remove().run();
+        assertThat(call).isNotDone();
+        scheduled.remove().run();
+
+        assertThat(call.getNow(null)).isEqualTo(RpcClient.Result.ok("OK"));
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(sleeps).isEmpty();
+        assertThat(delays.get(0)).isBetween(Duration.ZERO, Duration.ofMillis(100));
+        assertThat(delays.get(1)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+    }
+
+    @Test
+    void asyncView_doesNotRetryFaults_sharesTheBreaker_andNeedsAnAsyncDelegate() {
+        AsyncRpcClient faulty = payload -> CompletableFuture.failedFuture(new XmlRpcCodec.Fault(3, "invalid amount"));
+        assertThatThrownBy(() -> new ResilientRpcClient(faulty, clock, settings(3, 0), sleeper, new Random(1), scheduler)
+                .async().sendValues(PAYLOAD))
+                .isInstanceOf(XmlRpcCodec.Fault.class);
+        assertThat(scheduled).isEmpty();
+
+        AsyncRpcClient down = payload -> CompletableFuture.failedFuture(new IOException("down"));
+        ResilientRpcClient resilient = new ResilientRpcClient(down, clock, settings(1, 1), sleeper, new Random(1), scheduler);
+        assertThatThrownBy(() -> resilient.async().sendValues(PAYLOAD)).hasMessage("down");
+        assertThat(resilient.circuitState()).isEqualTo(ResilientRpcClient.CircuitState.OPEN);
+        assertThatThrownBy(() -> resilient.async().sendValues(PAYLOAD))
+                .isInstanceOf(ResilientRpcClient.CircuitOpenException.class);
+
+        assertThatThrownBy(() -> new ResilientRpcClient(mock(RpcClient.class), clock, settings(1, 0)).async())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static CompletableFuture<RpcClient.Result> sendInBackground(RpcClient client) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.sendValues(PAYLOAD);
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        });
+    }
+}
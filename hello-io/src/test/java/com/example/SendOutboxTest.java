@@ -0,0 +1,132 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SendOutboxTest {
+
+    @TempDir
+    Path dir;
+
+    private static Map<String, Object> payload(String userId, int amount) {
+        return Map.of("userId", userId, "amount", amount, "currency", "USD");
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void appendThenAck_tracksPendingEntriesInOrder() throws Exception {
+        List<Integer> depths = new ArrayList<>();
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            outbox.setDepthListener(depths::add);
+            long a = outbox.append(payload("alice", 1));
+            long b = outbox.append(payload("bob", 2));
+
+            assertThat(outbox.pending()).extracting(SendOutbox.Entry::id).containsExactly(a, b);
+            assertThat(outbox.pending().get(1).payload()).isEqualTo(payload("bob", 2));
+
+            assertThat(outbox.ack(a)).isTrue();
+            assertThat(outbox.ack(a)).isFalse();
+            assertThat(outbox.depth()).isEqualTo(1);
+        }
+        assertThat(depths).containsExactly(1, 2, 1);
+    }
+
+    @Test
+    void reopen_replaysOnlyUnackedEntries_andKeepsIdsIncreasing() throws Exception {
+        long acked;
+        long kept;
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            acked = outbox.append(payload("alice", 1));
+            kept = outbox.append(payload("bob", 2));
+            outbox.ack(acked);
+        }
+
+        try (SendOutbox reopened = new SendOutbox(dir)) {
+            assertThat(reopened.pending()).containsExactly(new SendOutbox.Entry(kept, payload("bob", 2)));
+            long next = reopened.append(payload("carol", 3));
+            assertThat(next).isGreaterThan(kept);
+        }
+    }
+
+    @Test
+    void fullSegments_roll_andAreDeletedOnceEveryEntryIsAcked() throws Exception {
+        try (SendOutbox outbox = new SendOutbox(dir, 4096, Duration.ofMillis(50))) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 200; i++) ids.add(outbox.append(payload("user-" + i, i)));
+            assertThat(segments().size()).isGreaterThan(2);
+
+            for (long id : ids) outbox.ack(id);
+            assertThat(segments()).hasSize(1); // only the active segment is left
+        }
+        try (SendOutbox reopened = new SendOutbox(dir, 4096, Duration.ofMillis(50))) {
+            assertThat(reopened.pending()).isEmpty();
+        }
+    }
+
+    @Test
+    void tornRecordAtTheTail_isIgnoredOnRecovery() throws Exception {
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            outbox.append(payload("alice", 1));
+            outbox.append(payload("bob", 2));
+        }
+        // Corrupt the body of the second record, as if the process died mid-write
+        Path segment = segments().get(0);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            ch.read(header, 0);
+            int second = 17 + header.flip().getInt();
+            ch.write(ByteBuffer.wrap(new byte[] {0x7f, 0x7f, 0x7f}), second + 17 + 2);
+        }
+
+        try (SendOutbox reopened = new SendOutbox(dir)) {
+            assertThat(reopened.pending()).extracting(e -> e.payload().get("userId")).containsExactly("alice");
+        }
+    }
+
+    @Test
+    void appendAfterClose_isRejected() throws Exception {
+        SendOutbox outbox = new SendOutbox(dir);
+        outbox.close();
+        assertThatThrownBy(() -> outbox.append(payload("alice", 1))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void encodeDecode_roundTripsSupportedValueTypes() {
+        Map<String, Object> values = Map.of("s", "héllo", "i", -7, "j", 1L << 40, "d", 2.5, "z", true);
+        assertThat(SendOutbox.decode(SendOutbox.encode(values))).isEqualTo(values);
+    }
+
+    @Test
+    void sustainsHighAppendRates_withoutPerRecordSync() throws Exception {
+        int count = 20_000;
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) outbox.ack(outbox.append(payload("user", i)));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(outbox.depth()).isZero();
+            // Generous bound: an fsync per record would take far longer than this on any disk
+            assertThat(elapsedMs).isLessThan(10_000);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
 
 import javax.swing.*;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.Executor;
 
@@ -18,8 +19,12 @@ import static org.mockito.Mockito.*;
 
 class SendPanelUiTest {
 
+    // Generous for slow CI machines; a blocking call on the EDT takes far longer
+    private static final Duration STALL_THRESHOLD = Duration.ofMillis(500);
+
     private Robot robot;
     private FrameFixture window;
+    private EdtWatchdog watchdog;
 
     @BeforeAll
     static void ensureHeadful() {
@@ -28,6 +33,7 @@ class SendPanelUiTest {
 
     @BeforeEach
     void setUp() {
+        watchdog = EdtWatchdog.install(STALL_THRESHOLD, Metrics.NOOP, stall -> {});
         robot = BasicRobot.robotWithNewAwtHierarchy();
         robot.settings().delayBetweenEvents(1000);
     }
@@ -37,8 +43,13 @@ class SendPanelUiTest {
         try {
             if (window != null) window.cleanUp();
         } finally {
-            if (robot != null) robot.cleanUp();
+            try {
+                if (robot != null) robot.cleanUp();
+            } finally {
+                watchdog.uninstall();
+            }
         }
+        watchdog.assertNoStalls();
     }
 
     private static Executor direct() {
@@ -113,6 +124,36 @@ class SendPanelUiTest {
         verifyNoInteractions(client);
     }
 
+    @Test
+    void blockingClient_onDirectExecutor_isReportedAsEdtStall() throws Exception {
+        // With a direct executor the RPC runs on the EDT: exactly the mistake the watchdog is there to catch
+        RpcClient slow = payload -> {
+            Thread.sleep(1_000);
+            return RpcClient.Result.ok("late");
+        };
+
+        JFrame frame = GuiActionRunner.execute(() -> {
+            JFrame f = new JFrame("SendPanel Stall Test");
+            f.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+            f.setContentPane(new SendPanel(slow, direct()));
+            f.pack();
+            f.setLocationRelativeTo(null);
+            return f;
+        });
+
+        window = new FrameFixture(robot, frame);
+        window.show();
+        window.textBox("userIdField").setText("alice");
+        window.textBox("amountField").setText("1");
+        window.button("sendButton").click();
+
+        await().atMost(5, SECONDS).untilAsserted(() -> assertThat(window.label("statusLabel").text()).contains("late"));
+        assertThat(watchdog.stalls()).anySatisfy(stall ->
+                assertThat(stall.stack()).anySatisfy(frameElement ->
+                        assertThat(frameElement.getClassName()).contains("SendPresenter")));
+        watchdog.clearStalls(); // expected here; every other test must finish without one
+    }
+
     @Test
     void rpcError_isShownInStatus() throws Exception {
         RpcClient client = mock(RpcClient.class);
@@ -1,13 +1,29 @@
 package com.example;
 
+import org.apache.xmlrpc.XmlRpcException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
 class SendPresenterTest {
@@ -15,6 +31,8 @@ class SendPresenterTest {
     static class RecordingListener implements SendPresenter.Listener {
         String state = "Idle";
         String message;
+        int outboxDepth;
+        final List<String> queueDepths = new ArrayList<>();
 
         @Override
         public void onIdle() {
@@ -45,6 +63,16 @@ class SendPresenterTest {
             state = "Validation:" + field;
             this.message = message;
         }
+
+        @Override
+        public void onOutboxDepthChanged(int pending) {
+            outboxDepth = pending;
+        }
+
+        @Override
+        public void onQueueDepthChanged(int inFlight, int queued) {
+            queueDepths.add(inFlight + "/" + queued);
+        }
     }
 
     private static Executor direct() {
@@ -89,6 +117,30 @@ class SendPresenterTest {
         assertThat(listener.message).isEqualTo("OK");
     }
 
+    @Test
+    void recordsMetrics_forValidation_successAndErrors() throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        MetricsRegistry metrics = new MetricsRegistry();
+        SendPresenter presenter = new SendPresenter(client, direct(), new RecordingListener(),
+                SendPresenter.Settings.defaults().withMetrics(metrics));
+        when(client.sendValues(anyMap()))
+                .thenReturn(RpcClient.Result.ok("OK"))
+                .thenReturn(RpcClient.Result.error("Bad Request"))
+                .thenThrow(new IOException("down"));
+
+        presenter.submit("", "1");
+        presenter.submit("alice", "1");
+        presenter.submit("alice", "2");
+        presenter.submit("alice", "3");
+
+        assertThat(metrics.snapshot())
+                .containsEntry("send.validationErrors", 1L)
+                .containsEntry("send.success", 1L)
+                .containsEntry("send.error", 2L)
+                .containsEntry("send.inFlight", 0L)
+                .containsEntry("send.latency.count", 3L);
+    }
+
     @Test
     void handlesRemoteError_andException() throws Exception {
         RpcClient client = mock(RpcClient.class);
@@ -110,4 +162,382 @@ class SendPresenterTest {
         assertThat(listener.state).isEqualTo("Error");
         assertThat(listener.message).contains("boom");
     }
-}
\ No newline at end of file
+
+    @Test
+    void nullResult_isReportedAsError_andSettlesInFlight() throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenReturn(null);
+        RecordingListener listener = new RecordingListener();
+        MetricsRegistry metrics = new MetricsRegistry();
+        SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                SendPresenter.Settings.defaults().withMetrics(metrics));
+
+        presenter.submit("alice", "1");
+        assertThat(listener.state).isEqualTo("Error");
+        assertThat(listener.message).isEqualTo("Failed to send: RpcClient returned no result");
+
+        AsyncRpcClient async = payload -> CompletableFuture.completedFuture(null);
+        new SendPresenter(async, direct(), listener,
+                SendPresenter.Settings.defaults().withMetrics(metrics)).submit("bob", "2");
+        assertThat(listener.message).isEqualTo("Failed to send: RpcClient returned no result");
+
+        assertThat(metrics.snapshot())
+                .containsEntry("send.error", 2L)
+                .containsEntry("send.inFlight", 0L);
+    }
+
+    @Test
+    void asyncClient_isNotRunOnTheExecutor_andCompletionIsReported() {
+        CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+        AsyncRpcClient client = payload -> reply;
+        RecordingListener listener = new RecordingListener();
+        int[] executorTasks = {0};
+        Executor countingDirect = task -> {
+            executorTasks[0]++;
+            task.run();
+        };
+        SendPresenter presenter = new SendPresenter(client, countingDirect, Clock.systemUTC(), listener);
+
+        presenter.submit("alice", "42");
+        assertThat(listener.state).isEqualTo("Sending");
+        assertThat(executorTasks[0]).isZero();
+
+        reply.complete(RpcClient.Result.ok("OK async"));
+        assertThat(listener.state).isEqualTo("Success");
+        assertThat(listener.message).isEqualTo("OK async");
+        assertThat(executorTasks[0]).isEqualTo(1);
+    }
+
+    @Test
+    void asyncClient_failure_isReportedAsError() {
+        AsyncRpcClient client = payload -> CompletableFuture.failedFuture(new RuntimeException("unreachable"));
+        RecordingListener listener = new RecordingListener();
+        SendPresenter presenter = new SendPresenter(client, direct(), Clock.systemUTC(), listener);
+
+        presenter.submit("bob", "1");
+        assertThat(listener.state).isEqualTo("Error");
+        assertThat(listener.message).isEqualTo("Failed to send: unreachable");
+    }
+
+    @Test
+    void boundedQueue_rejectsBeyondItsLimits_andReportsDepth() {
+        List<CompletableFuture<RpcClient.Result>> replies = new ArrayList<>();
+        AsyncRpcClient client = payload -> {
+            CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+            replies.add(reply);
+            return reply;
+        };
+        RecordingListener listener = new RecordingListener();
+        MetricsRegistry metrics = new MetricsRegistry();
+        SendQueue queue = new SendQueue(new SendQueue.Settings(1, 1, SendQueue.Overflow.REJECT));
+        SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                SendPresenter.Settings.defaults().withMetrics(metrics).withQueue(queue));
+
+        presenter.submit("alice", "1");
+        presenter.submit("bob", "2");
+        assertThat(listener.state).isEqualTo("Sending");
+        assertThat(replies).hasSize(1);
+        assertThat(listener.queueDepths).containsExactly("1/0", "1/1");
+
+        presenter.submit("carol", "3");
+        assertThat(listener.state).isEqualTo("Error");
+        assertThat(listener.message).contains("Too many sends");
+
+        replies.get(0).complete(RpcClient.Result.ok("OK"));
+        assertThat(replies).hasSize(2); // bob started as soon as alice finished
+        replies.get(1).complete(RpcClient.Result.ok("OK"));
+        assertThat(listener.queueDepths).endsWith("0/0");
+        assertThat(metrics.snapshot())
+                .containsEntry("send.rejected", 1L)
+                .containsEntry("send.success", 2L)
+                .containsEntry("send.inFlight", 0L);
+    }
+
+    @Test
+    void throwingListener_onDirectExecutor_releasesItsQueueSlotOnce() throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+        List<String> outcomes = new ArrayList<>();
+        RecordingListener listener = new RecordingListener() {
+            @Override
+            public void onSuccess(String message) {
+                outcomes.add(message);
+                throw new IllegalStateException("listener bug");
+            }
+        };
+        SendQueue queue = new SendQueue(new SendQueue.Settings(1, 0, SendQueue.Overflow.REJECT));
+        SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                SendPresenter.Settings.defaults().withQueue(queue));
+
+        assertThatThrownBy(() -> presenter.submit("alice", "1")).hasMessage("listener bug");
+
+        assertThat(outcomes).containsExactly("OK");
+        assertThat(queue.inFlight()).isZero();
+        assertThatThrownBy(() -> presenter.submit("bob", "2")).hasMessage("listener bug");
+        assertThat(queue.inFlight()).isZero();
+        verify(client, times(2)).sendValues(anyMap());
+    }
+
+    @Test
+    void boundedQueue_dropOldest_reportsTheDroppedSend() {
+        List<CompletableFuture<RpcClient.Result>> replies = new ArrayList<>();
+        AsyncRpcClient client = payload -> {
+            CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+            replies.add(reply);
+            return reply;
+        };
+        RecordingListener listener = new RecordingListener();
+        SendQueue queue = new SendQueue(new SendQueue.Settings(1, 1, SendQueue.Overflow.DROP_OLDEST));
+        SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                SendPresenter.Settings.defaults().withQueue(queue));
+
+        presenter.submit("alice", "1");
+        presenter.submit("bob", "2");
+        presenter.submit("carol", "3");
+
+        assertThat(listener.state).isEqualTo("Error");
+        assertThat(listener.message).startsWith("Dropped");
+        replies.get(0).complete(RpcClient.Result.ok("OK"));
+        replies.get(1).complete(RpcClient.Result.ok("OK carol"));
+        assertThat(replies).hasSize(2);
+        assertThat(listener.message).isEqualTo("OK carol");
+    }
+
+    @Test
+    void outbox_rejectedSend_staysInTheOutbox_andIsReplayedLater(@TempDir Path dir) throws Exception {
+        List<CompletableFuture<RpcClient.Result>> replies = new ArrayList<>();
+        AsyncRpcClient client = payload -> {
+            CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+            replies.add(reply);
+            return reply;
+        };
+        RecordingListener listener = new RecordingListener();
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            SendQueue queue = new SendQueue(new SendQueue.Settings(1, 0, SendQueue.Overflow.REJECT));
+            SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                    SendPresenter.Settings.defaults().withOutbox(outbox).withQueue(queue));
+
+            presenter.submit("alice", "1");
+            presenter.submit("bob", "2");
+            assertThat(listener.message).contains("Kept in the outbox");
+            assertThat(outbox.depth()).isEqualTo(2);
+
+            replies.get(0).complete(RpcClient.Result.ok("OK")); // success triggers a drain, which replays bob
+            assertThat(replies).hasSize(2);
+            replies.get(1).complete(RpcClient.Result.ok("OK"));
+            assertThat(outbox.depth()).isZero();
+        }
+    }
+
+    /** Thread-safe listener for tests that submit from many threads. */
+    static class CountingListener implements SendPresenter.Listener {
+        final AtomicInteger sending = new AtomicInteger();
+        final ConcurrentLinkedQueue<String> outcomes = new ConcurrentLinkedQueue<>();
+
+        @Override public void onIdle() {}
+        @Override public void onSending() { sending.incrementAndGet(); }
+        @Override public void onSuccess(String message) { outcomes.add("ok:" + message); }
+        @Override public void onError(String message) { outcomes.add("error:" + message); }
+        @Override public void onValidationError(String field, String message) { outcomes.add("invalid:" + field); }
+    }
+
+    @Test
+    void concurrentIdenticalSubmits_shareOneRpcCall_andAllGetItsResult() throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.sendValues(anyMap())).thenAnswer(inv -> {
+            release.await();
+            return RpcClient.Result.ok("OK once");
+        });
+        CountingListener listener = new CountingListener();
+        MetricsRegistry metrics = new MetricsRegistry();
+        int submitters = 8;
+        try (ExecutorService background = Executors.newCachedThreadPool();
+             ExecutorService callers = Executors.newFixedThreadPool(submitters)) {
+            SendPresenter presenter = new SendPresenter(client, background, listener,
+                    SendPresenter.Settings.defaults().withMetrics(metrics));
+
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> submits = new ArrayList<>();
+            for (int i = 0; i < submitters; i++) {
+                submits.add(callers.submit(() -> {
+                    go.await();
+                    presenter.submit("alice", "42");
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : submits) f.get(5, TimeUnit.SECONDS);
+            assertThat(listener.sending.get()).isEqualTo(submitters);
+
+            release.countDown();
+            await().atMost(5, TimeUnit.SECONDS).until(() -> listener.outcomes.size() == submitters);
+        }
+
+        verify(client, times(1)).sendValues(anyMap());
+        assertThat(listener.outcomes).containsOnly("ok:OK once");
+        assertThat(metrics.snapshot())
+                .containsEntry("send.coalesced", (long) submitters - 1)
+                .containsEntry("send.success", (long) submitters)
+                .containsEntry("send.inFlight", 0L);
+    }
+
+    @Test
+    void coalescing_onlyJoinsIdenticalPayloads_andOnlyWhileInFlight() throws Exception {
+        List<CompletableFuture<RpcClient.Result>> replies = new ArrayList<>();
+        AsyncRpcClient client = payload -> {
+            CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+            replies.add(reply);
+            return reply;
+        };
+        CountingListener listener = new CountingListener();
+        SendPresenter presenter = new SendPresenter(client, direct(), Clock.systemUTC(), listener);
+
+        presenter.submit("alice", "1");
+        presenter.submit(" alice ", "1"); // same payload after trimming
+        presenter.submit("alice", "2");
+        presenter.submit("bob", "1");
+        assertThat(replies).hasSize(3);
+
+        replies.get(0).completeExceptionally(new IOException("down"));
+        assertThat(listener.outcomes).containsExactly("error:Failed to send: down", "error:Failed to send: down");
+
+        presenter.submit("alice", "1"); // the first call has finished: this is a new one
+        assertThat(replies).hasSize(4);
+    }
+
+    @Test
+    void submitWithoutCoalescing_sendsEveryIdenticalPayload_andLeavesCoalescedSendsAlone() {
+        List<CompletableFuture<RpcClient.Result>> replies = new ArrayList<>();
+        AsyncRpcClient client = payload -> {
+            CompletableFuture<RpcClient.Result> reply = new CompletableFuture<>();
+            replies.add(reply);
+            return reply;
+        };
+        CountingListener listener = new CountingListener();
+        SendPresenter presenter = new SendPresenter(client, direct(), Clock.systemUTC(), listener);
+
+        presenter.submit("alice", "1");
+        presenter.submitWithoutCoalescing("alice", "1");
+        presenter.submitWithoutCoalescing("alice", "1");
+        assertThat(replies).hasSize(3);
+
+        replies.get(1).complete(RpcClient.Result.ok("second"));
+        presenter.submit("alice", "1"); // still joins the first, coalesced send
+        assertThat(replies).hasSize(3);
+
+        replies.get(0).complete(RpcClient.Result.ok("first"));
+        replies.get(2).complete(RpcClient.Result.ok("third"));
+        assertThat(listener.outcomes).containsExactly("ok:second", "ok:first", "ok:first", "ok:third");
+    }
+
+    @Test
+    void idempotencyKey_isAddedPerSend_andReusedByOutboxReplays(@TempDir Path dir) throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenThrow(new IOException("connection refused"));
+        int[] keys = {0};
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            SendPresenter presenter = new SendPresenter(client, direct(), new RecordingListener(),
+                    SendPresenter.Settings.defaults().withOutbox(outbox).withIdempotencyKeys(() -> "key-" + ++keys[0]));
+
+            presenter.submit("alice", "1");
+            presenter.submit("bob", "2");
+            presenter.drainOutbox();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Map<String, Object>> sent = ArgumentCaptor.forClass(Map.class);
+            verify(client, times(4)).sendValues(sent.capture());
+            assertThat(sent.getAllValues()).extracting(p -> p.get("idempotencyKey"))
+                    .containsExactly("key-1", "key-2", "key-1", "key-2");
+        }
+    }
+
+    @Test
+    void outbox_keepsFailedSends_andReplaysThemAfterTheNextSuccess(@TempDir Path dir) throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        RecordingListener listener = new RecordingListener();
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                    SendPresenter.Settings.defaults().withOutbox(outbox));
+
+            when(client.sendValues(anyMap())).thenThrow(new IOException("connection refused"));
+            presenter.submit("alice", "1");
+            presenter.submit("bob", "2");
+            assertThat(listener.state).isEqualTo("Error");
+            assertThat(listener.outboxDepth).isEqualTo(2);
+
+            reset(client);
+            when(client.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+            presenter.submit("carol", "3");
+
+            assertThat(listener.state).isEqualTo("Success");
+            assertThat(listener.outboxDepth).isZero();
+            verify(client, times(3)).sendValues(anyMap());
+        }
+    }
+
+    @Test
+    void outbox_remoteErrorsAreSettled_notReplayed(@TempDir Path dir) throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenReturn(RpcClient.Result.error("Bad Request"));
+        RecordingListener listener = new RecordingListener();
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                    SendPresenter.Settings.defaults().withOutbox(outbox));
+
+            presenter.submit("bob", "1");
+            assertThat(listener.state).isEqualTo("Error");
+            assertThat(outbox.depth()).isZero();
+        }
+    }
+
+    @Test
+    void outbox_faultedSendsAreSettled_notReplayed_butTransportFailuresAreKept(@TempDir Path dir) throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(Map.of("userId", "bob", "amount", 1, "currency", "USD")))
+                .thenThrow(new XmlRpcCodec.Fault(4, "Unknown user"));
+        when(client.sendValues(Map.of("userId", "dave", "amount", 1, "currency", "USD")))
+                .thenThrow(new XmlRpcException(7, "Unknown user"));
+        when(client.sendValues(Map.of("userId", "erin", "amount", 1, "currency", "USD")))
+                .thenThrow(new XmlRpcException(0, "Failed to read server's response"));
+        RecordingListener listener = new RecordingListener();
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            SendPresenter presenter = new SendPresenter(client, direct(), listener,
+                    SendPresenter.Settings.defaults().withOutbox(outbox));
+
+            presenter.submit("bob", "1");
+            presenter.submit("dave", "1");
+            presenter.submit("erin", "1");
+            assertThat(listener.message).contains("Failed to read");
+            assertThat(outbox.depth()).isEqualTo(1);
+
+            reset(client);
+            when(client.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+            presenter.submit("carol", "3");
+
+            // carol's success drains the outbox: only erin's transport failure is replayed
+            assertThat(outbox.depth()).isZero();
+            verify(client).sendValues(Map.of("userId", "erin", "amount", 1, "currency", "USD"));
+            verify(client, times(2)).sendValues(anyMap());
+        }
+    }
+
+    @Test
+    void outbox_entriesFromAPreviousRun_areReplayedOnConstruction(@TempDir Path dir) throws Exception {
+        try (SendOutbox previousRun = new SendOutbox(dir)) {
+            previousRun.append(Map.of("userId", "alice", "amount", 5, "currency", "USD"));
+        }
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenReturn(RpcClient.Result.ok("OK"));
+        RecordingListener listener = new RecordingListener();
+
+        try (SendOutbox outbox = new SendOutbox(dir)) {
+            new SendPresenter(client, direct(), listener, SendPresenter.Settings.defaults().withOutbox(outbox));
+
+            verify(client).sendValues(Map.of("userId", "alice", "amount", 5, "currency", "USD"));
+            assertThat(outbox.depth()).isZero();
+            assertThat(listener.outboxDepth).isZero();
+            assertThat(listener.state).isEqualTo("Idle");
+        }
+    }
+}
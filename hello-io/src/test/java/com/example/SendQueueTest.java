@@ -0,0 +1,145 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SendQueueTest {
+
+    /** Job that stays running until finish() is called. */
+    static final class HeldJob implements SendQueue.Job {
+        final String name;
+        final List<String> log;
+        Runnable done;
+        boolean wasDropped;
+
+        HeldJob(String name, List<String> log) {
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override public void start(Runnable done) {
+            this.done = done;
+            log.add("start " + name);
+        }
+
+        @Override public void dropped() {
+            wasDropped = true;
+            log.add("drop " + name);
+        }
+
+        void finish() {
+            done.run();
+        }
+    }
+
+    private final List<String> log = new ArrayList<>();
+    private final List<String> depths = new ArrayList<>();
+
+    private SendQueue queue(int maxInFlight, int maxQueued, SendQueue.Overflow overflow) {
+        SendQueue queue = new SendQueue(new SendQueue.Settings(maxInFlight, maxQueued, overflow));
+        queue.setDepthListener((inFlight, queued) -> depths.add(inFlight + "/" + queued));
+        return queue;
+    }
+
+    @Test
+    void startsUpToMaxInFlight_thenQueues_thenStartsInOrder() {
+        SendQueue queue = queue(2, 2, SendQueue.Overflow.REJECT);
+        HeldJob a = new HeldJob("a", log), b = new HeldJob("b", log), c = new HeldJob("c", log), d = new HeldJob("d", log);
+
+        assertThat(queue.offer(a)).isTrue();
+        assertThat(queue.offer(b)).isTrue();
+        assertThat(queue.offer(c)).isTrue();
+        assertThat(queue.offer(d)).isTrue();
+        assertThat(log).containsExactly("start a", "start b");
+        assertThat(depths).containsExactly("1/0", "2/0", "2/1", "2/2");
+
+        a.finish();
+        b.finish();
+        assertThat(log).containsExactly("start a", "start b", "start c", "start d");
+        c.finish();
+        d.finish();
+        assertThat(queue.inFlight()).isZero();
+        assertThat(depths).endsWith("1/0", "0/0");
+    }
+
+    @Test
+    void reject_refusesWhenFull() {
+        SendQueue queue = queue(1, 1, SendQueue.Overflow.REJECT);
+        queue.offer(new HeldJob("a", log));
+        queue.offer(new HeldJob("b", log));
+
+        assertThat(queue.offer(new HeldJob("c", log))).isFalse();
+        assertThat(queue.queued()).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldest_evictsTheLongestWaitingJob() {
+        SendQueue queue = queue(1, 2, SendQueue.Overflow.DROP_OLDEST);
+        HeldJob a = new HeldJob("a", log), b = new HeldJob("b", log), c = new HeldJob("c", log), d = new HeldJob("d", log);
+        queue.offer(a);
+        queue.offer(b);
+        queue.offer(c);
+
+        assertThat(queue.offer(d)).isTrue();
+        assertThat(b.wasDropped).isTrue();
+
+        a.finish();
+        assertThat(log).containsExactly("start a", "drop b", "start c");
+    }
+
+    @Test
+    void offerIfRoom_neverDropsOthers() {
+        SendQueue queue = queue(1, 1, SendQueue.Overflow.DROP_OLDEST);
+        HeldJob waiting = new HeldJob("b", log);
+        queue.offer(new HeldJob("a", log));
+        queue.offer(waiting);
+
+        assertThat(queue.offerIfRoom(new HeldJob("replay", log))).isFalse();
+        assertThat(waiting.wasDropped).isFalse();
+    }
+
+    @Test
+    void block_waitsForRoom_whenTheCallerMayBlock() throws Exception {
+        SendQueue queue = queue(1, 0, SendQueue.Overflow.BLOCK);
+        HeldJob a = new HeldJob("a", log);
+        queue.offer(a);
+
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread caller = Thread.ofVirtual().start(() -> {
+            if (queue.offer(new HeldJob("b", new ArrayList<>()))) admitted.countDown();
+        });
+        assertThat(admitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        a.finish();
+        assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.join();
+    }
+
+    @Test
+    void block_rejectsCallersThatMustNotBlock() {
+        AtomicBoolean onEdt = new AtomicBoolean(true);
+        SendQueue queue = new SendQueue(new SendQueue.Settings(1, 0, SendQueue.Overflow.BLOCK), () -> !onEdt.get());
+        queue.offer(new HeldJob("a", log));
+
+        assertThat(queue.offer(new HeldJob("b", log))).isFalse();
+    }
+
+    @Test
+    void synchronousJobs_releaseTheirSlotImmediately() {
+        SendQueue queue = queue(1, 0, SendQueue.Overflow.REJECT);
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.offer(new SendQueue.Job() {
+                @Override public void start(Runnable done) { done.run(); }
+                @Override public void dropped() {}
+            })).isTrue();
+        }
+        assertThat(queue.inFlight()).isZero();
+    }
+}
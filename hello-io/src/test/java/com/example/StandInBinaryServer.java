@@ -0,0 +1,174 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process server for BinaryRpcClient: the binary-frame counterpart of StandInXmlRpcServer.
+ * Responsibilities:
+ * - Accept connections on a free loopback port (address()) and answer RECEIVE frames with the same reply
+ *   text, latency, fault rate and padding (StandInXmlRpcServer.Settings) as the XML-RPC stand-in.
+ * - Handle every request on its own virtual thread, so slow calls overlap and replies can overtake each other.
+ * - Count connections, calls and faults, and the most calls in progress at once (peakInFlight()).
+ *
+ * Teaching points:
+ * - peakInFlight() above 1 with a single connection is pipelining at work.
+ * - dropConnections() simulates a server restart without giving up the port.
+ */
+final class StandInBinaryServer implements AutoCloseable {
+
+    private final StandInXmlRpcServer.Settings settings;
+    private final ServerSocketChannel server;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<SocketChannel> open = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong faults = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    StandInBinaryServer() throws IOException {
+        this(StandInXmlRpcServer.Settings.defaults());
+    }
+
+    StandInBinaryServer(StandInXmlRpcServer.Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0), 1024);
+        workers.execute(this::accept);
+    }
+
+    /** "host:port" for BinaryRpcClient. */
+    String address() {
+        InetSocketAddress local = socketAddress();
+        return local.getHostString() + ":" + local.getPort();
+    }
+
+    InetSocketAddress socketAddress() {
+        try {
+            return (InetSocketAddress) server.getLocalAddress();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    long connections() {
+        return connections.get();
+    }
+
+    long calls() {
+        return calls.get();
+    }
+
+    long injectedFaults() {
+        return faults.get();
+    }
+
+    int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /** Closes every client connection; the server keeps accepting new ones. */
+    void dropConnections() {
+        for (SocketChannel channel : List.copyOf(open)) closeQuietly(channel);
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(server);
+        dropConnections();
+        workers.shutdownNow();
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel channel = server.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connections.incrementAndGet();
+                open.add(channel);
+                workers.execute(() -> serve(channel));
+            }
+        } catch (ClosedChannelException closed) {
+            // close()
+        } catch (IOException ex) {
+            closeQuietly(server);
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        Object writeLock = new Object();
+        ByteBuffer header = ByteBuffer.allocate(BinaryRpcCodec.HEADER_BYTES);
+        try (channel) {
+            BinaryRpcCodec.Frame frame;
+            while ((frame = BinaryRpcCodec.read(channel, header)) != null) {
+                BinaryRpcCodec.Frame request = frame;
+                workers.execute(() -> reply(channel, writeLock, request));
+            }
+        } catch (IOException ignored) {
+            // Client went away or dropConnections()
+        } finally {
+            open.remove(channel);
+        }
+    }
+
+    private void reply(SocketChannel channel, Object writeLock, BinaryRpcCodec.Frame request) {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (!settings.latency().isZero()) sleep(settings.latency());
+            ByteBuffer response = respond(request);
+            synchronized (writeLock) {
+                while (response.hasRemaining()) channel.write(response);
+            }
+        } catch (IOException ignored) {
+            // Connection closed while the call was in progress
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private ByteBuffer respond(BinaryRpcCodec.Frame request) {
+        Map<String, Object> payload;
+        try {
+            payload = BinaryRpcCodec.payload(request);
+        } catch (RuntimeException ex) {
+            return BinaryRpcCodec.fault(request.id(), StandInXmlRpcServer.METHOD_NOT_FOUND, "bad request: " + ex.getMessage());
+        }
+        calls.incrementAndGet();
+        if (settings.faultRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.faultRate()) {
+            faults.incrementAndGet();
+            return BinaryRpcCodec.fault(request.id(), StandInXmlRpcServer.INJECTED_FAULT, "Injected failure");
+        }
+        return BinaryRpcCodec.ok(request.id(), StandInXmlRpcServer.reply(payload, settings.responseBytes()));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // Best effort
+        }
+    }
+}
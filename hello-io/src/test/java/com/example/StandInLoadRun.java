@@ -0,0 +1,52 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs LoadGenerator against an in-process StandInXmlRpcServer, so no Python server or network is needed:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.StandInLoadRun \
+ *       -Dexec.args="--latencyMs 5 --faultRate 0.01 --rate 500 --seconds 10"
+ * --latencyMs and --faultRate configure the stand-in; --transport binary starts a StandInBinaryServer and
+ * selects BinaryRpcClient instead (default xmlrpc). Every other option is passed on to LoadGenerator.
+ */
+final class StandInLoadRun {
+
+    private StandInLoadRun() {}
+
+    public static void main(String[] args) throws Exception {
+        // Before the JDK HTTP server loads (see StandInXmlRpcServer); exec:java cannot pass it as a JVM flag
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        StandInXmlRpcServer.Settings settings = StandInXmlRpcServer.Settings.defaults();
+        List<String> rest = new ArrayList<>();
+        boolean binary = false;
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Option " + args[args.length - 1] + " has no value");
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--latencyMs" -> settings = settings.withLatency(Duration.ofMillis(Long.parseLong(args[i + 1])));
+                case "--faultRate" -> settings = settings.withFaultRate(Double.parseDouble(args[i + 1]));
+                case "--transport" -> binary = switch (args[i + 1]) {
+                    case "xmlrpc" -> false;
+                    case "binary" -> true;
+                    default -> throw new IllegalArgumentException("Unknown transport: " + args[i + 1]);
+                };
+                default -> rest.addAll(List.of(args[i], args[i + 1]));
+            }
+        }
+        if (binary) {
+            try (StandInBinaryServer server = new StandInBinaryServer(settings)) {
+                System.setProperty("rpc.client", "binary");
+                System.setProperty("rpc.binaryAddress", server.address());
+                LoadGenerator.main(rest.toArray(String[]::new));
+            }
+            return;
+        }
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer(settings)) {
+            rest.addAll(List.of("--url", server.url()));
+            LoadGenerator.main(rest.toArray(String[]::new));
+        }
+    }
+}
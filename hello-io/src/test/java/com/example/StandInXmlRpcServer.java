@@ -0,0 +1,194 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process replacement for xmlrpc_server.py for tests, load runs and benchmarks.
+ * Responsibilities:
+ * - Serve receive(payload) and system.multicall on /RPC2 over HTTP/1.1 keep-alive.
+ * - Inject latency, faults and padded responses as configured in Settings.
+ * - Count requests, calls and injected faults.
+ *
+ * Teaching points:
+ * - One virtual thread per exchange: artificial latency is a sleep and costs no platform thread,
+ *   so thousands of concurrent clients can be simulated on a laptop.
+ * - Binds to port 0 (a free port); use url() for the endpoint.
+ * - Run with -Dsun.net.httpserver.nodelay=true (surefire, the jmh profile and StandInLoadRun set it): without
+ *   TCP_NODELAY the split header/body writes hit the 40 ms delayed-ACK stall on every call. The JDK reads it
+ *   once, when the HTTP server classes load, so setting it here per instance would be too late.
+ */
+final class StandInXmlRpcServer implements AutoCloseable {
+
+    /**
+     * latency: added to every request. faultRate: share of receive calls answered with a fault (0..1).
+     * responseBytes: minimum length of the receive result string (padded with '.').
+     */
+    record Settings(Duration latency, double faultRate, int responseBytes) {
+        Settings {
+            if (latency.isNegative()) throw new IllegalArgumentException("latency must be >= 0");
+            if (faultRate < 0 || faultRate > 1) throw new IllegalArgumentException("faultRate must be in [0, 1]");
+            if (responseBytes < 0) throw new IllegalArgumentException("responseBytes must be >= 0");
+        }
+
+        static Settings defaults() {
+            return new Settings(Duration.ZERO, 0, 0);
+        }
+
+        Settings withLatency(Duration latency) {
+            return new Settings(latency, faultRate, responseBytes);
+        }
+
+        Settings withFaultRate(double faultRate) {
+            return new Settings(latency, faultRate, responseBytes);
+        }
+
+        Settings withResponseBytes(int responseBytes) {
+            return new Settings(latency, faultRate, responseBytes);
+        }
+    }
+
+    static final int INJECTED_FAULT = 1;
+    static final int METHOD_NOT_FOUND = -32601;
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong faults = new AtomicLong();
+
+    StandInXmlRpcServer() throws IOException {
+        this(Settings.defaults());
+    }
+
+    StandInXmlRpcServer(Settings settings) throws IOException {
+        this.settings = settings;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/RPC2", this::handle);
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** HTTP requests answered so far. */
+    long requests() {
+        return requests.get();
+    }
+
+    /** receive calls answered so far, including those inside a multicall. */
+    long calls() {
+        return calls.get();
+    }
+
+    long injectedFaults() {
+        return faults.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            if (!settings.latency().isZero()) sleep(settings.latency());
+
+            byte[] response = respond(body);
+            exchange.getResponseHeaders().set("Content-Type", "text/xml");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private byte[] respond(byte[] body) {
+        XmlRpcCodec.Call call;
+        try {
+            call = XmlRpcCodec.decodeCall(body);
+        } catch (IllegalArgumentException ex) {
+            return XmlRpcCodec.encodeFault(-32700, "parse error: " + ex.getMessage());
+        }
+        return switch (call.methodName()) {
+            case "receive" -> {
+                try {
+                    yield XmlRpcCodec.encodeResponse(receive(call.params()));
+                } catch (XmlRpcCodec.Fault fault) {
+                    yield XmlRpcCodec.encodeFault(fault.code, fault.getMessage());
+                }
+            }
+            case "system.multicall" -> XmlRpcCodec.encodeResponse(multicall(call.params()));
+            default -> XmlRpcCodec.encodeFault(METHOD_NOT_FOUND, "method \"" + call.methodName() + "\" is not supported");
+        };
+    }
+
+    private List<Object> multicall(List<Object> params) {
+        List<Object> results = new ArrayList<>();
+        Object[] calls = params.isEmpty() || !(params.get(0) instanceof Object[] a) ? new Object[0] : a;
+        for (Object item : calls) {
+            Map<?, ?> call = item instanceof Map<?, ?> m ? m : Map.of();
+            Object[] callParams = call.get("params") instanceof Object[] p ? p : new Object[0];
+            if (!"receive".equals(call.get("methodName"))) {
+                results.add(XmlRpcCodec.faultStruct(METHOD_NOT_FOUND, "method \"" + call.get("methodName") + "\" is not supported"));
+                continue;
+            }
+            try {
+                results.add(List.of(receive(List.of(callParams))));
+            } catch (XmlRpcCodec.Fault fault) {
+                results.add(XmlRpcCodec.faultStruct(fault.code, fault.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Same reply text as xmlrpc_server.py
+    private String receive(List<Object> params) throws XmlRpcCodec.Fault {
+        calls.incrementAndGet();
+        if (settings.faultRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.faultRate()) {
+            faults.incrementAndGet();
+            throw new XmlRpcCodec.Fault(INJECTED_FAULT, "Injected failure");
+        }
+        return reply(!params.isEmpty() && params.get(0) instanceof Map<?, ?> m ? m : Map.of(), settings.responseBytes());
+    }
+
+    /** The receive result for payload, padded with '.' to at least responseBytes (shared with StandInBinaryServer). */
+    static String reply(Map<?, ?> payload, int responseBytes) {
+        Object user = payload.get("userId") != null ? payload.get("userId") : "<unknown>";
+        Object amount = payload.get("amount") != null ? payload.get("amount") : 0;
+        Object currency = payload.get("currency") != null ? payload.get("currency") : "";
+        StringBuilder reply = new StringBuilder(("Server received: userId=" + user + ", amount=" + amount + " " + currency).strip());
+        while (reply.length() < responseBytes) reply.append('.');
+        return reply.toString();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StandInXmlRpcServerTest {
+
+    private static final Map<String, Object> PAYLOAD = Map.of("userId", "alice", "amount", 42, "currency", "USD");
+
+    @Test
+    void answersReceive_likeThePythonServer_forEveryClient() throws Exception {
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer();
+             ApacheXmlRpcClient apache = new ApacheXmlRpcClient(server.url(), ApacheXmlRpcClient.PoolSettings.defaults())) {
+            String expected = "Server received: userId=alice, amount=42 USD";
+
+            assertThat(apache.sendValues(PAYLOAD)).isEqualTo(RpcClient.Result.ok(expected));
+            assertThat(new HttpXmlRpcClient(server.url()).sendValues(PAYLOAD).message()).isEqualTo(expected);
+            assertThat(new StreamingXmlRpcClient(server.url()).sendValues(PAYLOAD).message()).isEqualTo(expected);
+            assertThat(server.calls()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void supportsSystemMulticall() throws Exception {
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer();
+             ApacheXmlRpcClient client = new ApacheXmlRpcClient(server.url(), ApacheXmlRpcClient.PoolSettings.defaults())) {
+            List<RpcClient.Result> results = client.sendBatch(List.of(PAYLOAD, Map.of("userId", "bob", "amount", 1, "currency", "EUR")));
+
+            assertThat(results).extracting(RpcClient.Result::message)
+                    .containsExactly("Server received: userId=alice, amount=42 USD", "Server received: userId=bob, amount=1 EUR");
+            assertThat(client.isMulticallSupported()).isTrue();
+            assertThat(server.requests()).isEqualTo(1);
+            assertThat(server.calls()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void injectsFaults_latency_andLargeResponses() throws Exception {
+        var settings = StandInXmlRpcServer.Settings.defaults().withFaultRate(1);
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer(settings);
+             ApacheXmlRpcClient client = new ApacheXmlRpcClient(server.url(), ApacheXmlRpcClient.PoolSettings.defaults())) {
+            assertThatThrownBy(() -> client.sendValues(PAYLOAD))
+                    .isInstanceOf(XmlRpcException.class)
+                    .hasMessageContaining("Injected failure");
+            assertThat(server.injectedFaults()).isEqualTo(1);
+        }
+
+        settings = StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofMillis(100)).withResponseBytes(10_000);
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer(settings)) {
+            long start = System.nanoTime();
+            RpcClient.Result result = new HttpXmlRpcClient(server.url()).sendValues(PAYLOAD);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(elapsedMs).isGreaterThanOrEqualTo(100);
+            assertThat(result.message()).hasSize(10_000).startsWith("Server received: userId=alice");
+        }
+    }
+
+    @Test
+    void servesManyConcurrentClients_despiteLatency() throws Exception {
+        var settings = StandInXmlRpcServer.Settings.defaults().withLatency(Duration.ofMillis(200));
+        int senders = 200;
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer(settings);
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpXmlRpcClient client = new HttpXmlRpcClient(server.url());
+            long start = System.nanoTime();
+            List<Future<RpcClient.Result>> results = new ArrayList<>();
+            for (int i = 0; i < senders; i++) results.add(threads.submit(() -> client.sendValues(PAYLOAD)));
+            for (Future<RpcClient.Result> result : results) assertThat(result.get().success()).isTrue();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(server.calls()).isEqualTo(senders);
+            // A single-threaded server would need 200 x 200 ms = 40 s
+            assertThat(elapsedMs).isLessThan(10_000);
+        }
+    }
+
+    @Test
+    void unknownMethods_areFaults() throws Exception {
+        try (StandInXmlRpcServer server = new StandInXmlRpcServer()) {
+            byte[] reply = post(server.url() + "/RPC2", XmlRpcCodec.encodeCall("nope"));
+
+            assertThatThrownBy(() -> XmlRpcCodec.decodeResponse(reply))
+                    .isInstanceOfSatisfying(XmlRpcCodec.Fault.class, f -> assertThat(f.code).isEqualTo(StandInXmlRpcServer.METHOD_NOT_FOUND));
+        }
+    }
+
+    private static byte[] post(String url, byte[] body) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(body);
+        }
+        try (InputStream in = conn.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingXmlRpcClientTest {
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile String lastRequest;
+    private volatile int status = 200;
+    private volatile String response = """
+            <?xml version='1.0'?>
+            <methodResponse><params><param><value><string>Server received</string></value></param></params></methodResponse>
+            """;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/RPC2", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            lastRequest = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private StreamingXmlRpcClient client() {
+        return new StreamingXmlRpcClient("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private static Map<String, Object> payload(String userId, int amount) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("userId", userId);
+        payload.put("amount", amount);
+        payload.put("currency", "USD");
+        return payload;
+    }
+
+    @Test
+    void sendsEncodedCall_andReturnsServerMessage_overOneKeptAliveConnection() throws Exception {
+        StreamingXmlRpcClient client = client();
+        for (int i = 0; i < 20; i++) {
+            assertThat(client.sendValues(payload("alice", i))).isEqualTo(RpcClient.Result.ok("Server received"));
+        }
+
+        assertThat(lastRequest).contains("<methodName>receive</methodName>")
+                .contains("<member><name>amount</name><value><int>19</int></value></member>");
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void faultAndHttpErrors_areThrown() {
+        StreamingXmlRpcClient client = client();
+        response = """
+                <methodResponse><fault><value><struct>
+                <member><name>faultCode</name><value><int>1</int></value></member>
+                <member><name>faultString</name><value><string>nope</string></value></member>
+                </struct></value></fault></methodResponse>
+                """;
+        assertThatThrownBy(() -> client.sendValues(payload("bob", 1)))
+                .isInstanceOf(XmlRpcCodec.Fault.class).hasMessage("nope");
+
+        status = 500;
+        assertThatThrownBy(() -> client.sendValues(payload("bob", 1)))
+                .isInstanceOf(IOException.class).hasMessageContaining("HTTP 500");
+    }
+}
@@ -0,0 +1,97 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TriadBatchCalculatorTest {
+
+    private final TriadBatchCalculator batch = new TriadBatchCalculator();
+    private final TriadCalculator scalar = new TriadCalculator();
+
+    /** Random rows covering every field, the keep/clamp branches, over-total and negative edits. */
+    private static final class Rows {
+        final int[] a, b, c, newValue, total;
+        final byte[] field;
+
+        Rows(int n, long seed) {
+            Random random = new Random(seed);
+            a = new int[n]; b = new int[n]; c = new int[n]; newValue = new int[n]; total = new int[n];
+            field = new byte[n];
+            for (int i = 0; i < n; i++) {
+                total[i] = random.nextInt(1_000);
+                a[i] = random.nextInt(700);
+                b[i] = random.nextInt(700);
+                c[i] = random.nextInt(700);
+                newValue[i] = random.nextInt(1_400) - 200;
+                field[i] = (byte) random.nextInt(3);
+            }
+            // Extremes
+            total[0] = Integer.MAX_VALUE; a[0] = Integer.MAX_VALUE; newValue[0] = Integer.MIN_VALUE;
+            total[1] = 0; newValue[1] = Integer.MAX_VALUE;
+        }
+
+        void assertMatchesScalar(TriadCalculator scalar, int[] outA, int[] outB, int[] outC) {
+            for (int i = 0; i < a.length; i++) {
+                TriadCalculator.Values expected = scalar.adjust(new TriadCalculator.Values(a[i], b[i], c[i]),
+                        TriadCalculator.Field.values()[field[i]], newValue[i], total[i]);
+                assertThat(new TriadCalculator.Values(outA[i], outB[i], outC[i])).as("row %d", i).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void sequential_isIdenticalToScalarAdjust() {
+        Rows rows = new Rows(50_000, 1);
+        int[] outA = new int[50_000], outB = new int[50_000], outC = new int[50_000];
+
+        batch.adjust(rows.a, rows.b, rows.c, rows.newValue, rows.field, rows.total, outA, outB, outC);
+
+        rows.assertMatchesScalar(scalar, outA, outB, outC);
+    }
+
+    @Test
+    void parallel_isIdenticalToScalarAdjust_forBatchesLargerThanOneChunk() {
+        int n = TriadBatchCalculator.PARALLEL_CHUNK * 4 + 17;
+        Rows rows = new Rows(n, 2);
+        int[] outA = new int[n], outB = new int[n], outC = new int[n];
+
+        batch.adjustParallel(rows.a, rows.b, rows.c, rows.newValue, rows.field, rows.total, outA, outB, outC);
+
+        rows.assertMatchesScalar(scalar, outA, outB, outC);
+    }
+
+    @Test
+    void outputsMayAliasInputs() {
+        Rows rows = new Rows(1_000, 3);
+        int[] expectedA = new int[1_000], expectedB = new int[1_000], expectedC = new int[1_000];
+        batch.adjust(rows.a, rows.b, rows.c, rows.newValue, rows.field, rows.total, expectedA, expectedB, expectedC);
+
+        batch.adjust(rows.a, rows.b, rows.c, rows.newValue, rows.field, rows.total, rows.a, rows.b, rows.c);
+
+        assertThat(rows.a).isEqualTo(expectedA);
+        assertThat(rows.b).isEqualTo(expectedB);
+        assertThat(rows.c).isEqualTo(expectedC);
+    }
+
+    @Test
+    void invalidRows_areRejectedBeforeAnyOutputIsWritten() {
+        int[] out = new int[3];
+        int[] ok = {1, 2, 3};
+        assertThatThrownBy(() -> batch.adjust(ok, ok, ok, ok, new byte[] {0, 1, 2}, new int[] {5, -1, 5}, out, out, out))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("row 1");
+        assertThatThrownBy(() -> batch.adjust(ok, new int[] {1, 1, -1}, ok, ok, new byte[] {0, 1, 2}, ok, out, out, out))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("row 2");
+        assertThatThrownBy(() -> batch.adjust(ok, ok, ok, ok, new byte[] {3, 1, 2}, ok, out, out, out))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown field");
+        assertThatThrownBy(() -> batch.adjust(ok, ok, ok, ok, new byte[] {0, 1}, ok, out, out, out))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(out).containsOnly(0);
+    }
+}
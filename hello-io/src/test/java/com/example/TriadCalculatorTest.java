@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.Random;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -152,4 +155,72 @@ class TriadCalculatorTest {
         assertThat(out).isEqualTo(new TriadCalculator.Values(0, 0, 0));
         assertThat(out.a + out.b + out.c).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void hashCode_matchesObjectsHash() {
+        Random random = new Random(5);
+        for (int i = 0; i < 1_000; i++) {
+            int a = random.nextInt(Integer.MAX_VALUE), b = random.nextInt(1000), c = random.nextInt(10);
+            assertThat(new TriadCalculator.Values(a, b, c).hashCode()).isEqualTo(Objects.hash(a, b, c));
+        }
+    }
+
+    @Test
+    void adjustPacked_matchesAdjust() {
+        Random random = new Random(9);
+        for (int i = 0; i < 10_000; i++) {
+            int total = random.nextInt(TriadCalculator.MAX_PACKED + 1);
+            var cur = new TriadCalculator.Values(random.nextInt(total + 1), random.nextInt(total + 1), random.nextInt(total + 1));
+            var field = TriadCalculator.Field.values()[random.nextInt(3)];
+            int newValue = random.nextInt() % (2 * total + 1);
+
+            long packed = TriadCalculator.adjustPacked(TriadCalculator.pack(cur.a, cur.b, cur.c), field.ordinal(), newValue, total);
+            assertThat(TriadCalculator.unpack(packed)).isEqualTo(calc.adjust(cur, field, newValue, total));
+        }
+    }
+
+    @Test
+    void valuesCache_returnsCanonicalInstances() {
+        var cached = new TriadCalculator(new TriadCalculator.ValuesCache(64));
+        var cur = new TriadCalculator.Values(30, 40, 30);
+
+        var first = cached.adjust(cur, TriadCalculator.Field.A, 50, T);
+        var second = cached.adjust(cur, TriadCalculator.Field.A, 50, T);
+
+        assertThat(second).isSameAs(first).isEqualTo(new TriadCalculator.Values(50, 20, 30));
+    }
+
+    @Test
+    void fastPaths_allocateNothingPerAdjust() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var cached = new TriadCalculator(new TriadCalculator.ValuesCache(8192));
+        var fields = TriadCalculator.Field.values();
+        var start = new TriadCalculator.Values(34, 33, 33);
+        int rounds = 200_000;
+        long sink = 0;
+
+        // Warm up so the JIT has compiled (and inlined) both paths and the cache holds every triple the loop visits
+        for (int i = 0; i < rounds; i++) {
+            sink += TriadCalculator.adjustPacked(TriadCalculator.pack(34, 33, 33), i % 3, i % 120, T);
+            sink += cached.adjust(start, fields[i % 3], (i % 7) * 10, T).hashCode();
+        }
+        TriadCalculator.Values warm = start;
+        for (int i = 0; i < rounds; i++) warm = cached.adjust(warm, fields[i % 3], (i % 7) * 10, T);
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long packed = TriadCalculator.pack(34, 33, 33);
+        for (int i = 0; i < rounds; i++) packed = TriadCalculator.adjustPacked(packed, i % 3, i % 120, T);
+        long packedBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        TriadCalculator.Values v = start;
+        for (int i = 0; i < rounds; i++) v = cached.adjust(v, fields[i % 3], (i % 7) * 10, T);
+        long cachedBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(sink + packed + v.a + warm.a).isNotZero();
+        // 200k adjusts allocating even one small object each would be several megabytes
+        assertThat(packedBytes).isLessThan(10_000);
+        assertThat(cachedBytes).isLessThan(10_000);
+    }
+}
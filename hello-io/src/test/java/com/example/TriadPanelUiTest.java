@@ -10,13 +10,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class TriadPanelUiTest {
 
+    // Generous for slow CI machines; a blocking call on the EDT takes far longer
+    private static final Duration STALL_THRESHOLD = Duration.ofMillis(500);
+
     private Robot robot;
     private FrameFixture window;
+    private EdtWatchdog watchdog;
 
     @BeforeAll
     static void ensureHeadful() {
@@ -25,6 +30,7 @@ class TriadPanelUiTest {
 
     @BeforeEach
     void setUp() {
+        watchdog = EdtWatchdog.install(STALL_THRESHOLD, Metrics.NOOP, stall -> {});
         robot = BasicRobot.robotWithNewAwtHierarchy();
         robot.settings().delayBetweenEvents(1000);
 
@@ -43,7 +49,10 @@ class TriadPanelUiTest {
 
     @AfterEach
     void tearDown() {
-        try { window.cleanUp(); } finally { if (robot != null) robot.cleanUp(); }
+        try { window.cleanUp(); } finally {
+            try { if (robot != null) robot.cleanUp(); } finally { watchdog.uninstall(); }
+        }
+        watchdog.assertNoStalls();
     }
 
     @Test
@@ -2,21 +2,25 @@ package com.example;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class TriadPresenterTest {
 
     static class RecordingListener implements TriadPresenter.Listener {
         TriadCalculator.Values lastValues;
+        int valuesChanges;
         Integer lastTotal;
+        int totalChanges;
         TriadCalculator.Field lastErrorField;
         String lastErrorMessage;
 
-        @Override public void onValuesChanged(TriadCalculator.Values values) { lastValues = values; }
+        @Override public void onValuesChanged(TriadCalculator.Values values) { lastValues = values; valuesChanges++; }
         @Override public void onValidationError(TriadCalculator.Field field, String message) {
             lastErrorField = field; lastErrorMessage = message;
         }
-        @Override public void onTotalChanged(int total) { lastTotal = total; }
+        @Override public void onTotalChanged(int total) { lastTotal = total; totalChanges++; }
     }
 
     @Test
@@ -54,4 +58,118 @@ class TriadPresenterTest {
         // Using the presenter's simple policy: re-apply A with same value (clamped if needed)
         assertThat(listener.lastValues.a + listener.lastValues.b + listener.lastValues.c).isEqualTo(60);
     }
+
+    @Test
+    void debouncedEdits_countEveryKeystroke_butTimeOnlyTheApply() {
+        var scheduler = new ManualScheduler();
+        var metrics = new MetricsRegistry();
+        var presenter = new TriadPresenter(new TriadCalculator(), new RecordingListener(), 100, new TriadCalculator.Values(0, 50, 50),
+                scheduler, Duration.ofMillis(150), Debouncer.Mode.DEBOUNCE, metrics);
+
+        for (String text : new String[] {"1", "12", "12x"}) presenter.onFieldEdited(TriadCalculator.Field.A, text);
+        scheduler.advance(Duration.ofMillis(150));
+        presenter.onFieldEdited(TriadCalculator.Field.B, "7");
+        presenter.flushPendingEdits();
+
+        assertThat(metrics.snapshot())
+                .containsEntry("triad.edits", 4L)
+                .containsEntry("triad.validationErrors", 1L)
+                .containsEntry("triad.apply.count", 2L); // "12x" and "7": rejected edits are timed too
+    }
+
+    @Test
+    void debouncedEdits_computeOnlyTheSettledValue() {
+        var scheduler = new ManualScheduler();
+        var listener = new RecordingListener();
+        var presenter = new TriadPresenter(new TriadCalculator(), listener, 1000, new TriadCalculator.Values(0, 500, 500),
+                scheduler, Duration.ofMillis(150), Debouncer.Mode.DEBOUNCE);
+        int initialChanges = listener.valuesChanges;
+
+        // Typing "1000", plus the remove+insert pair of a paste-replace
+        for (String text : new String[] {"1", "10", "100", "", "1000"}) {
+            presenter.onFieldEdited(TriadCalculator.Field.A, text);
+            scheduler.advance(Duration.ofMillis(50));
+        }
+        assertThat(listener.valuesChanges).isEqualTo(initialChanges);
+        assertThat(listener.lastErrorField).isNull(); // the transient empty text was never parsed
+
+        scheduler.advance(Duration.ofMillis(100));
+        assertThat(listener.valuesChanges).isEqualTo(initialChanges + 1);
+        assertThat(listener.lastValues).isEqualTo(new TriadCalculator.Values(1000, 0, 0));
+    }
+
+    @Test
+    void debouncedEdits_toSeveralFields_applyInEditOrder_andFlushBeforeTotalChanges() {
+        var scheduler = new ManualScheduler();
+        var listener = new RecordingListener();
+        var immediate = new RecordingListener();
+        var debounced = new TriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(30, 40, 30),
+                scheduler, Duration.ofMillis(150), Debouncer.Mode.DEBOUNCE);
+        var reference = new TriadPresenter(new TriadCalculator(), immediate, 100, new TriadCalculator.Values(30, 40, 30));
+
+        debounced.onFieldEdited(TriadCalculator.Field.A, "5");
+        debounced.onFieldEdited(TriadCalculator.Field.B, "10");
+        debounced.onFieldEdited(TriadCalculator.Field.A, "50");
+        debounced.setTotal(80);
+
+        reference.onFieldEdited(TriadCalculator.Field.B, "10");
+        reference.onFieldEdited(TriadCalculator.Field.A, "50");
+        reference.setTotal(80);
+
+        assertThat(listener.lastValues).isEqualTo(immediate.lastValues);
+        assertThat(listener.lastTotal).isEqualTo(80);
+    }
+
+    @Test
+    void undoAndRedo_restoreValuesAndTotal() {
+        var listener = new RecordingListener();
+        var presenter = new TriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(30, 40, 30));
+
+        presenter.onFieldEdited(TriadCalculator.Field.A, "50");
+        presenter.setTotal(60);
+        presenter.onFieldEdited(TriadCalculator.Field.C, "abc"); // invalid edits are not history
+
+        assertThat(presenter.undo()).isTrue();
+        assertThat(listener.lastTotal).isEqualTo(100);
+        assertThat(listener.lastValues).isEqualTo(new TriadCalculator.Values(50, 20, 30));
+
+        assertThat(presenter.undo()).isTrue();
+        assertThat(listener.lastValues).isEqualTo(new TriadCalculator.Values(30, 40, 30));
+        assertThat(presenter.undo()).isFalse();
+
+        assertThat(presenter.redo(5)).isEqualTo(2);
+        assertThat(presenter.currentTotal()).isEqualTo(60);
+        assertThat(listener.lastValues).isEqualTo(presenter.currentValues());
+    }
+
+    @Test
+    void multiStepUndo_notifiesOnce() {
+        var listener = new RecordingListener();
+        var presenter = new TriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(34, 33, 33));
+        for (int i = 1; i <= 50; i++) presenter.onFieldEdited(TriadCalculator.Field.A, String.valueOf(i));
+        presenter.setTotal(200);
+        int valuesBefore = listener.valuesChanges;
+        int totalsBefore = listener.totalChanges;
+
+        assertThat(presenter.undo(51)).isEqualTo(51);
+
+        assertThat(listener.valuesChanges - valuesBefore).isEqualTo(1);
+        assertThat(listener.totalChanges - totalsBefore).isEqualTo(1);
+        assertThat(listener.lastValues).isEqualTo(new TriadCalculator.Values(34, 33, 33));
+        assertThat(listener.lastTotal).isEqualTo(100);
+    }
+
+    @Test
+    void undo_appliesPendingDebouncedEditsFirst() {
+        var scheduler = new ManualScheduler();
+        var listener = new RecordingListener();
+        var presenter = new TriadPresenter(new TriadCalculator(), listener, 100, new TriadCalculator.Values(30, 40, 30),
+                scheduler, Duration.ofMillis(150), Debouncer.Mode.DEBOUNCE);
+
+        presenter.onFieldEdited(TriadCalculator.Field.A, "50");
+        presenter.undo();
+
+        assertThat(listener.lastValues).isEqualTo(new TriadCalculator.Values(30, 40, 30));
+        assertThat(presenter.canRedo()).isTrue();
+    }
 }
@@ -0,0 +1,354 @@
+package com.example;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keystroke-to-paint latency harness for TriadPanel and SendPanel. Needs a display; on Linux use Xvfb:
+ *   xvfb-run -a mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.UiLatencyHarness \
+ *       -Dexec.args="--panel triad --field fieldA --rate 50 --seconds 10"
+ * Options: --panel triad|send, --field (fieldA/B/C; userIdField/amountField), --rate keys per second,
+ * --seconds, --warmupSeconds, --debounceMs (triad), --clickEvery N keys and --rpcLatencyMs (send).
+ *
+ * Responsibilities:
+ * - Show the panel, focus the field and post synthetic key events to the system EventQueue at a fixed rate,
+ *   alternating a digit and Backspace so every keystroke changes the value.
+ * - Timestamp when the dependent fields' text changes (the typed field itself for SendPanel), and when the
+ *   next repaint after that has been flushed to the screen (a RepaintManager wrapper).
+ * - Report percentiles of both latencies, the keystroke backlog (posted but not yet dispatched, sampled at
+ *   every keystroke: the EDT queue depth as input sees it), and EdtWatchdog's queue waits and stalls.
+ *
+ * Teaching points:
+ * - Latency runs from each keystroke's due time, so a stalled EDT cannot hide the keystrokes queued behind it.
+ * - Observation happens on the EDT; only the posting runs on the harness thread. UiLatencyHarnessUiTest runs
+ *   a short burst with loose bounds to catch presenter or panel changes that make typing lag.
+ */
+final class UiLatencyHarness {
+
+    /** editWindow is the triad debounce; clickEvery > 0 clicks Send every that many keystrokes. */
+    record Settings(String panel, String field, double rate, Duration duration, Duration warmup,
+                    Duration editWindow, int clickEvery, Duration rpcLatency) {
+        Settings {
+            if (!panel.equals("triad") && !panel.equals("send")) throw new IllegalArgumentException("panel must be triad or send");
+            if (rate <= 0) throw new IllegalArgumentException("rate must be > 0");
+            if (clickEvery < 0) throw new IllegalArgumentException("clickEvery must be >= 0");
+        }
+
+        /** 50 keys/s into TriadPanel's fieldA for 10 s after 1 s of warm-up. */
+        static Settings defaults() {
+            return new Settings("triad", "fieldA", 50, Duration.ofSeconds(10), Duration.ofSeconds(1),
+                    Duration.ZERO, 0, Duration.ofMillis(20));
+        }
+
+        Settings withPanel(String panel, String field) {
+            return new Settings(panel, field, rate, duration, warmup, editWindow, clickEvery, rpcLatency);
+        }
+
+        Settings withRate(double rate, Duration duration) {
+            return new Settings(panel, field, rate, duration, warmup, editWindow, clickEvery, rpcLatency);
+        }
+
+        Settings withClicks(int clickEvery, Duration rpcLatency) {
+            return new Settings(panel, field, rate, duration, warmup, editWindow, clickEvery, rpcLatency);
+        }
+    }
+
+    /** Measured keystrokes exclude the warm-up; latencies are in microseconds, the backlog in keystrokes. */
+    record Report(long measured, long unfinished, LatencyHistogram textMicros, LatencyHistogram paintMicros,
+                  LatencyHistogram backlog, LatencyHistogram queueWaitMillis, int stalls) {
+
+        void print(PrintStream out) {
+            out.printf("keystrokes %d, unfinished %d%n", measured, unfinished);
+            out.printf("key to text  ms: %s%n", percentiles(textMicros, 1000.0));
+            out.printf("key to paint ms: %s%n", percentiles(paintMicros, 1000.0));
+            out.printf("key backlog:     %s%n", percentiles(backlog, 1));
+            out.printf("EDT queue wait ms: %s%n", percentiles(queueWaitMillis, 1));
+            out.printf("EDT stalls over %d ms: %d%n", STALL_THRESHOLD.toMillis(), stalls);
+        }
+
+        private static String percentiles(LatencyHistogram h, double scale) {
+            return String.format("p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f",
+                    h.valueAtPercentile(50) / scale, h.valueAtPercentile(90) / scale, h.valueAtPercentile(99) / scale,
+                    h.valueAtPercentile(99.9) / scale, h.max() / scale);
+        }
+    }
+
+    /**
+     * Follows each keystroke from posted to dispatched, to reflected in the text, to painted.
+     * posted() runs on the harness thread, everything else on the EDT. A text change or paint completes every
+     * keystroke that reached the previous stage before it, which is what the user sees when updates coalesce.
+     */
+    static final class Tracker {
+        private final long recordFromNanos;
+        private final ConcurrentLinkedQueue<Long> posted = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger postedCount = new AtomicInteger();
+        private final AtomicLong measured = new AtomicLong();
+        private final ArrayDeque<Long> dispatched = new ArrayDeque<>(); // EDT only
+        private final ArrayDeque<Long> reflected = new ArrayDeque<>();  // EDT only
+        final LatencyHistogram textMicros = new LatencyHistogram();
+        final LatencyHistogram paintMicros = new LatencyHistogram();
+        final LatencyHistogram backlog = new LatencyHistogram();
+
+        Tracker(long recordFromNanos) {
+            this.recordFromNanos = recordFromNanos;
+        }
+
+        /** Call before posting the keystroke's events; records how many earlier ones are still waiting. */
+        void posted(long dueNanos) {
+            int waiting = postedCount.getAndIncrement();
+            if (dueNanos >= recordFromNanos) {
+                measured.incrementAndGet();
+                backlog.record(waiting);
+            }
+            posted.add(dueNanos);
+        }
+
+        /** The oldest posted keystroke reached the field (its KEY_PRESSED). */
+        void dispatched() {
+            Long due = posted.poll();
+            if (due == null) return;
+            postedCount.decrementAndGet();
+            dispatched.add(due);
+        }
+
+        void textChanged(long nowNanos) {
+            for (Long due; (due = dispatched.poll()) != null; ) {
+                if (due >= recordFromNanos) textMicros.record((nowNanos - due) / 1_000);
+                reflected.add(due);
+            }
+        }
+
+        void painted(long nowNanos) {
+            for (Long due; (due = reflected.poll()) != null; ) {
+                if (due >= recordFromNanos) paintMicros.record((nowNanos - due) / 1_000);
+            }
+        }
+
+        /** Keystrokes posted after the warm-up. */
+        long measured() {
+            return measured.get();
+        }
+
+        /** Keystrokes not yet painted (EDT only). */
+        int unfinished() {
+            return postedCount.get() + dispatched.size() + reflected.size();
+        }
+    }
+
+    static final Duration STALL_THRESHOLD = Duration.ofMillis(100);
+    private static final Duration FOCUS_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private UiLatencyHarness() {}
+
+    public static void main(String[] args) throws Exception {
+        Settings d = Settings.defaults();
+        String panel = d.panel();
+        String field = null;
+        double rate = d.rate();
+        double seconds = d.duration().toMillis() / 1000.0;
+        double warmupSeconds = d.warmup().toMillis() / 1000.0;
+        long debounceMs = d.editWindow().toMillis();
+        int clickEvery = d.clickEvery();
+        long rpcLatencyMs = d.rpcLatency().toMillis();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--panel" -> panel = args[i + 1];
+                case "--field" -> field = args[i + 1];
+                case "--rate" -> rate = Double.parseDouble(args[i + 1]);
+                case "--seconds" -> seconds = Double.parseDouble(args[i + 1]);
+                case "--warmupSeconds" -> warmupSeconds = Double.parseDouble(args[i + 1]);
+                case "--debounceMs" -> debounceMs = Long.parseLong(args[i + 1]);
+                case "--clickEvery" -> clickEvery = Integer.parseInt(args[i + 1]);
+                case "--rpcLatencyMs" -> rpcLatencyMs = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (field == null) field = panel.equals("send") ? "userIdField" : "fieldA";
+        Settings settings = new Settings(panel, field, rate, Duration.ofMillis((long) (seconds * 1000)),
+                Duration.ofMillis((long) (warmupSeconds * 1000)), Duration.ofMillis(debounceMs), clickEvery,
+                Duration.ofMillis(rpcLatencyMs));
+
+        System.out.printf("Typing %.0f keys/s into %s.%s for %.0f s%n", rate, panel, field, seconds);
+        run(settings).print(System.out);
+        System.exit(0);
+    }
+
+    static Report run(Settings settings) throws Exception {
+        ExecutorService sends = Executors.newSingleThreadExecutor();
+        RpcClient client = payload -> {
+            Thread.sleep(settings.rpcLatency().toMillis());
+            return RpcClient.Result.ok("OK");
+        };
+        EdtWatchdog watchdog = EdtWatchdog.install(STALL_THRESHOLD, Metrics.NOOP, stall -> {});
+        AtomicReference<RepaintManager> previousManager = new AtomicReference<>();
+        AtomicReference<JFrame> frame = new AtomicReference<>();
+        try {
+            long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200); // after the window settles
+            Tracker tracker = new Tracker(start + settings.warmup().toNanos());
+
+            AtomicReference<JTextField> target = new AtomicReference<>();
+            AtomicReference<JButton> sendButton = new AtomicReference<>();
+            SwingUtilities.invokeAndWait(() -> {
+                JPanel content = settings.panel().equals("triad")
+                        ? new TriadPanel(settings.editWindow())
+                        : new SendPanel(client, sends);
+                JTextField field = find(content, settings.field(), JTextField.class);
+                target.set(field);
+                if (content instanceof SendPanel) {
+                    sendButton.set(find(content, "sendButton", JButton.class));
+                    find(content, "amountField", JTextField.class).setText("10");
+                }
+                observe(content, field, tracker);
+
+                previousManager.set(RepaintManager.currentManager(content));
+                RepaintManager.setCurrentManager(new RepaintManager() {
+                    @Override
+                    public void paintDirtyRegions() {
+                        super.paintDirtyRegions();
+                        Toolkit.getDefaultToolkit().sync(); // flushed to the screen, not just to the back buffer
+                        tracker.painted(System.nanoTime());
+                    }
+                });
+
+                JFrame f = new JFrame("UI latency: " + settings.panel());
+                f.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+                f.setContentPane(content);
+                f.pack();
+                f.setLocationRelativeTo(null);
+                f.setVisible(true);
+                frame.set(f);
+            });
+            focus(target.get());
+
+            type(settings, target.get(), sendButton.get(), tracker, start);
+
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (onEdt(tracker::unfinished) > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            int unfinished = onEdt(tracker::unfinished);
+            return new Report(tracker.measured(), unfinished, tracker.textMicros,
+                    tracker.paintMicros, tracker.backlog, watchdog.queueWaitMillis(), watchdog.stalls().size());
+        } finally {
+            SwingUtilities.invokeAndWait(() -> {
+                if (frame.get() != null) frame.get().dispose();
+                if (previousManager.get() != null) RepaintManager.setCurrentManager(previousManager.get());
+            });
+            watchdog.uninstall();
+            sends.shutdownNow();
+        }
+    }
+
+    // Dependent fields for TriadPanel; the typed field itself for SendPanel, which has none
+    private static void observe(JPanel content, JTextField field, Tracker tracker) {
+        field.addKeyListener(new KeyAdapter() {
+            @Override public void keyPressed(KeyEvent e) { tracker.dispatched(); }
+        });
+        List<JTextField> observed = content instanceof TriadPanel
+                ? List.of("fieldA", "fieldB", "fieldC").stream()
+                    .filter(name -> !name.equals(field.getName()))
+                    .map(name -> find(content, name, JTextField.class)).toList()
+                : List.of(field);
+        for (JTextField f : observed) {
+            f.getDocument().addDocumentListener(new DocumentListener() {
+                @Override public void insertUpdate(DocumentEvent e) { tracker.textChanged(System.nanoTime()); }
+                @Override public void removeUpdate(DocumentEvent e) { tracker.textChanged(System.nanoTime()); }
+                @Override public void changedUpdate(DocumentEvent e) {}
+            });
+        }
+    }
+
+    // Open loop: keystroke i is due at start + i / rate whatever the EDT is doing
+    private static void type(Settings settings, JTextField field, JButton sendButton, Tracker tracker, long start)
+            throws InvocationTargetException, InterruptedException {
+        EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+        Random random = new Random(42);
+        int length = onEdt(() -> field.getText().length());
+        long total = (long) (settings.rate() * (settings.warmup().toNanos() + settings.duration().toNanos()) / 1e9);
+        double intervalNanos = 1e9 / settings.rate();
+        for (long i = 0; i < total; i++) {
+            long due = start + (long) (i * intervalNanos);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+
+            tracker.posted(due);
+            long when = System.currentTimeMillis();
+            if (length >= 2) {
+                post(queue, field, when, KeyEvent.VK_BACK_SPACE, '\b');
+                length--;
+            } else {
+                char digit = (char) ('1' + random.nextInt(9)); // no leading zeros: the triad would rewrite "05" as "5"
+                post(queue, field, when, KeyEvent.VK_0 + (digit - '0'), digit);
+                length++;
+            }
+            if (sendButton != null && settings.clickEvery() > 0 && (i + 1) % settings.clickEvery() == 0) {
+                queue.postEvent(new InvocationEvent(sendButton, () -> sendButton.doClick(0)));
+            }
+        }
+    }
+
+    private static void post(EventQueue queue, JTextField field, long when, int keyCode, char keyChar) {
+        queue.postEvent(new KeyEvent(field, KeyEvent.KEY_PRESSED, when, 0, keyCode, keyChar));
+        queue.postEvent(new KeyEvent(field, KeyEvent.KEY_TYPED, when, 0, KeyEvent.VK_UNDEFINED, keyChar));
+        queue.postEvent(new KeyEvent(field, KeyEvent.KEY_RELEASED, when, 0, keyCode, keyChar));
+    }
+
+    // Posted key events go to the focus owner, so the field must have focus before typing starts
+    private static void focus(JTextField field) throws InvocationTargetException, InterruptedException {
+        long deadline = System.nanoTime() + FOCUS_TIMEOUT.toNanos();
+        while (!onEdt(field::isFocusOwner)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(field.getName() + " did not get keyboard focus; is a display (e.g. Xvfb) running?");
+            }
+            SwingUtilities.invokeAndWait(() -> {
+                SwingUtilities.getWindowAncestor(field).toFront();
+                field.requestFocusInWindow();
+            });
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    private static <T> T onEdt(Supplier<T> read) throws InvocationTargetException, InterruptedException {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(read.get()));
+        return result.get();
+    }
+
+    private static <T extends Component> T find(Container root, String name, Class<T> type) {
+        AtomicReference<T> found = new AtomicReference<>();
+        walk(root, c -> {
+            if (found.get() == null && name.equals(c.getName()) && type.isInstance(c)) found.set(type.cast(c));
+        });
+        if (found.get() == null) throw new IllegalArgumentException("No " + type.getSimpleName() + " named " + name);
+        return found.get();
+    }
+
+    private static void walk(Component c, Consumer<Component> visitor) {
+        visitor.accept(c);
+        if (c instanceof Container container) {
+            for (Component child : container.getComponents()) walk(child, visitor);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UiLatencyHarnessTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void eachKeystroke_isTimedFromItsDueTime_toTextAndToPaint() {
+        UiLatencyHarness.Tracker tracker = new UiLatencyHarness.Tracker(0);
+
+        tracker.posted(10 * MS);
+        tracker.dispatched();
+        tracker.textChanged(12 * MS);
+        tracker.painted(15 * MS);
+
+        assertThat(tracker.textMicros.max()).isEqualTo(2_000);
+        assertThat(tracker.paintMicros.max()).isEqualTo(5_000);
+        assertThat(tracker.unfinished()).isZero();
+        assertThat(tracker.measured()).isEqualTo(1);
+    }
+
+    @Test
+    void oneCoalescedUpdate_completesEveryKeystrokeDispatchedBeforeIt() {
+        UiLatencyHarness.Tracker tracker = new UiLatencyHarness.Tracker(0);
+
+        tracker.posted(10 * MS);
+        tracker.posted(20 * MS);
+        tracker.posted(30 * MS);
+        tracker.dispatched();
+        tracker.dispatched();
+        tracker.textChanged(40 * MS); // the third keystroke is still in the queue
+
+        assertThat(tracker.textMicros.count()).isEqualTo(2);
+        assertThat(tracker.textMicros.max()).isEqualTo(30_000);
+        assertThat(tracker.unfinished()).isEqualTo(3);
+
+        tracker.painted(45 * MS);
+        assertThat(tracker.paintMicros.count()).isEqualTo(2);
+        assertThat(tracker.unfinished()).isEqualTo(1);
+    }
+
+    @Test
+    void backlog_countsKeystrokesStillWaiting_whenTheNextIsPosted() {
+        UiLatencyHarness.Tracker tracker = new UiLatencyHarness.Tracker(0);
+
+        tracker.posted(1 * MS);
+        tracker.posted(2 * MS);
+        tracker.posted(3 * MS);
+        tracker.dispatched();
+        tracker.posted(4 * MS);
+
+        assertThat(tracker.backlog.count()).isEqualTo(4);
+        assertThat(tracker.backlog.max()).isEqualTo(2);
+    }
+
+    @Test
+    void keystrokesDueDuringTheWarmUp_areFollowed_butNotRecorded() {
+        UiLatencyHarness.Tracker tracker = new UiLatencyHarness.Tracker(100 * MS);
+
+        tracker.posted(50 * MS);
+        tracker.posted(150 * MS);
+        tracker.dispatched();
+        tracker.dispatched();
+        tracker.textChanged(160 * MS);
+        tracker.painted(170 * MS);
+
+        assertThat(tracker.measured()).isEqualTo(1);
+        assertThat(tracker.textMicros.count()).isEqualTo(1);
+        assertThat(tracker.textMicros.max()).isEqualTo(10_000);
+        assertThat(tracker.paintMicros.max()).isEqualTo(20_000);
+        assertThat(tracker.backlog.count()).isEqualTo(1);
+        assertThat(tracker.unfinished()).isZero();
+    }
+
+    @Test
+    void paintBeforeAnyTextChange_completesNothing() {
+        UiLatencyHarness.Tracker tracker = new UiLatencyHarness.Tracker(0);
+
+        tracker.posted(10 * MS);
+        tracker.dispatched();
+        tracker.painted(11 * MS);
+
+        assertThat(tracker.paintMicros.count()).isZero();
+        assertThat(tracker.unfinished()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Short UiLatencyHarness runs with loose bounds: typing should keep up on any machine that can run the UI tests,
+ * so a failure here means a presenter or panel change made the UI lag (or blocked the EDT).
+ */
+class UiLatencyHarnessUiTest {
+
+    // Far above what an idle desktop or Xvfb needs; a blocking call on the EDT takes longer
+    private static final long MAX_P99_PAINT_MICROS = 250_000;
+
+    @BeforeAll
+    static void ensureHeadful() {
+        System.setProperty("java.awt.headless", "false");
+    }
+
+    @Test
+    void triadTyping_isReflectedAndPaintedPromptly() throws Exception {
+        UiLatencyHarness.Report report = UiLatencyHarness.run(UiLatencyHarness.Settings.defaults()
+                .withRate(25, Duration.ofSeconds(2)));
+
+        assertThat(report.measured()).isEqualTo(50);
+        assertThat(report.unfinished()).isZero();
+        assertThat(report.textMicros().count()).isEqualTo(50);
+        assertThat(report.paintMicros().valueAtPercentile(99)).isLessThan(MAX_P99_PAINT_MICROS);
+        assertThat(report.stalls()).isZero();
+    }
+
+    @Test
+    void sendPanelTyping_staysPrompt_whileSendsComplete() throws Exception {
+        UiLatencyHarness.Report report = UiLatencyHarness.run(UiLatencyHarness.Settings.defaults()
+                .withPanel("send", "userIdField")
+                .withClicks(5, Duration.ofMillis(20))
+                .withRate(25, Duration.ofSeconds(2)));
+
+        assertThat(report.unfinished()).isZero();
+        assertThat(report.paintMicros().count()).isEqualTo(report.measured());
+        assertThat(report.paintMicros().valueAtPercentile(99)).isLessThan(MAX_P99_PAINT_MICROS);
+        assertThat(report.stalls()).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VirtualThreadExecutorTest {
+
+    /** Counts outcomes; callbacks arrive on many virtual threads at once. */
+    static class CountingListener implements SendPresenter.Listener {
+        final AtomicInteger successes = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final CountDownLatch done;
+
+        CountingListener(int expected) { done = new CountDownLatch(expected); }
+
+        @Override public void onIdle() {}
+        @Override public void onSending() {}
+        @Override public void onSuccess(String message) { successes.incrementAndGet(); done.countDown(); }
+        @Override public void onError(String message) { errors.incrementAndGet(); done.countDown(); }
+        @Override public void onValidationError(String field, String message) {}
+    }
+
+    @Test
+    void thousandsOfSlowSends_completeWithoutThreadExhaustion_andRespectTheLimit() throws Exception {
+        int sends = 5_000;
+        int limit = 500;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        RpcClient client = mock(RpcClient.class);
+        when(client.sendValues(anyMap())).thenAnswer(inv -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100); // slow server
+                return RpcClient.Result.ok("OK");
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        int platformThreadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        CountingListener listener = new CountingListener(sends);
+        try (VirtualThreadExecutor executor = new VirtualThreadExecutor(limit)) {
+            SendPresenter presenter = new SendPresenter(client, executor, Clock.systemUTC(), listener);
+            for (int i = 0; i < sends; i++) {
+                presenter.submit("user" + i, String.valueOf(i));
+            }
+            // Virtual threads are not counted by ThreadMXBean; only the carrier pool shows up
+            int platformThreadsDuring = ManagementFactory.getThreadMXBean().getThreadCount();
+            assertThat(platformThreadsDuring - platformThreadsBefore)
+                    .isLessThanOrEqualTo(Runtime.getRuntime().availableProcessors() + 4);
+
+            // 5000 sends x 100 ms at 500 concurrent is ~1 s; a single thread would need ~500 s
+            assertThat(listener.done.await(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(listener.successes.get()).isEqualTo(sends);
+        assertThat(listener.errors.get()).isZero();
+        assertThat(peak.get()).isLessThanOrEqualTo(limit);
+        assertThat(peak.get()).isGreaterThan(1);
+    }
+
+    @Test
+    void execute_doesNotBlockTheSubmitter_whenAllPermitsAreTaken() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+        try (VirtualThreadExecutor executor = new VirtualThreadExecutor(1)) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(secondRan::countDown); // returns immediately, waits for the permit
+
+            assertThat(secondRan.await(100, TimeUnit.MILLISECONDS)).isFalse();
+            assertThat(executor.activeCount()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(secondRan.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
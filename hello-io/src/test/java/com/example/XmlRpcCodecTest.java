@@ -0,0 +1,98 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XmlRpcCodecTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void encodesReceiveCall_withStructPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", "a<b&c");
+        payload.put("amount", 42);
+        payload.put("currency", "USD");
+
+        String xml = new String(XmlRpcCodec.encodeCall("receive", payload), StandardCharsets.UTF_8);
+
+        assertThat(xml).contains("<methodName>receive</methodName>");
+        assertThat(xml).contains("<member><name>userId</name><value><string>a&lt;b&amp;c</string></value></member>");
+        assertThat(xml).contains("<member><name>amount</name><value><int>42</int></value></member>");
+        assertThat(xml).contains("<member><name>currency</name><value><string>USD</string></value></member>");
+    }
+
+    @Test
+    void decodesTypedAndUntypedValues() throws Exception {
+        assertThat(XmlRpcCodec.decodeResponse(bytes(
+                "<methodResponse><params><param><value><string>hi &amp; bye</string></value></param></params></methodResponse>")))
+                .isEqualTo("hi & bye");
+        assertThat(XmlRpcCodec.decodeResponse(bytes(
+                "<methodResponse><params><param><value>plain</value></param></params></methodResponse>")))
+                .isEqualTo("plain");
+        assertThat(XmlRpcCodec.decodeResponse(bytes(
+                "<methodResponse><params><param><value><i4>7</i4></value></param></params></methodResponse>")))
+                .isEqualTo(7);
+    }
+
+    @Test
+    void decodesNestedStructsAndArrays() throws Exception {
+        Object value = XmlRpcCodec.decodeResponse(bytes("""
+                <?xml version="1.0"?>
+                <methodResponse><params><param><value><struct>
+                  <member><name>ok</name><value><boolean>1</boolean></value></member>
+                  <member><name>items</name><value><array><data>
+                    <value><int>1</int></value>
+                    <value><double>2.5</double></value>
+                  </data></array></value></member>
+                </struct></value></param></params></methodResponse>
+                """));
+
+        assertThat(value).isInstanceOf(Map.class);
+        Map<?, ?> struct = (Map<?, ?>) value;
+        assertThat(struct.get("ok")).isEqualTo(true);
+        assertThat((Object[]) struct.get("items")).containsExactly(1, 2.5);
+    }
+
+    @Test
+    void faultResponse_throwsFault_withCodeAndMessage() {
+        byte[] body = bytes("""
+                <methodResponse><fault><value><struct>
+                  <member><name>faultCode</name><value><int>4</int></value></member>
+                  <member><name>faultString</name><value><string>Too many parameters.</string></value></member>
+                </struct></value></fault></methodResponse>
+                """);
+
+        assertThatThrownBy(() -> XmlRpcCodec.decodeResponse(body))
+                .isInstanceOfSatisfying(XmlRpcCodec.Fault.class, f -> assertThat(f.code).isEqualTo(4))
+                .hasMessage("Too many parameters.");
+    }
+
+    @Test
+    void malformedResponse_isRejected() {
+        assertThatThrownBy(() -> XmlRpcCodec.decodeResponse(bytes("<methodResponse><params>")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void serverSide_decodesCalls_andEncodesResponsesAndFaults() throws Exception {
+        Map<String, Object> payload = Map.of("userId", "a<b", "amount", 7);
+        XmlRpcCodec.Call call = XmlRpcCodec.decodeCall(XmlRpcCodec.encodeCall("receive", payload, "extra"));
+
+        assertThat(call.methodName()).isEqualTo("receive");
+        assertThat(call.params()).containsExactly(payload, "extra");
+
+        assertThat(XmlRpcCodec.decodeResponse(XmlRpcCodec.encodeResponse("ok & done"))).isEqualTo("ok & done");
+        assertThatThrownBy(() -> XmlRpcCodec.decodeResponse(XmlRpcCodec.encodeFault(-32601, "no such method")))
+                .isInstanceOfSatisfying(XmlRpcCodec.Fault.class, f -> assertThat(f.code).isEqualTo(-32601))
+                .hasMessage("no such method");
+    }
+}
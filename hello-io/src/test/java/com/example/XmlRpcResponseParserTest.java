@@ -0,0 +1,91 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XmlRpcResponseParserTest {
+
+    private static String parse(String xml) throws XmlRpcCodec.Fault {
+        byte[] b = xml.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[b.length + 10]; // parser must honour len, not the array size
+        System.arraycopy(b, 0, padded, 0, b.length);
+        return XmlRpcResponseParser.parse(padded, b.length);
+    }
+
+    @Test
+    void readsStringResponse_likePythonServerSendsIt() throws Exception {
+        assertThat(parse("""
+                <?xml version='1.0'?>
+                <methodResponse>
+                <params>
+                <param>
+                <value><string>Server received: userId=alice, amount=42 USD</string></value>
+                </param>
+                </params>
+                </methodResponse>
+                """)).isEqualTo("Server received: userId=alice, amount=42 USD");
+    }
+
+    @Test
+    void readsUntypedAndNumericScalars() throws Exception {
+        assertThat(parse("<methodResponse><params><param><value> spaced </value></param></params></methodResponse>"))
+                .isEqualTo(" spaced ");
+        assertThat(parse("<methodResponse><params><param><value><int>12</int></value></param></params></methodResponse>"))
+                .isEqualTo("12");
+        assertThat(parse("<methodResponse><params><param><value><nil/></value></param></params></methodResponse>"))
+                .isNull();
+    }
+
+    @Test
+    void decodesEntities_andUtf8() throws Exception {
+        assertThat(parse("<methodResponse><params><param><value><string>&lt;a&gt; &amp; &quot;b&quot; &apos;c&apos; &#233;&#x20AC; €</string></value></param></params></methodResponse>"))
+                .isEqualTo("<a> & \"b\" 'c' é€ €");
+    }
+
+    @Test
+    void rejectsUnknownEntities_insteadOfGuessing() {
+        for (String entity : List.of("&ab;", "&foo;", "&nbsp;", "&LT;", "&;")) {
+            assertThatThrownBy(() -> parse("<methodResponse><params><param><value><string>x" + entity
+                    + "</string></value></param></params></methodResponse>"))
+                    .as(entity)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("entity");
+        }
+    }
+
+    @Test
+    void rejectsInvalidCharacterReferences() {
+        for (String reference : List.of("&#xZZ;", "&#12a;", "&#x;", "&#;", "&#x110000;", "&#99999999999;")) {
+            assertThatThrownBy(() -> parse("<methodResponse><params><param><value><string>x" + reference
+                    + "</string></value></param></params></methodResponse>"))
+                    .as(reference)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("reference");
+        }
+    }
+
+    @Test
+    void faultResponse_throwsFault() {
+        assertThatThrownBy(() -> parse("""
+                <methodResponse><fault><value><struct>
+                <member><name>faultCode</name><value><int>1</int></value></member>
+                <member><name>faultString</name><value><string>&lt;class 'KeyError'&gt;:'userId'</string></value></member>
+                </struct></value></fault></methodResponse>
+                """))
+                .isInstanceOfSatisfying(XmlRpcCodec.Fault.class, f -> assertThat(f.code).isEqualTo(1))
+                .hasMessage("<class 'KeyError'>:'userId'");
+    }
+
+    @Test
+    void rejectsStructuredOrMissingValues() {
+        assertThatThrownBy(() -> parse("<methodResponse><params><param><value><struct></struct></value></param></params></methodResponse>"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("<methodResponse></methodResponse>"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
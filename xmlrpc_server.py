@@ -5,6 +5,8 @@ import datetime
 
 class RequestHandler(SimpleXMLRPCRequestHandler):
   rpc_paths = ("/RPC2",)
+  # HTTP/1.1 lets clients keep connections alive between calls
+  protocol_version = "HTTP/1.1"
 
 def receive(payload):
   # payload is expected to be a dict with 'userId', 'amount', 'currency'
@@ -22,6 +24,7 @@ def main():
   with SimpleXMLRPCServer((host, port), requestHandler=RequestHandler, allow_none=False, logRequests=True) as server:
     server.register_function(receive, "receive")
     server.register_introspection_functions()  # enables system.listMethods
+    server.register_multicall_functions()  # enables system.multicall for batched sends
     print(f"XML-RPC server listening on http://{host}:{port}/RPC2")
     print("Method: receive(payload: struct) -> string")
     print("Press Ctrl+C to stop.")